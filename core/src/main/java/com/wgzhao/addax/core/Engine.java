@@ -25,6 +25,7 @@ import com.wgzhao.addax.core.util.Configuration;
 import com.wgzhao.addax.core.job.JobContainer;
 import com.wgzhao.addax.core.util.ConfigParser;
 import com.wgzhao.addax.core.util.ConfigurationValidate;
+import com.wgzhao.addax.core.util.container.CoreConstant;
 import com.wgzhao.addax.core.util.container.LoadUtil;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.DefaultParser;
@@ -115,12 +116,16 @@ public class Engine
     {
         Options options = new Options();
         options.addOption("job", true, "Job config.");
+        options.addOption("jobid", true, "Job id the metrics are labelled with.");
 
         DefaultParser parser = new DefaultParser();
         CommandLine cl = parser.parse(options, args);
 
         String jobPath = cl.getOptionValue("job");
         Configuration configuration = ConfigParser.parse(jobPath);
+        if (cl.hasOption("jobid")) {
+            configuration.set(CoreConstant.CORE_CONTAINER_JOB_ID, cl.getOptionValue("jobid"));
+        }
 
         // Print VM info
         VMInfo vmInfo = VMInfo.getVmInfo();
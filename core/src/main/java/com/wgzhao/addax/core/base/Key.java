@@ -68,6 +68,8 @@ public class Key
     public static final String QUERY_SQL = "querySql";
     // The primary key will be split. string type
     public static final String SPLIT_PK = "splitPk";
+    // How to split a table, by the split key (pk) or by the physical storage (physical). string type
+    public static final String SPLIT_MODE = "splitMode";
     // Auto guess table's split primary key, boolean type
     public static final String AUTO_PK = "autoPk";
     // The split number for each table, if primary key is present. numeric type
@@ -76,10 +78,17 @@ public class Key
     public static final String DRY_RUN = "dryRun";
     // The max size each batch in rdbms reading, default is 2048. numeric type
     public static final String FETCH_SIZE = "fetchSize";
+    // The rows of each page when a split is read by keyset pagination on its unique split key, 0 reads it with one query. numeric type
+    public static final String PAGE_SIZE = "pageSize";
     // The max bytes each batch , numeric type
     public static final String BATCH_BYTE_SIZE = "batchByteSize";
     // The max number of records each batch, numeric type
     public static final String BATCH_SIZE = "batchSize";
+    // The number of threads executing batches while the writer keeps reading, 0 executes them inline.
+    // Write modes other than insert use at most one worker so that batches apply in order. numeric type
+    public static final String FLUSH_WORKERS = "flushWorkers";
+    // The max number of batches handed to the flush workers and not finished yet, numeric type
+    public static final String MAX_PENDING_BATCHES = "maxPendingBatches";
     // The buffer size of reading or writing file, numeric type
     public static final String BUFFER_SIZE = "bufferSize";
     // Specify date type's format, default is 'yyyy-MM-dd hh:mm:ss', string type
@@ -134,6 +143,7 @@ public class Key
 
     // For Oracle reader ONLY
     public static final String HINT = "hint";
+    // The percentage of the table sampled to find the split points of the split key, not sampled by default. numeric type
     public static final String SAMPLE_PERCENTAGE = "samplePercentage";
     // For RDBMS reader or write, configure extra jdbc connection session. map type
     public static final String SESSION = "session";
@@ -144,6 +154,8 @@ public class Key
     // DOES NOT configure
     public static final String COLUMN_LIST = "columnList";
     public static final String SPLIT_PK_SQL = "splitPkSql";
+    // The where clause of the split a reader slice reads, empty for the whole table
+    public static final String SPLIT_RANGE = "splitRange";
     public static final String EMPTY_AS_NULL = "emptyAsNull";
     public static final String MANDATORY_ENCODING = "mandatoryEncoding";
     public static final String HEADER = "header";
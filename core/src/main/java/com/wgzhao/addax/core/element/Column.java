@@ -18,6 +18,8 @@
 package com.wgzhao.addax.core.element;
 
 import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.annotation.JSONField;
+import com.wgzhao.addax.core.util.ClassSize;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -69,6 +71,19 @@ public abstract class Column
         this.byteSize = byteSize;
     }
 
+    /**
+     * The heap actually occupied by this column and its value.
+     * Unlike {@link #getByteSize()}, which is the payload counted in the statistics,
+     * it follows the in-memory representation, e.g. a CJK string takes two bytes per char.
+     *
+     * @return the footprint in bytes
+     */
+    @JSONField(serialize = false)
+    public int getMemorySize()
+    {
+        return ClassSize.align(ClassSize.COLUMN_FIELDS) + ClassSize.sizeOf(this.rawData);
+    }
+
     public abstract Long asLong();
 
     public abstract Double asDouble();
@@ -17,8 +17,10 @@
 
 package com.wgzhao.addax.core.element;
 
+import com.alibaba.fastjson2.annotation.JSONField;
 import com.wgzhao.addax.core.spi.ErrorCode;
 import com.wgzhao.addax.core.exception.AddaxException;
+import com.wgzhao.addax.core.util.ClassSize;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -72,6 +74,14 @@ public class DateColumn
         super(stamp, Column.Type.DATE, (null == stamp ? 0 : 8));
     }
 
+    @Override
+    @JSONField(serialize = false)
+    public int getMemorySize()
+    {
+        // subType, nanos, precision, errorTemplate
+        return ClassSize.align(ClassSize.COLUMN_FIELDS + 2 * ClassSize.REFERENCE + 8) + ClassSize.sizeOf(this.getRawData());
+    }
+
     /**
      * Creates a DateColumn from a java.util.Date object.
      *
@@ -17,8 +17,10 @@
 
 package com.wgzhao.addax.core.element;
 
+import com.alibaba.fastjson2.annotation.JSONField;
 import com.wgzhao.addax.core.spi.ErrorCode;
 import com.wgzhao.addax.core.exception.AddaxException;
+import com.wgzhao.addax.core.util.ClassSize;
 import com.wgzhao.addax.core.util.OverFlowUtil;
 
 import java.math.BigDecimal;
@@ -29,6 +31,10 @@ import java.util.Date;
 /**
  * A Column implementation for handling double values.
  * This class supports various constructors to initialize the column with different data types.
+ * <p>
+ * Values built from a {@link Double} are kept in a primitive field; their decimal string
+ * is only produced the first time {@link #asString()} or {@link #getRawData()} asks for it
+ * and is kept afterwards.
  */
 public class DoubleColumn
         extends Column
@@ -39,6 +45,11 @@ public class DoubleColumn
      */
     private final String errorTemplate = "Double type cannot be converted to %s.";
 
+    // true when the value lives in doubleValue instead of a decimal string
+    private boolean isPrimitive;
+
+    private double doubleValue;
+
     /**
      * Creates a DoubleColumn with a string representation of the data.
      *
@@ -78,7 +89,10 @@ public class DoubleColumn
      */
     public DoubleColumn(Double data)
     {
-        this(data == null ? null : new BigDecimal(String.valueOf(data)).toPlainString());
+        super(null, Column.Type.DOUBLE, null == data ? 0 : 8);
+        if (data != null) {
+            setPrimitive(data);
+        }
     }
 
     /**
@@ -131,6 +145,48 @@ public class DoubleColumn
         super(data, Column.Type.DOUBLE, byteSize);
     }
 
+    private void setPrimitive(double data)
+    {
+        if (Double.isNaN(data) || Double.isInfinite(data)) {
+            // keep the original behavior of the string path for special values
+            super.setRawData(new BigDecimal(String.valueOf(data)).toPlainString());
+            return;
+        }
+        this.isPrimitive = true;
+        this.doubleValue = data;
+    }
+
+    /*
+     * the exact decimal built from a primitive value, equal to the one the string path would produce
+     */
+    private BigDecimal primitiveDecimal()
+    {
+        BigDecimal decimal = new BigDecimal(String.valueOf(doubleValue));
+        return decimal.scale() < 0 ? decimal.setScale(0) : decimal;
+    }
+
+    /**
+     * The raw value is the plain decimal string of the value, built once for a primitive value.
+     *
+     * @return the raw value, null for a null column
+     */
+    @Override
+    public Object getRawData()
+    {
+        if (isPrimitive) {
+            return asString();
+        }
+        return super.getRawData();
+    }
+
+    @Override
+    @JSONField(serialize = false)
+    public int getMemorySize()
+    {
+        // errorTemplate, isPrimitive, doubleValue, plus the decimal string when there is one
+        return ClassSize.align(ClassSize.COLUMN_FIELDS + ClassSize.REFERENCE + 1 + 8) + ClassSize.sizeOf(super.getRawData());
+    }
+
     /**
      * Converts the column data to BigDecimal.
      *
@@ -140,6 +196,10 @@ public class DoubleColumn
     @Override
     public BigDecimal asBigDecimal()
     {
+        if (isPrimitive) {
+            return primitiveDecimal();
+        }
+
         if (null == this.getRawData()) {
             return null;
         }
@@ -163,6 +223,10 @@ public class DoubleColumn
     @Override
     public Double asDouble()
     {
+        if (isPrimitive) {
+            return doubleValue;
+        }
+
         if (null == this.getRawData()) {
             return null;
         }
@@ -189,6 +253,10 @@ public class DoubleColumn
     @Override
     public Long asLong()
     {
+        if (isPrimitive && doubleValue >= Long.MIN_VALUE && doubleValue < Long.MAX_VALUE) {
+            return (long) doubleValue;
+        }
+
         if (null == this.getRawData()) {
             return null;
         }
@@ -208,6 +276,10 @@ public class DoubleColumn
     @Override
     public BigInteger asBigInteger()
     {
+        if (isPrimitive) {
+            return primitiveDecimal().toBigInteger();
+        }
+
         if (null == this.getRawData()) {
             return null;
         }
@@ -223,10 +295,13 @@ public class DoubleColumn
     @Override
     public String asString()
     {
-        if (null == this.getRawData()) {
+        if (isPrimitive && null == super.getRawData()) {
+            super.setRawData(primitiveDecimal().toPlainString());
+        }
+        if (null == super.getRawData()) {
             return null;
         }
-        return (String) this.getRawData();
+        return (String) super.getRawData();
     }
 
     /**
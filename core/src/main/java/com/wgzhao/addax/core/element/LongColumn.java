@@ -17,8 +17,10 @@
 
 package com.wgzhao.addax.core.element;
 
+import com.alibaba.fastjson2.annotation.JSONField;
 import com.wgzhao.addax.core.exception.AddaxException;
 import com.wgzhao.addax.core.spi.ErrorCode;
+import com.wgzhao.addax.core.util.ClassSize;
 import com.wgzhao.addax.core.util.OverFlowUtil;
 import org.apache.commons.lang3.math.NumberUtils;
 
@@ -30,10 +32,23 @@ import java.util.Date;
 /**
  * A Column implementation for handling long values.
  * This class supports various constructors to initialize the column with different data types.
+ * <p>
+ * The value is kept in a primitive {@code long}; a {@link BigInteger} is only created
+ * when the value does not fit in a long.
  */
 public class LongColumn
         extends Column
 {
+    // the longest decimal digit string that always fits in a long
+    private static final int MAX_SAFE_DIGITS = 18;
+
+    // the value when it fits in a long, meaningless when isNull is true or bigValue is set
+    private long longValue;
+
+    // only set when the value overflows a long
+    private BigInteger bigValue;
+
+    private boolean isNull;
 
     /**
      * Creates a LongColumn with a string representation of the data.
@@ -44,12 +59,17 @@ public class LongColumn
     {
         super(null, Column.Type.LONG, 0);
         if (null == data) {
+            this.isNull = true;
             return;
         }
 
         try {
-            BigInteger rawData = NumberUtils.createBigDecimal(data).toBigInteger();
-            super.setRawData(rawData);
+            if (isPlainLong(data)) {
+                this.longValue = Long.parseLong(data);
+            }
+            else {
+                setBigInteger(NumberUtils.createBigDecimal(data).toBigInteger());
+            }
 
             /*
              * When rawData is in the range [0-127], rawData.bitLength() < 8,
@@ -64,6 +84,17 @@ public class LongColumn
         }
     }
 
+    /**
+     * Creates a LongColumn with a primitive long value, without any boxing.
+     *
+     * @param data The long data to initialize the column
+     */
+    public LongColumn(long data)
+    {
+        super(null, Column.Type.LONG, 8);
+        this.longValue = data;
+    }
+
     /**
      * Creates a LongColumn with a Long value.
      *
@@ -71,7 +102,13 @@ public class LongColumn
      */
     public LongColumn(Long data)
     {
-        this(null == data ? null : BigInteger.valueOf(data));
+        super(null, Column.Type.LONG, null == data ? 0 : 8);
+        if (null == data) {
+            this.isNull = true;
+        }
+        else {
+            this.longValue = data;
+        }
     }
 
     /**
@@ -81,7 +118,7 @@ public class LongColumn
      */
     public LongColumn(Integer data)
     {
-        this(null == data ? null : BigInteger.valueOf(data));
+        this(null == data ? null : Long.valueOf(data));
     }
 
     /**
@@ -91,26 +128,79 @@ public class LongColumn
      */
     public LongColumn(BigInteger data)
     {
-        this(data, null == data ? 0 : 8);
+        super(null, Column.Type.LONG, null == data ? 0 : 8);
+        if (null == data) {
+            this.isNull = true;
+        }
+        else {
+            setBigInteger(data);
+        }
     }
 
     /**
-     * Private constructor to initialize the column with BigInteger data and byte size.
+     * Creates an empty LongColumn with null value.
+     */
+    public LongColumn()
+    {
+        this((BigInteger) null);
+    }
+
+    /**
+     * Whether the string is an optionally signed run of decimal digits short enough
+     * to be parsed by {@link Long#parseLong(String)} without overflow.
      *
-     * @param data The BigInteger data to initialize the column
-     * @param byteSize The byte size of the data
+     * @param data the string to check
+     * @return true if the fast path applies
      */
-    private LongColumn(BigInteger data, int byteSize)
+    static boolean isPlainLong(String data)
     {
-        super(data, Column.Type.LONG, byteSize);
+        int len = data.length();
+        int i = 0;
+        if (len > 0 && (data.charAt(0) == '-' || data.charAt(0) == '+')) {
+            i = 1;
+        }
+        if (len == i || len - i > MAX_SAFE_DIGITS) {
+            return false;
+        }
+        for (; i < len; i++) {
+            char c = data.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void setBigInteger(BigInteger data)
+    {
+        if (data.bitLength() < Long.SIZE) {
+            this.longValue = data.longValue();
+        }
+        else {
+            this.bigValue = data;
+        }
     }
 
     /**
-     * Creates an empty LongColumn with null value.
+     * The raw value is a {@link Long}, or a {@link BigInteger} when it does not fit in a long.
+     *
+     * @return the raw value, null for a null column
      */
-    public LongColumn()
+    @Override
+    public Object getRawData()
     {
-        this((BigInteger) null);
+        if (isNull) {
+            return null;
+        }
+        return null == bigValue ? Long.valueOf(longValue) : bigValue;
+    }
+
+    @Override
+    @JSONField(serialize = false)
+    public int getMemorySize()
+    {
+        // longValue, bigValue, isNull
+        return ClassSize.align(ClassSize.COLUMN_FIELDS + 8 + ClassSize.REFERENCE + 1) + ClassSize.sizeOf(bigValue);
     }
 
     /**
@@ -121,11 +211,11 @@ public class LongColumn
     @Override
     public BigInteger asBigInteger()
     {
-        if (null == this.getRawData()) {
+        if (isNull) {
             return null;
         }
 
-        return (BigInteger) this.getRawData();
+        return null == bigValue ? BigInteger.valueOf(longValue) : bigValue;
     }
 
     /**
@@ -136,14 +226,10 @@ public class LongColumn
     @Override
     public Timestamp asTimestamp()
     {
-        if (this.getRawData() instanceof BigInteger) {
-            BigInteger b = (BigInteger) this.getRawData();
-            long l = b.longValue();
-            return new Timestamp(l);
-        }
-        else {
-            return new Timestamp((Long) this.getRawData());
+        if (isNull) {
+            return null;
         }
+        return new Timestamp(null == bigValue ? longValue : bigValue.longValue());
     }
 
     /**
@@ -154,14 +240,15 @@ public class LongColumn
     @Override
     public Long asLong()
     {
-        BigInteger rawData = (BigInteger) this.getRawData();
-        if (null == rawData) {
+        if (isNull) {
             return null;
         }
 
-        OverFlowUtil.validateLongNotOverFlow(rawData);
+        if (null != bigValue) {
+            OverFlowUtil.validateLongNotOverFlow(bigValue);
+        }
 
-        return rawData.longValue();
+        return longValue;
     }
 
     /**
@@ -172,10 +259,14 @@ public class LongColumn
     @Override
     public Double asDouble()
     {
-        if (null == this.getRawData()) {
+        if (isNull) {
             return null;
         }
 
+        if (null == bigValue) {
+            return (double) longValue;
+        }
+
         BigDecimal decimal = this.asBigDecimal();
         OverFlowUtil.validateDoubleNotOverFlow(decimal);
 
@@ -190,11 +281,11 @@ public class LongColumn
     @Override
     public Boolean asBoolean()
     {
-        if (null == this.getRawData()) {
+        if (isNull) {
             return null;
         }
 
-        return this.asBigInteger().compareTo(BigInteger.ZERO) != 0;
+        return null == bigValue ? longValue != 0 : bigValue.signum() != 0;
     }
 
     /**
@@ -205,11 +296,11 @@ public class LongColumn
     @Override
     public BigDecimal asBigDecimal()
     {
-        if (null == this.getRawData()) {
+        if (isNull) {
             return null;
         }
 
-        return new BigDecimal(this.asBigInteger());
+        return null == bigValue ? BigDecimal.valueOf(longValue) : new BigDecimal(bigValue);
     }
 
     /**
@@ -220,10 +311,10 @@ public class LongColumn
     @Override
     public String asString()
     {
-        if (null == this.getRawData()) {
+        if (isNull) {
             return null;
         }
-        return this.getRawData().toString();
+        return null == bigValue ? Long.toString(longValue) : bigValue.toString();
     }
 
     /**
@@ -234,7 +325,7 @@ public class LongColumn
     @Override
     public Date asDate()
     {
-        if (null == this.getRawData()) {
+        if (isNull) {
             return null;
         }
         return new Date(this.asLong());
@@ -251,4 +342,4 @@ public class LongColumn
         throw AddaxException.asAddaxException(
                 ErrorCode.CONVERT_NOT_SUPPORT, "Long type cannot be converted to Bytes.");
     }
-}
\ No newline at end of file
+}
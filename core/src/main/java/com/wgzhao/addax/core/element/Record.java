@@ -40,6 +40,17 @@ public interface Record
 
     int getMemorySize();
 
+    /**
+     * The heap actually occupied by the record and its columns, built from {@link Column#getMemorySize()}.
+     * The channel uses it instead of {@link #getMemorySize()} when {@code core.transport.channel.memoryAccounting} is {@code heap}.
+     *
+     * @return the footprint in bytes
+     */
+    default int getHeapSize()
+    {
+        return getMemorySize();
+    }
+
     void setMeta(Map<String, String> meta);
 
     Map<String, String> getMeta();
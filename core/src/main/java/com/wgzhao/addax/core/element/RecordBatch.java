@@ -0,0 +1,341 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wgzhao.addax.core.element;
+
+import com.wgzhao.addax.core.exception.AddaxException;
+import com.wgzhao.addax.core.util.ClassSize;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+import static com.wgzhao.addax.core.spi.ErrorCode.NOT_SUPPORT_TYPE;
+
+/**
+ * A columnar batch of rows that travels through the channel as a single unit.
+ * <p>
+ * Every column is stored in a primitive vector chosen by its {@link Column.Type}:
+ * <ul>
+ *     <li>LONG, INT, BOOL, DATE: {@code long[]} (booleans as 0/1, dates as epoch milliseconds)</li>
+ *     <li>TIMESTAMP: {@code long[]} epoch milliseconds plus {@code int[]} nanoseconds</li>
+ *     <li>DOUBLE: {@code double[]}</li>
+ *     <li>STRING, BYTES: one shared byte buffer per column with per-row start and length, strings are UTF-8</li>
+ * </ul>
+ * Nulls are tracked in a bitmap per column. A batch is filled row by row with {@link #addRow()} and the setters,
+ * and can be reused after {@link #reset()}.
+ * Writers that do not understand batches receive each row materialized by {@link #fillRecord(int, Record)}.
+ */
+public class RecordBatch
+{
+    private static final int INITIAL_BYTES_PER_VALUE = 16;
+
+    private final Column.Type[] types;
+    private final int capacity;
+    private final long[][] longs;
+    private final int[][] nanos;
+    private final double[][] doubles;
+    private final byte[][] bytes;
+    private final int[][] starts;
+    private final int[][] lengths;
+    private final int[] bytesUsed;
+    private final long[][] nulls;
+    private int size = 0;
+
+    public RecordBatch(Column.Type[] types, int capacity)
+    {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(String.format("The batch capacity [%d] must be greater than 0.", capacity));
+        }
+        this.types = types.clone();
+        this.capacity = capacity;
+        int n = types.length;
+        this.longs = new long[n][];
+        this.nanos = new int[n][];
+        this.doubles = new double[n][];
+        this.bytes = new byte[n][];
+        this.starts = new int[n][];
+        this.lengths = new int[n][];
+        this.bytesUsed = new int[n];
+        this.nulls = new long[n][(capacity + 63) >>> 6];
+        for (int i = 0; i < n; i++) {
+            switch (types[i]) {
+                case LONG, INT, BOOL, DATE -> longs[i] = new long[capacity];
+                case TIMESTAMP -> {
+                    longs[i] = new long[capacity];
+                    nanos[i] = new int[capacity];
+                }
+                case DOUBLE -> doubles[i] = new double[capacity];
+                case STRING, BYTES -> {
+                    bytes[i] = new byte[capacity * INITIAL_BYTES_PER_VALUE];
+                    starts[i] = new int[capacity];
+                    lengths[i] = new int[capacity];
+                }
+                default -> throw AddaxException.asAddaxException(NOT_SUPPORT_TYPE,
+                        String.format("The column type [%s] at index [%d] is not supported by the record batch.", types[i], i));
+            }
+        }
+    }
+
+    public Column.Type getType(int column)
+    {
+        return types[column];
+    }
+
+    public int getColumnNumber()
+    {
+        return types.length;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public int capacity()
+    {
+        return capacity;
+    }
+
+    public boolean isFull()
+    {
+        return size >= capacity;
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Append a new row and return its index. All columns of the new row start as null.
+     *
+     * @return the row index
+     */
+    public int addRow()
+    {
+        if (size >= capacity) {
+            throw new IllegalStateException(String.format("The record batch is full, capacity [%d].", capacity));
+        }
+        int row = size++;
+        for (long[] bitmap : nulls) {
+            bitmap[row >>> 6] |= 1L << row;
+        }
+        return row;
+    }
+
+    /**
+     * Drop the row most recently added, e.g. when filling it failed
+     */
+    public void discardLastRow()
+    {
+        if (size > 0) {
+            size--;
+        }
+    }
+
+    public void reset()
+    {
+        size = 0;
+        Arrays.fill(bytesUsed, 0);
+        for (long[] bitmap : nulls) {
+            Arrays.fill(bitmap, 0L);
+        }
+    }
+
+    public boolean isNull(int column, int row)
+    {
+        return (nulls[column][row >>> 6] & (1L << row)) != 0;
+    }
+
+    public void setNull(int column, int row)
+    {
+        nulls[column][row >>> 6] |= 1L << row;
+    }
+
+    private void setNotNull(int column, int row)
+    {
+        nulls[column][row >>> 6] &= ~(1L << row);
+    }
+
+    public void setLong(int column, int row, long value)
+    {
+        longs[column][row] = value;
+        setNotNull(column, row);
+    }
+
+    public long getLong(int column, int row)
+    {
+        return longs[column][row];
+    }
+
+    public void setBoolean(int column, int row, boolean value)
+    {
+        setLong(column, row, value ? 1L : 0L);
+    }
+
+    public void setTimestamp(int column, int row, long millis, int nano)
+    {
+        longs[column][row] = millis;
+        nanos[column][row] = nano;
+        setNotNull(column, row);
+    }
+
+    public int getNanos(int column, int row)
+    {
+        return nanos[column][row];
+    }
+
+    public void setDouble(int column, int row, double value)
+    {
+        doubles[column][row] = value;
+        setNotNull(column, row);
+    }
+
+    public double getDouble(int column, int row)
+    {
+        return doubles[column][row];
+    }
+
+    public void setString(int column, int row, String value)
+    {
+        if (value == null) {
+            setNull(column, row);
+            return;
+        }
+        byte[] b = value.getBytes(StandardCharsets.UTF_8);
+        setBytes(column, row, b, 0, b.length);
+    }
+
+    /**
+     * Copy a byte slice into the column buffer, the caller may reuse {@code src} afterward.
+     */
+    public void setBytes(int column, int row, byte[] src, int offset, int length)
+    {
+        int used = bytesUsed[column];
+        byte[] buf = bytes[column];
+        if (used + length > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, used + length));
+            bytes[column] = buf;
+        }
+        System.arraycopy(src, offset, buf, used, length);
+        starts[column][row] = used;
+        lengths[column][row] = length;
+        bytesUsed[column] = used + length;
+        setNotNull(column, row);
+    }
+
+    /**
+     * The shared buffer of a STRING/BYTES column, read a row with {@link #getStart(int, int)} and {@link #getLength(int, int)}
+     */
+    public byte[] getBuffer(int column)
+    {
+        return bytes[column];
+    }
+
+    public int getStart(int column, int row)
+    {
+        return starts[column][row];
+    }
+
+    public int getLength(int column, int row)
+    {
+        return lengths[column][row];
+    }
+
+    public String getString(int column, int row)
+    {
+        return new String(bytes[column], starts[column][row], lengths[column][row], StandardCharsets.UTF_8);
+    }
+
+    public byte[] getBytes(int column, int row)
+    {
+        int start = starts[column][row];
+        return Arrays.copyOfRange(bytes[column], start, start + lengths[column][row]);
+    }
+
+    /**
+     * Build the row-oriented column for one cell, used by the row-view adapter for legacy writers.
+     */
+    public Column getColumn(int column, int row)
+    {
+        boolean isNull = isNull(column, row);
+        return switch (types[column]) {
+            case LONG, INT -> isNull ? new LongColumn() : new LongColumn(longs[column][row]);
+            case BOOL -> isNull ? new BoolColumn() : new BoolColumn(longs[column][row] != 0);
+            case DATE -> isNull ? new DateColumn() : new DateColumn(longs[column][row]);
+            case TIMESTAMP -> {
+                if (isNull) {
+                    yield new TimestampColumn();
+                }
+                Timestamp ts = new Timestamp(longs[column][row]);
+                ts.setNanos(nanos[column][row]);
+                yield new TimestampColumn(ts);
+            }
+            case DOUBLE -> isNull ? new DoubleColumn() : new DoubleColumn(doubles[column][row]);
+            case STRING -> isNull ? new StringColumn() : new StringColumn(getString(column, row));
+            case BYTES -> isNull ? new BytesColumn() : new BytesColumn(getBytes(column, row));
+            default -> throw AddaxException.asAddaxException(NOT_SUPPORT_TYPE, "Unsupported column type " + types[column]);
+        };
+    }
+
+    /**
+     * Materialize one row into an empty record
+     */
+    public void fillRecord(int row, Record record)
+    {
+        for (int i = 0; i < types.length; i++) {
+            record.addColumn(getColumn(i, row));
+        }
+    }
+
+    /**
+     * The payload size of the batch, counted the same way as the columns of a row record
+     */
+    public int getByteSize()
+    {
+        int total = 0;
+        for (int i = 0; i < types.length; i++) {
+            switch (types[i]) {
+                case TIMESTAMP -> total += 12 * size;
+                case STRING, BYTES -> total += bytesUsed[i];
+                default -> total += 8 * size;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * The heap occupied by the vectors of the batch, independent of how many rows are filled
+     */
+    public int getMemorySize()
+    {
+        long total = ClassSize.OBJECT;
+        for (int i = 0; i < types.length; i++) {
+            total += ClassSize.ARRAY + nulls[i].length * 8L;
+            switch (types[i]) {
+                case TIMESTAMP -> total += 2L * ClassSize.ARRAY + 12L * capacity;
+                case DOUBLE -> total += ClassSize.ARRAY + 8L * capacity;
+                case STRING, BYTES -> total += 3L * ClassSize.ARRAY + bytes[i].length + 8L * capacity;
+                default -> total += ClassSize.ARRAY + 8L * capacity;
+            }
+        }
+        return (int) Math.min(total, Integer.MAX_VALUE);
+    }
+}
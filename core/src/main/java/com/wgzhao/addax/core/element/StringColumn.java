@@ -17,8 +17,10 @@
 
 package com.wgzhao.addax.core.element;
 
+import com.alibaba.fastjson2.annotation.JSONField;
 import com.wgzhao.addax.core.spi.ErrorCode;
 import com.wgzhao.addax.core.exception.AddaxException;
+import com.wgzhao.addax.core.util.ClassSize;
 import com.wgzhao.addax.core.util.OverFlowUtil;
 
 import java.math.BigDecimal;
@@ -47,6 +49,14 @@ public class StringColumn
                 .length()));
     }
 
+    @Override
+    @JSONField(serialize = false)
+    public int getMemorySize()
+    {
+        // errorTemplate
+        return ClassSize.align(ClassSize.COLUMN_FIELDS + ClassSize.REFERENCE) + ClassSize.sizeOf((String) this.getRawData());
+    }
+
     @Override
     public String asString()
     {
@@ -101,7 +111,12 @@ public class StringColumn
             return null;
         }
 
-        this.validateDoubleSpecific((String) this.getRawData());
+        String data = (String) this.getRawData();
+        if (LongColumn.isPlainLong(data)) {
+            return Long.parseLong(data);
+        }
+
+        this.validateDoubleSpecific(data);
 
         try {
             BigInteger integer = this.asBigInteger();
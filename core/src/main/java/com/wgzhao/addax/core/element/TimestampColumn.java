@@ -17,8 +17,10 @@
 
 package com.wgzhao.addax.core.element;
 
+import com.alibaba.fastjson2.annotation.JSONField;
 import com.wgzhao.addax.core.exception.AddaxException;
 import com.wgzhao.addax.core.spi.ErrorCode;
+import com.wgzhao.addax.core.util.ClassSize;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -43,6 +45,14 @@ public class TimestampColumn
         super(ts, Type.TIMESTAMP, (ts == null ? 0 : 12));
     }
 
+    @Override
+    @JSONField(serialize = false)
+    public int getMemorySize()
+    {
+        // errorTemplate
+        return ClassSize.align(ClassSize.COLUMN_FIELDS + ClassSize.REFERENCE) + ClassSize.sizeOf(this.getRawData());
+    }
+
     public TimestampColumn(Long ts)
     {
         this(new Timestamp(ts));
@@ -39,7 +39,10 @@ import com.wgzhao.addax.core.statistics.communication.Communication;
 import com.wgzhao.addax.core.statistics.communication.CommunicationTool;
 import com.wgzhao.addax.core.statistics.container.communicator.AbstractContainerCommunicator;
 import com.wgzhao.addax.core.statistics.container.communicator.job.StandAloneJobContainerCommunicator;
+import com.wgzhao.addax.core.statistics.metrics.MetricsHttpServer;
+import com.wgzhao.addax.core.statistics.metrics.MetricsRegistry;
 import com.wgzhao.addax.core.statistics.plugin.DefaultJobPluginCollector;
+import com.wgzhao.addax.core.transport.channel.TokenBucketLimiter;
 import com.wgzhao.addax.core.util.ErrorRecordChecker;
 import com.wgzhao.addax.core.util.container.ClassLoaderSwapper;
 import com.wgzhao.addax.core.util.container.CoreConstant;
@@ -52,6 +55,9 @@ import java.io.IOException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.time.Duration;
 import java.util.ArrayList;
@@ -89,6 +95,7 @@ public class JobContainer
     private long startTransferTimeStamp;
     private long endTransferTimeStamp;
     private int needChannelNumber;
+    private JobScope jobScope;
     private int totalStage = 1;
 
     public JobContainer(Configuration configuration)
@@ -107,6 +114,16 @@ public class JobContainer
     {
         LOG.info("The jobContainer begins to process the job.");
 
+        // the task groups find the live metrics of the job by its id
+        String jobId = configuration.getString(CoreConstant.CORE_CONTAINER_JOB_ID);
+        if (StringUtils.isBlank(jobId)) {
+            jobId = MetricsRegistry.nextJobId();
+            configuration.set(CoreConstant.CORE_CONTAINER_JOB_ID, jobId);
+        }
+        MetricsRegistry.registerJob(jobId, PerfTrace.startJob());
+        this.jobScope = JobScope.open(jobId, configuration);
+        MetricsHttpServer metricsServer = MetricsHttpServer.start(configuration.getInt(CoreConstant.CORE_STATISTICS_METRICS_PORT, 0));
+
         boolean hasException = false;
         boolean isDryRun = false;
         try {
@@ -185,6 +202,12 @@ public class JobContainer
                     this.logStatistics();
                 }
             }
+            if (metricsServer != null) {
+                metricsServer.stop();
+            }
+            this.jobScope.close();
+            MetricsRegistry.unregisterJob(jobId);
+            PerfTrace.endJob();
         }
     }
 
@@ -391,16 +414,18 @@ public class JobContainer
         if (isByteLimit) {
             long globalLimitedByteSpeed = this.configuration.getInt(CoreConstant.JOB_SETTING_SPEED_BYTE, 10 * 1024 * 1024);
 
-            // Under byte-rate limit, the per-channel byte limit must be set, otherwise fail
+            // Under byte-rate limit, the per-channel byte limit must be set, otherwise fail.
+            // The shared token bucket enforces the total by itself, so the channel number may come from job.setting.speed.channel instead
             Long channelLimitedByteSpeed = this.configuration.getLong(CoreConstant.CORE_TRANSPORT_CHANNEL_SPEED_BYTE, -1);
-            if (channelLimitedByteSpeed == null || channelLimitedByteSpeed <= 0) {
+            if (channelLimitedByteSpeed != null && channelLimitedByteSpeed > 0) {
+                needChannelNumberByByte = (int) (globalLimitedByteSpeed / channelLimitedByteSpeed);
+                needChannelNumberByByte = needChannelNumberByByte > 0 ? needChannelNumberByByte : 1;
+            }
+            else if (!isTokenBucketFlowControl()) {
                 throw AddaxException.asAddaxException(
                         CONFIG_ERROR,
                         "Under the condition of total bps limit, the bps value of a single channel cannot be empty or non-positive");
             }
-
-            needChannelNumberByByte = (int) (globalLimitedByteSpeed / channelLimitedByteSpeed);
-            needChannelNumberByByte = needChannelNumberByByte > 0 ? needChannelNumberByByte : 1;
             LOG.info("Job set Max-Byte-Speed to {} bytes.", globalLimitedByteSpeed);
         }
 
@@ -408,13 +433,14 @@ public class JobContainer
         if (isRecordLimit) {
             long globalLimitedRecordSpeed = this.configuration.getInt(CoreConstant.JOB_SETTING_SPEED_RECORD, 100000);
             Long channelLimitedRecordSpeed = this.configuration.getLong(CoreConstant.CORE_TRANSPORT_CHANNEL_SPEED_RECORD, -1);
-            if (channelLimitedRecordSpeed == null || channelLimitedRecordSpeed <= 0) {
+            if (channelLimitedRecordSpeed != null && channelLimitedRecordSpeed > 0) {
+                needChannelNumberByRecord = (int) (globalLimitedRecordSpeed / channelLimitedRecordSpeed);
+                needChannelNumberByRecord = needChannelNumberByRecord > 0 ? needChannelNumberByRecord : 1;
+            }
+            else if (!isTokenBucketFlowControl()) {
                 throw AddaxException.asAddaxException(CONFIG_ERROR,
                         "Under the condition of total tps limit, the tps value of a single channel cannot be empty or non-positive");
             }
-
-            needChannelNumberByRecord = (int) (globalLimitedRecordSpeed / channelLimitedRecordSpeed);
-            needChannelNumberByRecord = needChannelNumberByRecord > 0 ? needChannelNumberByRecord : 1;
             LOG.info("Job set Max-Record-Speed to {} records.", globalLimitedRecordSpeed);
         }
 
@@ -432,6 +458,11 @@ public class JobContainer
         LOG.info("Job set Channel-Number to {} channel(s).", this.needChannelNumber);
     }
 
+    private boolean isTokenBucketFlowControl()
+    {
+        return !"sleep".equalsIgnoreCase(this.configuration.getString(CoreConstant.CORE_TRANSPORT_CHANNEL_FLOW_CONTROL, "tokenBucket"));
+    }
+
     /*
      * schedule merges the split results into TaskGroupContainer and dispatches them
      * according to the execution mode.
@@ -446,6 +477,7 @@ public class JobContainer
 
         this.needChannelNumber = Math.min(this.needChannelNumber, taskNumber);
         PerfTrace.getInstance().setChannelNumber(needChannelNumber);
+        this.jobScope.setChannelNumber(needChannelNumber);
 
         /*
          * Get which tasks each taskGroup should run from configuration
@@ -480,7 +512,15 @@ public class JobContainer
         AbstractContainerCommunicator containerCommunicator = new StandAloneJobContainerCommunicator(configuration);
         super.setContainerCommunicator(containerCommunicator);
 
-        return new StandAloneScheduler(containerCommunicator);
+        StandAloneScheduler scheduler = new StandAloneScheduler(containerCommunicator);
+        if (isTokenBucketFlowControl()) {
+            // all channels of the job draw from one bucket, so skewed channels can still use the whole budget
+            scheduler.setRateLimiter(TokenBucketLimiter.of(
+                    configuration.getLong(CoreConstant.JOB_SETTING_SPEED_BYTE, -1),
+                    configuration.getLong(CoreConstant.JOB_SETTING_SPEED_RECORD, -1),
+                    configuration.getLong(CoreConstant.CORE_TRANSPORT_CHANNEL_FLOW_CONTROL_INTERVAL, 1000)));
+        }
+        return scheduler;
     }
 
     private void post()
@@ -600,6 +640,32 @@ public class JobContainer
             );
             LOG.info(transStatMsg);
         }
+        logPerfTrace();
+    }
+
+    /*
+     * Report where the tasks spent their time, and dump the trace when asked to
+     */
+    private void logPerfTrace()
+    {
+        PerfTrace perfTrace = PerfTrace.getInstance();
+        int slowest = configuration.getInt(CoreConstant.CORE_STATISTICS_PERF_TRACE_SLOWEST, 10);
+        if (slowest > 0) {
+            String summary = perfTrace.summarize(slowest);
+            if (!summary.isEmpty()) {
+                LOG.info(summary);
+            }
+        }
+        String dumpFile = configuration.getString(CoreConstant.CORE_STATISTICS_PERF_TRACE_DUMP_FILE);
+        if (StringUtils.isNotBlank(dumpFile)) {
+            try {
+                Files.writeString(Paths.get(dumpFile), perfTrace.toJSON(Math.max(slowest, 0)).toJSONString(), StandardCharsets.UTF_8);
+                LOG.info("The performance trace is written to {}", dumpFile);
+            }
+            catch (IOException e) {
+                LOG.warn("Failed to write the performance trace to {}: {}", dumpFile, e.getMessage());
+            }
+        }
     }
 
     /*
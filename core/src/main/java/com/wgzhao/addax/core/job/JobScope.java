@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wgzhao.addax.core.job;
+
+import com.wgzhao.addax.core.util.Configuration;
+import com.wgzhao.addax.core.util.container.CoreConstant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * The resources shared by the threads of a running job, such as the connection pools of the RDBMS plugins,
+ * which are closed when the job ends instead of living as long as the JVM.
+ * <p>
+ * Like the {@link com.wgzhao.addax.core.statistics.PerfTrace} of the job, {@link #open} binds the scope to the job thread
+ * and the threads it starts inherit it. Code running outside a job sees no scope.
+ */
+public final class JobScope
+{
+    private static final Logger LOG = LoggerFactory.getLogger(JobScope.class);
+
+    private static final InheritableThreadLocal<JobScope> CURRENT = new InheritableThreadLocal<>();
+
+    private final String jobId;
+
+    private final Configuration configuration;
+
+    private final Deque<AutoCloseable> resources = new ConcurrentLinkedDeque<>();
+
+    private volatile int channelNumber;
+
+    private volatile boolean closed = false;
+
+    private JobScope(String jobId, Configuration configuration)
+    {
+        this.jobId = jobId;
+        this.configuration = configuration;
+        this.channelNumber = Math.max(1, configuration.getInt(CoreConstant.JOB_SETTING_SPEED_CHANNEL, 1));
+    }
+
+    /**
+     * Bind a new scope to the current thread and the threads it will start
+     *
+     * @param jobId the job id
+     * @param configuration the job configuration
+     * @return the scope of the job
+     */
+    public static JobScope open(String jobId, Configuration configuration)
+    {
+        JobScope scope = new JobScope(jobId, configuration);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * @return the scope of the job the current thread runs for, or null outside a job
+     */
+    public static JobScope current()
+    {
+        return CURRENT.get();
+    }
+
+    public String getJobId()
+    {
+        return jobId;
+    }
+
+    public Configuration getConfiguration()
+    {
+        return configuration;
+    }
+
+    /**
+     * @return the channels of the job, the configured ones until the job has adjusted them
+     */
+    public int getChannelNumber()
+    {
+        return channelNumber;
+    }
+
+    public void setChannelNumber(int channelNumber)
+    {
+        this.channelNumber = Math.max(1, channelNumber);
+    }
+
+    /**
+     * Close the resource when the job ends, or now if it has ended already
+     *
+     * @param resource the resource
+     */
+    public void register(AutoCloseable resource)
+    {
+        resources.push(resource);
+        if (closed) {
+            closeResources();
+        }
+    }
+
+    /**
+     * Close the resources, the last registered first, and unbind the scope from the current thread
+     */
+    public void close()
+    {
+        closed = true;
+        closeResources();
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+    }
+
+    private void closeResources()
+    {
+        AutoCloseable resource;
+        while ((resource = resources.poll()) != null) {
+            try {
+                resource.close();
+            }
+            catch (Exception e) {
+                LOG.warn("Failed to close the resource {} of job {}.", resource, jobId, e);
+            }
+        }
+    }
+}
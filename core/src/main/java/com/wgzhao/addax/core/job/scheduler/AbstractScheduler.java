@@ -26,6 +26,7 @@ import com.wgzhao.addax.core.statistics.communication.Communication;
 import com.wgzhao.addax.core.statistics.communication.CommunicationTool;
 import com.wgzhao.addax.core.statistics.container.communicator.AbstractContainerCommunicator;
 import com.wgzhao.addax.core.util.ErrorRecordChecker;
+import com.wgzhao.addax.core.util.container.CompletionSignal;
 import com.wgzhao.addax.core.util.container.CoreConstant;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
@@ -42,6 +43,9 @@ public abstract class AbstractScheduler
 
     private final AbstractContainerCommunicator containerCommunicator;
 
+    // signalled by the implementations whenever a task group ends
+    protected final CompletionSignal taskGroupCompletion = new CompletionSignal();
+
     public AbstractScheduler(AbstractContainerCommunicator containerCommunicator)
     {
         this.containerCommunicator = containerCommunicator;
@@ -116,7 +120,8 @@ public abstract class AbstractScheduler
             }
 
             try {
-                TimeUnit.MILLISECONDS.sleep(jobSleepIntervalInMillSec);
+                // a finished task group ends the wait early, the interval only paces the progress checks
+                taskGroupCompletion.await(jobSleepIntervalInMillSec, TimeUnit.MILLISECONDS);
             }
             catch (InterruptedException e) {
                 // Restore interrupt status and exit as failed
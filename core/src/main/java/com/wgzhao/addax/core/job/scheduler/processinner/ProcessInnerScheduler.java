@@ -24,13 +24,17 @@ import com.wgzhao.addax.core.util.Configuration;
 import com.wgzhao.addax.core.job.scheduler.AbstractScheduler;
 import com.wgzhao.addax.core.statistics.container.communicator.AbstractContainerCommunicator;
 import com.wgzhao.addax.core.taskgroup.TaskGroupContainer;
+import com.wgzhao.addax.core.taskgroup.WorkStealingTaskQueue;
 import com.wgzhao.addax.core.taskgroup.runner.TaskGroupContainerRunner;
+import com.wgzhao.addax.core.transport.channel.TokenBucketLimiter;
+import com.wgzhao.addax.core.util.container.VirtualThreads;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import static com.wgzhao.addax.core.spi.ErrorCode.RUNTIME_ERROR;
+import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_CONTAINER_JOB_WORK_STEALING;
 
 public abstract class ProcessInnerScheduler
         extends AbstractScheduler
@@ -38,20 +42,43 @@ public abstract class ProcessInnerScheduler
 
     private ExecutorService taskGroupContainerExecutorService;
 
+    private TokenBucketLimiter rateLimiter;
+
+    private WorkStealingTaskQueue sharedTaskQueue;
+
     public ProcessInnerScheduler(AbstractContainerCommunicator containerCommunicator)
     {
         super(containerCommunicator);
     }
 
+    /**
+     * Share a job-wide speed limiter with every task group started by this scheduler
+     *
+     * @param rateLimiter the limiter, null for no job-wide limit
+     */
+    public void setRateLimiter(TokenBucketLimiter rateLimiter)
+    {
+        this.rateLimiter = rateLimiter;
+    }
+
     @Override
     public void startAllTaskGroup(List<Configuration> configurations)
     {
-        this.taskGroupContainerExecutorService = Executors
-                .newFixedThreadPool(configurations.size());
+        if (VirtualThreads.isEnabled(configurations.get(0))) {
+            this.taskGroupContainerExecutorService = Executors
+                    .newFixedThreadPool(configurations.size(), VirtualThreads.newThreadFactory());
+        }
+        else {
+            this.taskGroupContainerExecutorService = Executors
+                    .newFixedThreadPool(configurations.size());
+        }
+        if (configurations.size() > 1 && configurations.get(0).getBool(CORE_CONTAINER_JOB_WORK_STEALING, true)) {
+            this.sharedTaskQueue = new WorkStealingTaskQueue(configurations);
+        }
 
         for (Configuration taskGroupConfiguration : configurations) {
             TaskGroupContainerRunner taskGroupContainerRunner = newTaskGroupContainerRunner(taskGroupConfiguration);
-            this.taskGroupContainerExecutorService.execute(taskGroupContainerRunner);
+            this.taskGroupContainerExecutorService.execute(taskGroupCompletion.signalOnExit(taskGroupContainerRunner));
         }
 
         this.taskGroupContainerExecutorService.shutdown();
@@ -76,6 +103,8 @@ public abstract class ProcessInnerScheduler
             Configuration configuration)
     {
         TaskGroupContainer taskGroupContainer = new TaskGroupContainer(configuration);
+        taskGroupContainer.setRateLimiter(rateLimiter);
+        taskGroupContainer.setSharedTaskQueue(sharedTaskQueue);
 
         return new TaskGroupContainerRunner(taskGroupContainer);
     }
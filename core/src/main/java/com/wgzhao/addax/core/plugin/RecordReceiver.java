@@ -34,11 +34,36 @@
 package com.wgzhao.addax.core.plugin;
 
 import com.wgzhao.addax.core.element.Record;
+import com.wgzhao.addax.core.element.RecordBatch;
 
 public interface RecordReceiver
 {
 
     Record getFromReader();
 
+    /**
+     * Return the next columnar batch if the reader sent one at the current position.
+     * Return null when the next element is a plain row or the end of data;
+     * the caller should then fall back to {@link #getFromReader()}, which also returns the rows of a batch one by one.
+     *
+     * @return the next batch, or null
+     */
+    default RecordBatch getBatchFromReader()
+    {
+        return null;
+    }
+
+    /**
+     * Hand back a record the writer has completely finished with, so the reader side can fill it again.
+     * The writer must not touch the record or keep references to it afterward.
+     * It is a no-op unless {@code core.transport.record.recycle} is enabled.
+     *
+     * @param record the record written
+     */
+    default void recycle(Record record)
+    {
+        //
+    }
+
     void shutdown();
 }
@@ -17,15 +17,67 @@
 
 package com.wgzhao.addax.core.plugin;
 
+import com.wgzhao.addax.core.element.Column;
 import com.wgzhao.addax.core.element.Record;
+import com.wgzhao.addax.core.element.RecordBatch;
 
 public interface RecordSender
 {
 
     Record createRecord();
 
+    /**
+     * Create a record for a row whose column count is known in advance, e.g. from the result set metadata.
+     *
+     * @param columnCount the number of columns the record will hold
+     * @return an empty record
+     */
+    default Record createRecord(int columnCount)
+    {
+        return createRecord();
+    }
+
     void sendToWriter(Record record);
 
+    /**
+     * Whether the columnar transport is enabled for this task ({@code core.transport.exchanger.recordBatch}).
+     * Readers that can fill a {@link RecordBatch} should check it and keep sending rows when it is false.
+     *
+     * @return true if batches travel through the channel as a whole
+     */
+    default boolean isRecordBatchEnabled()
+    {
+        return false;
+    }
+
+    /**
+     * Create an empty columnar batch for {@link #sendBatchToWriter(RecordBatch)}.
+     *
+     * @param types the type of each column
+     * @param capacity the maximum number of rows
+     * @return a new batch
+     */
+    default RecordBatch createRecordBatch(Column.Type[] types, int capacity)
+    {
+        return new RecordBatch(types, capacity);
+    }
+
+    /**
+     * Send a whole columnar batch to the writer. The batch belongs to the channel afterward
+     * and must not be modified or reused by the reader.
+     * The default implementation expands the batch into rows, so every sender accepts batches.
+     *
+     * @param batch the batch to send
+     */
+    default void sendBatchToWriter(RecordBatch batch)
+    {
+        for (int row = 0; row < batch.size(); row++) {
+            Record record = createRecord(batch.getColumnNumber());
+            batch.fillRecord(row, record);
+            sendToWriter(record);
+        }
+    }
+
     void flush();
 
     void terminate();
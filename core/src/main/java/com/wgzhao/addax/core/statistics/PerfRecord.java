@@ -35,7 +35,11 @@ public class PerfRecord
     private final int taskGroupId;
     private final int taskId;
     private final PHASE phase;
+    // the trace of the job the record was created in
+    private final PerfTrace perfTrace = PerfTrace.getInstance();
     private volatile Date startTime;
+    private volatile long startTimeInNs;
+    private volatile long elapsedTimeInNs = -1;
     private final AtomicLong count = new AtomicLong(0);
     private final AtomicLong size = new AtomicLong(0);
 
@@ -48,6 +52,8 @@ public class PerfRecord
 
     public void start()
     {
+        this.startTime = new Date();
+        this.startTimeInNs = System.nanoTime();
     }
 
     public void addCount(long count)
@@ -62,19 +68,29 @@ public class PerfRecord
 
     public void end()
     {
+        if (startTime == null) {
+            return;
+        }
+        end(System.nanoTime() - startTimeInNs);
     }
 
+    /**
+     * End the phase with a time measured by the caller, e.g. the accumulated wait time of a channel
+     *
+     * @param elapsedTimeInNs the time spent in the phase, in nanoseconds
+     */
     public void end(long elapsedTimeInNs)
     {
+        this.elapsedTimeInNs = elapsedTimeInNs;
+        perfTrace.tracePerfRecord(this);
     }
 
     @Override
     public String toString()
     {
-        long elapsedTimeInNs = -1;
         return String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s"
                 , getInstId(), taskGroupId, taskId, phase,
-                DateFormatUtils.format(startTime, DEFAULT_DATE_FORMAT), elapsedTimeInNs, count, size, getHostIP());
+                startTime == null ? "" : DateFormatUtils.format(startTime, DEFAULT_DATE_FORMAT), elapsedTimeInNs, count, size, getHostIP());
     }
 
     @Override
@@ -130,6 +146,11 @@ public class PerfRecord
         return phase;
     }
 
+    public long getElapsedTimeInNs()
+    {
+        return elapsedTimeInNs;
+    }
+
     public long getCount()
     {
         return count.get();
@@ -17,29 +17,68 @@
 
 package com.wgzhao.addax.core.statistics;
 
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * PerfTrace 记录 job（local模式），taskGroup（distribute模式），因为这2种都是jvm，即一个jvm里只需要有1个PerfTrace。
+ * <p>
+ * When several jobs run in one JVM, as in the server, each job has its own trace: {@link #startJob()} binds a new one to the
+ * job thread and the threads it starts inherit it. {@link PerfRecord}s ended outside a job are not kept.
+ * <p>
+ * Each phase of each task is summed up, and the durations of a phase over all tasks go to a {@link LatencyHistogram},
+ * so the job end report shows both the spread of a phase and the task phases that took longest.
  */
 
 public class PerfTrace
 {
 
-    private static PerfTrace instance;
+    private static final PerfTrace DEFAULT = new PerfTrace();
+
+    private static final InheritableThreadLocal<PerfTrace> CURRENT = new InheritableThreadLocal<>();
+
     //PHASE => PerfRecord
+    private final Map<PhaseKey, PhaseStat> phaseStats = new ConcurrentHashMap<>();
+
+    private final Map<PerfRecord.PHASE, LatencyHistogram> phaseHistograms = new ConcurrentHashMap<>();
+
     private int channelNumber;
 
     private PerfTrace()
     {
     }
 
-    public static synchronized PerfTrace getInstance()
+    public static PerfTrace getInstance()
     {
-        if (instance == null) {
-            instance = new PerfTrace();
-        }
-        return instance;
+        PerfTrace current = CURRENT.get();
+        return current == null ? DEFAULT : current;
+    }
+
+    /**
+     * Bind a new trace to the current thread and the threads it will start
+     *
+     * @return the trace of the job
+     */
+    public static PerfTrace startJob()
+    {
+        PerfTrace perfTrace = new PerfTrace();
+        CURRENT.set(perfTrace);
+        return perfTrace;
+    }
+
+    public static void endJob()
+    {
+        CURRENT.remove();
     }
 
     //缺省传入的时间是nano
@@ -57,4 +96,150 @@ public class PerfTrace
     {
         this.channelNumber = needChannelNumber;
     }
+
+    public void tracePerfRecord(PerfRecord perfRecord)
+    {
+        if (this == DEFAULT || perfRecord.getElapsedTimeInNs() < 0) {
+            return;
+        }
+        phaseStats.computeIfAbsent(new PhaseKey(perfRecord.getTaskGroupId(), perfRecord.getTaskId(), perfRecord.getPhase()),
+                k -> new PhaseStat()).add(perfRecord.getElapsedTimeInNs());
+        phaseHistograms.computeIfAbsent(perfRecord.getPhase(), k -> new LatencyHistogram()).record(perfRecord.getElapsedTimeInNs());
+    }
+
+    /**
+     * @return the durations of each phase over all tasks so far
+     */
+    public Map<PerfRecord.PHASE, LatencyHistogram> getPhaseHistograms()
+    {
+        return Collections.unmodifiableMap(phaseHistograms);
+    }
+
+    /**
+     * Describe the spread of every phase and the task phases that took longest
+     *
+     * @param slowest how many task phases to list
+     * @return the report, empty if nothing was traced
+     */
+    public String summarize(int slowest)
+    {
+        if (phaseHistograms.isEmpty()) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%n%-20s %10s %12s %12s %12s %12s%n", "Phase", "Count", "P50", "P95", "P99", "Max"));
+        for (PerfRecord.PHASE phase : PerfRecord.PHASE.values()) {
+            LatencyHistogram histogram = phaseHistograms.get(phase);
+            if (histogram == null) {
+                continue;
+            }
+            sb.append(String.format("%-20s %10d %12s %12s %12s %12s%n", phase, histogram.getCount(),
+                    unitTime(histogram.getValueAtPercentile(50)), unitTime(histogram.getValueAtPercentile(95)),
+                    unitTime(histogram.getValueAtPercentile(99)), unitTime(histogram.getMax())));
+        }
+
+        List<Map.Entry<PhaseKey, PhaseStat>> slowestPhases = getSlowestPhases(slowest);
+        if (!slowestPhases.isEmpty()) {
+            sb.append(String.format("%nThe slowest task phases:%n%-10s %8s %-20s %10s %12s %12s%n",
+                    "TaskGroup", "Task", "Phase", "Count", "Total", "Max"));
+            for (Map.Entry<PhaseKey, PhaseStat> entry : slowestPhases) {
+                PhaseKey key = entry.getKey();
+                PhaseStat stat = entry.getValue();
+                sb.append(String.format("%-10d %8d %-20s %10d %12s %12s%n", key.taskGroupId(), key.taskId(), key.phase(),
+                        stat.getCount(), unitTime(stat.getTotalTimeInNs()), unitTime(stat.getMaxTimeInNs())));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The same content as {@link #summarize(int)}, with the times in nanoseconds
+     *
+     * @param slowest how many task phases to list
+     * @return the trace as JSON
+     */
+    public JSONObject toJSON(int slowest)
+    {
+        JSONArray phases = new JSONArray();
+        for (Map.Entry<PerfRecord.PHASE, LatencyHistogram> entry : phaseHistograms.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            JSONObject phase = new JSONObject();
+            phase.put("phase", entry.getKey().name());
+            phase.put("count", histogram.getCount());
+            phase.put("p50", histogram.getValueAtPercentile(50));
+            phase.put("p95", histogram.getValueAtPercentile(95));
+            phase.put("p99", histogram.getValueAtPercentile(99));
+            phase.put("max", histogram.getMax());
+            phases.add(phase);
+        }
+        JSONArray tasks = new JSONArray();
+        for (Map.Entry<PhaseKey, PhaseStat> entry : getSlowestPhases(slowest)) {
+            JSONObject task = new JSONObject();
+            task.put("taskGroupId", entry.getKey().taskGroupId());
+            task.put("taskId", entry.getKey().taskId());
+            task.put("phase", entry.getKey().phase().name());
+            task.put("count", entry.getValue().getCount());
+            task.put("total", entry.getValue().getTotalTimeInNs());
+            task.put("max", entry.getValue().getMaxTimeInNs());
+            tasks.add(task);
+        }
+        JSONObject json = new JSONObject();
+        json.put("channelNumber", channelNumber);
+        json.put("phases", phases);
+        json.put("slowestTaskPhases", tasks);
+        return json;
+    }
+
+    private List<Map.Entry<PhaseKey, PhaseStat>> getSlowestPhases(int slowest)
+    {
+        List<Map.Entry<PhaseKey, PhaseStat>> entries = new ArrayList<>(phaseStats.entrySet());
+        // the waits are the time a task spent doing nothing, they are not a phase a task can be slow in
+        entries.removeIf(e -> e.getKey().phase() == PerfRecord.PHASE.WAIT_READ_TIME || e.getKey().phase() == PerfRecord.PHASE.WAIT_WRITE_TIME);
+        entries.sort(Comparator.comparingLong((Map.Entry<PhaseKey, PhaseStat> e) -> e.getValue().getTotalTimeInNs()).reversed());
+        return entries.subList(0, Math.min(Math.max(slowest, 0), entries.size()));
+    }
+
+    /**
+     * @return the time spent in each phase of each task so far
+     */
+    public Map<PhaseKey, PhaseStat> getPhaseStats()
+    {
+        return Collections.unmodifiableMap(phaseStats);
+    }
+
+    public record PhaseKey(int taskGroupId, int taskId, PerfRecord.PHASE phase)
+    {
+    }
+
+    /**
+     * The times a phase of one task has ended, and the time spent in it
+     */
+    public static final class PhaseStat
+    {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalTimeInNs = new LongAdder();
+        private final AtomicLong maxTimeInNs = new AtomicLong();
+
+        void add(long elapsedTimeInNs)
+        {
+            count.increment();
+            totalTimeInNs.add(elapsedTimeInNs);
+            maxTimeInNs.accumulateAndGet(elapsedTimeInNs, Math::max);
+        }
+
+        public long getCount()
+        {
+            return count.sum();
+        }
+
+        public long getTotalTimeInNs()
+        {
+            return totalTimeInNs.sum();
+        }
+
+        public long getMaxTimeInNs()
+        {
+            return maxTimeInNs.get();
+        }
+    }
 }
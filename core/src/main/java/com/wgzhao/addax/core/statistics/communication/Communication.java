@@ -25,10 +25,12 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 public class Communication
         extends BaseObject
@@ -37,6 +39,9 @@ public class Communication
     // Message about the task is given to the job
     // Made final and initialized at declaration to ensure the map reference never changes.
     private final Map<String, List<String>> message = new ConcurrentHashMap<>();
+    // the well-known counters, one slot per Metric ordinal, updated without locking
+    private final AtomicLongArray metrics = new AtomicLongArray(Metric.values().length);
+    // any other counter, e.g. the percentage
     private final Map<String, Number> counter = new ConcurrentHashMap<>();
     // Running status
     private State state;
@@ -64,7 +69,10 @@ public class Communication
             return;
         }
         // copy counters
-        for (Map.Entry<String, Number> entry : source.getCounter().entrySet()) {
+        for (int i = 0; i < source.metrics.length(); i++) {
+            this.metrics.set(i, source.metrics.get(i));
+        }
+        for (Map.Entry<String, Number> entry : source.counter.entrySet()) {
             String key = entry.getKey();
             Number value = entry.getValue();
             if (value instanceof Long) {
@@ -95,6 +103,9 @@ public class Communication
     private void init()
     {
         // clear the maps instead of reassigning to keep the references final
+        for (int i = 0; i < this.metrics.length(); i++) {
+            this.metrics.set(i, 0);
+        }
         this.counter.clear();
         this.state = State.RUNNING;
         this.throwable = null;
@@ -102,9 +113,19 @@ public class Communication
         this.timestamp = System.currentTimeMillis();
     }
 
+    /**
+     * @return a snapshot of the counters, the well-known ones are only present when non-zero
+     */
     public Map<String, Number> getCounter()
     {
-        return this.counter;
+        Map<String, Number> snapshot = new HashMap<>(this.counter);
+        for (Metric metric : Metric.values()) {
+            long value = this.metrics.get(metric.ordinal());
+            if (value != 0) {
+                snapshot.put(metric.getKey(), value);
+            }
+        }
+        return snapshot;
     }
 
     public synchronized State getState()
@@ -179,34 +200,75 @@ public class Communication
         valueList.add(value);
     }
 
-    public synchronized Long getLongCounter(String key)
+    public long getLongCounter(Metric metric)
+    {
+        return this.metrics.get(metric.ordinal());
+    }
+
+    public void setLongCounter(Metric metric, long value)
     {
+        this.metrics.set(metric.ordinal(), value);
+    }
+
+    public void increaseCounter(Metric metric, long deltaValue)
+    {
+        this.metrics.addAndGet(metric.ordinal(), deltaValue);
+    }
+
+    public Long getLongCounter(String key)
+    {
+        Metric metric = Metric.of(key);
+        if (metric != null) {
+            return getLongCounter(metric);
+        }
         Number value = this.counter.get(key);
         return value == null ? 0 : value.longValue();
     }
 
-    public synchronized void setLongCounter(String key, long value)
+    public void setLongCounter(String key, long value)
     {
         Validate.isTrue(StringUtils.isNotBlank(key), "The key of setting counter can not be empty.");
-        this.counter.put(key, value);
+        Metric metric = Metric.of(key);
+        if (metric != null) {
+            setLongCounter(metric, value);
+        }
+        else {
+            this.counter.put(key, value);
+        }
     }
 
-    public synchronized Double getDoubleCounter(String key)
+    public Double getDoubleCounter(String key)
     {
+        Metric metric = Metric.of(key);
+        if (metric != null) {
+            return (double) getLongCounter(metric);
+        }
         Number value = this.counter.get(key);
 
         return value == null ? 0.0d : value.doubleValue();
     }
 
-    public synchronized void setDoubleCounter(String key, double value)
+    public void setDoubleCounter(String key, double value)
     {
         Validate.isTrue(StringUtils.isNotBlank(key), "The key of setting counter can not be empty.");
-        this.counter.put(key, value);
+        Metric metric = Metric.of(key);
+        if (metric != null) {
+            // the fixed slots only hold whole numbers
+            setLongCounter(metric, (long) value);
+        }
+        else {
+            this.counter.put(key, value);
+        }
     }
 
-    public synchronized void increaseCounter(String key, long deltaValue)
+    public void increaseCounter(String key, long deltaValue)
     {
         Validate.isTrue(StringUtils.isNotBlank(key), "The key of the added counter can not be empty.");
+        Metric metric = Metric.of(key);
+        if (metric != null) {
+            increaseCounter(metric, deltaValue);
+            return;
+        }
 
         // Use Map.merge to atomically update numeric counters. Primitive deltaValue is autoboxed to Long.
         this.counter.merge(key, deltaValue, (oldVal, newVal) -> Long.sum(oldVal.longValue(), newVal.longValue()));
@@ -219,7 +281,13 @@ public class Communication
         }
 
         // merge counter, add otherComm's value to this, create if not exist
-        for (Entry<String, Number> entry : otherComm.getCounter().entrySet()) {
+        for (int i = 0; i < this.metrics.length(); i++) {
+            long otherValue = otherComm.metrics.get(i);
+            if (otherValue != 0) {
+                this.metrics.addAndGet(i, otherValue);
+            }
+        }
+        for (Entry<String, Number> entry : otherComm.counter.entrySet()) {
             String key = entry.getKey();
             Number otherValue = entry.getValue();
             if (otherValue == null) {
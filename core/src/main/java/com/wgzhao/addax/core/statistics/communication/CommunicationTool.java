@@ -51,11 +51,11 @@ public final class CommunicationTool
     public static final String TRANSFORMER_SUCCEED_RECORDS = "totalTransformerSuccessRecords";
     public static final String TRANSFORMER_FAILED_RECORDS = "totalTransformerFailedRecords";
     public static final String TRANSFORMER_FILTER_RECORDS = "totalTransformerFilterRecords";
-    private static final String TOTAL_READ_BYTES = "totalReadBytes";
-    private static final String TOTAL_ERROR_RECORDS = "totalErrorRecords";
-    private static final String TOTAL_ERROR_BYTES = "totalErrorBytes";
-    private static final String WRITE_SUCCEED_RECORDS = "writeSucceedRecords";
-    private static final String WRITE_SUCCEED_BYTES = "writeSucceedBytes";
+    public static final String TOTAL_READ_BYTES = "totalReadBytes";
+    public static final String TOTAL_ERROR_RECORDS = "totalErrorRecords";
+    public static final String TOTAL_ERROR_BYTES = "totalErrorBytes";
+    public static final String WRITE_SUCCEED_RECORDS = "writeSucceedRecords";
+    public static final String WRITE_SUCCEED_BYTES = "writeSucceedBytes";
 
     private CommunicationTool() {}
 
@@ -92,32 +92,32 @@ public final class CommunicationTool
     public static long getTotalReadRecords(Communication communication)
     {
 
-        return communication.getLongCounter(READ_SUCCEED_RECORDS) + communication.getLongCounter(READ_FAILED_RECORDS);
+        return communication.getLongCounter(Metric.READ_SUCCEED_RECORDS) + communication.getLongCounter(Metric.READ_FAILED_RECORDS);
     }
 
     public static long getTotalReadBytes(Communication communication)
     {
-        return communication.getLongCounter(READ_SUCCEED_BYTES) + communication.getLongCounter(READ_FAILED_BYTES);
+        return communication.getLongCounter(Metric.READ_SUCCEED_BYTES) + communication.getLongCounter(Metric.READ_FAILED_BYTES);
     }
 
     public static long getTotalErrorRecords(Communication communication)
     {
-        return communication.getLongCounter(READ_FAILED_RECORDS) + communication.getLongCounter(WRITE_FAILED_RECORDS);
+        return communication.getLongCounter(Metric.READ_FAILED_RECORDS) + communication.getLongCounter(Metric.WRITE_FAILED_RECORDS);
     }
 
     public static long getTotalErrorBytes(Communication communication)
     {
-        return communication.getLongCounter(READ_FAILED_BYTES) + communication.getLongCounter(WRITE_FAILED_BYTES);
+        return communication.getLongCounter(Metric.READ_FAILED_BYTES) + communication.getLongCounter(Metric.WRITE_FAILED_BYTES);
     }
 
     public static long getWriteSucceedRecords(Communication communication)
     {
-        return communication.getLongCounter(WRITE_RECEIVED_RECORDS) - communication.getLongCounter(WRITE_FAILED_RECORDS);
+        return communication.getLongCounter(Metric.WRITE_RECEIVED_RECORDS) - communication.getLongCounter(Metric.WRITE_FAILED_RECORDS);
     }
 
     public static long getWriteSucceedBytes(Communication communication)
     {
-        return communication.getLongCounter(WRITE_RECEIVED_BYTES) - communication.getLongCounter(WRITE_FAILED_BYTES);
+        return communication.getLongCounter(Metric.WRITE_RECEIVED_BYTES) - communication.getLongCounter(Metric.WRITE_FAILED_BYTES);
     }
 
     public static class Stringify
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wgzhao.addax.core.statistics.communication;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The counters every {@link Communication} keeps in a fixed slot, indexed by ordinal.
+ * Any other key still goes to the generic counter map.
+ */
+public enum Metric
+{
+    STAGE(CommunicationTool.STAGE),
+    BYTE_SPEED(CommunicationTool.BYTE_SPEED),
+    RECORD_SPEED(CommunicationTool.RECORD_SPEED),
+
+    READ_SUCCEED_RECORDS(CommunicationTool.READ_SUCCEED_RECORDS),
+    READ_SUCCEED_BYTES(CommunicationTool.READ_SUCCEED_BYTES),
+    READ_FAILED_RECORDS(CommunicationTool.READ_FAILED_RECORDS),
+    READ_FAILED_BYTES(CommunicationTool.READ_FAILED_BYTES),
+
+    WRITE_RECEIVED_RECORDS(CommunicationTool.WRITE_RECEIVED_RECORDS),
+    WRITE_RECEIVED_BYTES(CommunicationTool.WRITE_RECEIVED_BYTES),
+    WRITE_FAILED_RECORDS(CommunicationTool.WRITE_FAILED_RECORDS),
+    WRITE_FAILED_BYTES(CommunicationTool.WRITE_FAILED_BYTES),
+
+    TOTAL_READ_RECORDS(CommunicationTool.TOTAL_READ_RECORDS),
+    TOTAL_READ_BYTES(CommunicationTool.TOTAL_READ_BYTES),
+    TOTAL_ERROR_RECORDS(CommunicationTool.TOTAL_ERROR_RECORDS),
+    TOTAL_ERROR_BYTES(CommunicationTool.TOTAL_ERROR_BYTES),
+    WRITE_SUCCEED_RECORDS(CommunicationTool.WRITE_SUCCEED_RECORDS),
+    WRITE_SUCCEED_BYTES(CommunicationTool.WRITE_SUCCEED_BYTES),
+
+    WAIT_WRITER_TIME(CommunicationTool.WAIT_WRITER_TIME),
+    WAIT_READER_TIME(CommunicationTool.WAIT_READER_TIME),
+
+    TRANSFORMER_USED_TIME(CommunicationTool.TRANSFORMER_USED_TIME),
+    TRANSFORMER_SUCCEED_RECORDS(CommunicationTool.TRANSFORMER_SUCCEED_RECORDS),
+    TRANSFORMER_FAILED_RECORDS(CommunicationTool.TRANSFORMER_FAILED_RECORDS),
+    TRANSFORMER_FILTER_RECORDS(CommunicationTool.TRANSFORMER_FILTER_RECORDS);
+
+    private static final Map<String, Metric> BY_KEY = new HashMap<>();
+
+    static {
+        for (Metric metric : values()) {
+            BY_KEY.put(metric.key, metric);
+        }
+    }
+
+    private final String key;
+
+    Metric(String key)
+    {
+        this.key = key;
+    }
+
+    public String getKey()
+    {
+        return key;
+    }
+
+    /**
+     * @param key the counter key
+     * @return the metric with this key, or null if the key has no fixed slot
+     */
+    public static Metric of(String key)
+    {
+        return BY_KEY.get(key);
+    }
+}
@@ -90,6 +90,12 @@ public abstract class AbstractContainerCommunicator
         map.put(id, new Communication());
     }
 
+    public void replaceCommunication(Integer id, Communication communication)
+    {
+        Map<Integer, Communication> map = getCommunicationMap();
+        map.put(id, communication);
+    }
+
     public void reportVmInfo()
     {
         long now = System.currentTimeMillis();
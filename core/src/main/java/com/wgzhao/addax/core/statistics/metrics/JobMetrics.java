@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wgzhao.addax.core.statistics.metrics;
+
+import com.wgzhao.addax.core.statistics.PerfTrace;
+import com.wgzhao.addax.core.statistics.communication.Communication;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The live view of a running job, the task groups register themselves when they start.
+ */
+public class JobMetrics
+{
+    private final String jobId;
+
+    private final PerfTrace perfTrace;
+
+    private final Map<Integer, TaskGroupMetrics> taskGroups = new ConcurrentHashMap<>();
+
+    JobMetrics(String jobId, PerfTrace perfTrace)
+    {
+        this.jobId = jobId;
+        this.perfTrace = perfTrace;
+    }
+
+    public String getJobId()
+    {
+        return jobId;
+    }
+
+    public PerfTrace getPerfTrace()
+    {
+        return perfTrace;
+    }
+
+    public Collection<TaskGroupMetrics> getTaskGroups()
+    {
+        return Collections.unmodifiableCollection(taskGroups.values());
+    }
+
+    /**
+     * @param taskGroupId the task group id
+     * @param taskCommunications the task communications of the task group communicator, read as they change
+     * @return the view of the task group
+     */
+    public TaskGroupMetrics registerTaskGroup(int taskGroupId, Map<Integer, Communication> taskCommunications)
+    {
+        TaskGroupMetrics taskGroupMetrics = new TaskGroupMetrics(taskGroupId, taskCommunications);
+        taskGroups.put(taskGroupId, taskGroupMetrics);
+        return taskGroupMetrics;
+    }
+}
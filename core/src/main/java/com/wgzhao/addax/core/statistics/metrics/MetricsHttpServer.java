@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wgzhao.addax.core.statistics.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves {@link MetricsRegistry#scrape()} at {@code /metrics} while a job runs, for Prometheus to pull.
+ */
+public final class MetricsHttpServer
+{
+    private static final Logger LOG = LoggerFactory.getLogger(MetricsHttpServer.class);
+
+    private final HttpServer server;
+
+    private MetricsHttpServer(HttpServer server)
+    {
+        this.server = server;
+    }
+
+    /**
+     * Start serving on the given port, a port that cannot be bound only costs a warning
+     *
+     * @param port the port, not positive to serve nothing
+     * @return the started server, null if none was started
+     */
+    public static MetricsHttpServer start(int port)
+    {
+        if (port <= 0) {
+            return null;
+        }
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+            server.createContext("/metrics", MetricsHttpServer::handle);
+            // scrapes are rare and cheap, the dispatcher thread answers them itself
+            server.setExecutor(null);
+            server.start();
+            LOG.info("Serving the job metrics at http://0.0.0.0:{}/metrics", port);
+            return new MetricsHttpServer(server);
+        }
+        catch (IOException e) {
+            LOG.warn("Failed to serve the job metrics on port {}: {}", port, e.getMessage());
+            return null;
+        }
+    }
+
+    public void stop()
+    {
+        server.stop(0);
+    }
+
+    /**
+     * Answer a scrape, also mounted by the server
+     *
+     * @param exchange the request
+     * @throws IOException if the response cannot be written
+     */
+    public static void handle(HttpExchange exchange)
+            throws IOException
+    {
+        if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(405, -1);
+            exchange.close();
+            return;
+        }
+        byte[] body = MetricsRegistry.scrape().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", PrometheusTextFormat.CONTENT_TYPE);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+}
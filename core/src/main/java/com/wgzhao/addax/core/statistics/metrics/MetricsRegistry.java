@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wgzhao.addax.core.statistics.metrics;
+
+import com.wgzhao.addax.core.statistics.PerfTrace;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The jobs running in this JVM, one in the command line engine and any number in the server.
+ * A job is registered by its container for as long as it runs, {@link #scrape()} renders all of them.
+ */
+public final class MetricsRegistry
+{
+    private static final Map<String, JobMetrics> JOBS = new ConcurrentHashMap<>();
+
+    private static final AtomicLong JOB_SEQUENCE = new AtomicLong();
+
+    private MetricsRegistry() {}
+
+    /**
+     * @return an id for a job started without one
+     */
+    public static String nextJobId()
+    {
+        return String.valueOf(JOB_SEQUENCE.incrementAndGet());
+    }
+
+    public static JobMetrics registerJob(String jobId, PerfTrace perfTrace)
+    {
+        JobMetrics jobMetrics = new JobMetrics(jobId, perfTrace);
+        JOBS.put(jobId, jobMetrics);
+        return jobMetrics;
+    }
+
+    /**
+     * @param jobId the job id
+     * @return the metrics of the job, null if it is not running
+     */
+    public static JobMetrics getJob(String jobId)
+    {
+        return jobId == null ? null : JOBS.get(jobId);
+    }
+
+    public static void unregisterJob(String jobId)
+    {
+        JOBS.remove(jobId);
+    }
+
+    /**
+     * Render the metrics of every running job in the Prometheus text format
+     *
+     * @return the exposition, see {@link PrometheusTextFormat#CONTENT_TYPE}
+     */
+    public static String scrape()
+    {
+        return PrometheusTextFormat.format(List.copyOf(JOBS.values()));
+    }
+}
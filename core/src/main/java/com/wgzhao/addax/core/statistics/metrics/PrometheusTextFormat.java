@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wgzhao.addax.core.statistics.metrics;
+
+import com.wgzhao.addax.core.statistics.LatencyHistogram;
+import com.wgzhao.addax.core.statistics.PerfRecord;
+import com.wgzhao.addax.core.statistics.PerfTrace;
+import com.wgzhao.addax.core.statistics.communication.Communication;
+import com.wgzhao.addax.core.statistics.communication.CommunicationTool;
+import com.wgzhao.addax.core.statistics.communication.Metric;
+import com.wgzhao.addax.core.transport.channel.Channel;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Renders the running jobs in the Prometheus text exposition format.
+ * <p>
+ * Each counter is shown per job, per task group and per task, as {@code addax_job_*}, {@code addax_task_group_*}
+ * and {@code addax_task_*}, so that a dashboard can drill down without summing over a mix of levels.
+ * Comparing the wait times tells a source-bound task, whose writer waits for the reader, from a sink-bound one.
+ */
+public final class PrometheusTextFormat
+{
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+    // times are counted in nanoseconds and shown in seconds
+    private static final List<Counter> COUNTERS = List.of(
+            new Counter("read_records", "Records read", false, c -> c.getLongCounter(Metric.READ_SUCCEED_RECORDS)),
+            new Counter("read_bytes", "Bytes read", false, c -> c.getLongCounter(Metric.READ_SUCCEED_BYTES)),
+            new Counter("write_records", "Records written", false, CommunicationTool::getWriteSucceedRecords),
+            new Counter("write_bytes", "Bytes written", false, CommunicationTool::getWriteSucceedBytes),
+            new Counter("dirty_records", "Dirty records found by the reader or the writer", false, CommunicationTool::getTotalErrorRecords),
+            new Counter("dirty_bytes", "Bytes of the dirty records", false, CommunicationTool::getTotalErrorBytes),
+            new Counter("wait_reader_seconds", "Time the writer waited for records from the reader", true,
+                    c -> c.getLongCounter(Metric.WAIT_READER_TIME)),
+            new Counter("wait_writer_seconds", "Time the reader waited for room in the channel", true,
+                    c -> c.getLongCounter(Metric.WAIT_WRITER_TIME)),
+            new Counter("transformer_seconds", "Time spent in transformers", true, c -> c.getLongCounter(Metric.TRANSFORMER_USED_TIME)));
+
+    private PrometheusTextFormat() {}
+
+    static String format(List<JobMetrics> jobs)
+    {
+        StringBuilder sb = new StringBuilder();
+        for (Counter counter : COUNTERS) {
+            String name = "addax_job_" + counter.name() + "_total";
+            header(sb, name, counter.help() + ", per job", "counter");
+            for (JobMetrics job : jobs) {
+                long value = 0;
+                for (TaskGroupMetrics taskGroup : job.getTaskGroups()) {
+                    value += sum(taskGroup, counter);
+                }
+                sample(sb, name, labels(job, null, null), value, counter.inNanos());
+            }
+
+            name = "addax_task_group_" + counter.name() + "_total";
+            header(sb, name, counter.help() + ", per task group", "counter");
+            for (JobMetrics job : jobs) {
+                for (TaskGroupMetrics taskGroup : job.getTaskGroups()) {
+                    sample(sb, name, labels(job, taskGroup.getTaskGroupId(), null), sum(taskGroup, counter), counter.inNanos());
+                }
+            }
+
+            name = "addax_task_" + counter.name() + "_total";
+            header(sb, name, counter.help() + ", per task", "counter");
+            for (JobMetrics job : jobs) {
+                for (TaskGroupMetrics taskGroup : job.getTaskGroups()) {
+                    for (Map.Entry<Integer, Communication> task : taskGroup.getTaskCommunications().entrySet()) {
+                        sample(sb, name, labels(job, taskGroup.getTaskGroupId(), task.getKey()),
+                                counter.value().applyAsLong(task.getValue()), counter.inNanos());
+                    }
+                }
+            }
+        }
+
+        header(sb, "addax_task_channel_queue_records", "Records waiting in the channel of a running task", "gauge");
+        for (JobMetrics job : jobs) {
+            for (TaskGroupMetrics taskGroup : job.getTaskGroups()) {
+                for (Map.Entry<Integer, Channel> channel : taskGroup.getChannels().entrySet()) {
+                    sample(sb, "addax_task_channel_queue_records", labels(job, taskGroup.getTaskGroupId(), channel.getKey()),
+                            channel.getValue().size(), false);
+                }
+            }
+        }
+        header(sb, "addax_task_channel_capacity_records", "Records the channel of a running task may hold", "gauge");
+        for (JobMetrics job : jobs) {
+            for (TaskGroupMetrics taskGroup : job.getTaskGroups()) {
+                for (Map.Entry<Integer, Channel> channel : taskGroup.getChannels().entrySet()) {
+                    sample(sb, "addax_task_channel_capacity_records", labels(job, taskGroup.getTaskGroupId(), channel.getKey()),
+                            channel.getValue().getCapacityLimit(), false);
+                }
+            }
+        }
+
+        header(sb, "addax_task_phase_seconds", "Time spent in a phase of a task", "summary");
+        for (JobMetrics job : jobs) {
+            for (Map.Entry<PerfTrace.PhaseKey, PerfTrace.PhaseStat> entry : job.getPerfTrace().getPhaseStats().entrySet()) {
+                String labels = phaseLabels(job, entry.getKey());
+                sample(sb, "addax_task_phase_seconds_sum", labels, entry.getValue().getTotalTimeInNs(), true);
+                sample(sb, "addax_task_phase_seconds_count", labels, entry.getValue().getCount(), false);
+            }
+        }
+        header(sb, "addax_task_phase_max_seconds", "The longest time a phase of a task took", "gauge");
+        for (JobMetrics job : jobs) {
+            for (Map.Entry<PerfTrace.PhaseKey, PerfTrace.PhaseStat> entry : job.getPerfTrace().getPhaseStats().entrySet()) {
+                sample(sb, "addax_task_phase_max_seconds", phaseLabels(job, entry.getKey()), entry.getValue().getMaxTimeInNs(), true);
+            }
+        }
+
+        header(sb, "addax_job_phase_seconds", "Time a phase took, over all tasks of the job", "summary");
+        for (JobMetrics job : jobs) {
+            for (Map.Entry<PerfRecord.PHASE, LatencyHistogram> entry : job.getPerfTrace().getPhaseHistograms().entrySet()) {
+                String labels = labels(job, null, null) + ",phase=\"" + entry.getKey().name().toLowerCase(Locale.ROOT) + '"';
+                LatencyHistogram histogram = entry.getValue();
+                for (double quantile : QUANTILES) {
+                    sample(sb, "addax_job_phase_seconds", labels + ",quantile=\"" + quantile + '"',
+                            histogram.getValueAtPercentile(quantile * 100), true);
+                }
+                sample(sb, "addax_job_phase_seconds_sum", labels, histogram.getTotal(), true);
+                sample(sb, "addax_job_phase_seconds_count", labels, histogram.getCount(), false);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static long sum(TaskGroupMetrics taskGroup, Counter counter)
+    {
+        long value = 0;
+        for (Communication communication : taskGroup.getTaskCommunications().values()) {
+            value += counter.value().applyAsLong(communication);
+        }
+        return value;
+    }
+
+    private static void header(StringBuilder sb, String name, String help, String type)
+    {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder sb, String name, String labels, long value, boolean inNanos)
+    {
+        sb.append(name).append('{').append(labels).append("} ");
+        if (inNanos) {
+            sb.append(value / NANOS_PER_SECOND);
+        }
+        else {
+            sb.append(value);
+        }
+        sb.append('\n');
+    }
+
+    private static String labels(JobMetrics job, Integer taskGroupId, Integer taskId)
+    {
+        StringBuilder sb = new StringBuilder("job=\"").append(escape(job.getJobId())).append('"');
+        if (taskGroupId != null) {
+            sb.append(",task_group=\"").append(taskGroupId).append('"');
+        }
+        if (taskId != null) {
+            sb.append(",task=\"").append(taskId).append('"');
+        }
+        return sb.toString();
+    }
+
+    private static String phaseLabels(JobMetrics job, PerfTrace.PhaseKey key)
+    {
+        return labels(job, key.taskGroupId(), key.taskId()) + ",phase=\"" + key.phase().name().toLowerCase(Locale.ROOT) + '"';
+    }
+
+    private static String escape(String value)
+    {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private record Counter(String name, String help, boolean inNanos, ToLongFunction<Communication> value)
+    {
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wgzhao.addax.core.statistics.metrics;
+
+import com.wgzhao.addax.core.statistics.communication.Communication;
+import com.wgzhao.addax.core.transport.channel.Channel;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The live view of one task group: the communications of its tasks and the channels of the running ones.
+ */
+public class TaskGroupMetrics
+{
+    private final int taskGroupId;
+
+    // the map of the task group communicator, a restarted task replaces its entry
+    private final Map<Integer, Communication> taskCommunications;
+
+    private final Map<Integer, Channel> channels = new ConcurrentHashMap<>();
+
+    TaskGroupMetrics(int taskGroupId, Map<Integer, Communication> taskCommunications)
+    {
+        this.taskGroupId = taskGroupId;
+        this.taskCommunications = taskCommunications;
+    }
+
+    public int getTaskGroupId()
+    {
+        return taskGroupId;
+    }
+
+    public Map<Integer, Communication> getTaskCommunications()
+    {
+        return Collections.unmodifiableMap(taskCommunications);
+    }
+
+    public Map<Integer, Channel> getChannels()
+    {
+        return Collections.unmodifiableMap(channels);
+    }
+
+    /**
+     * Show the queue of a running task, a new attempt of the task replaces the previous channel
+     *
+     * @param taskId the task id
+     * @param channel the channel between its reader and writer
+     */
+    public void bindChannel(int taskId, Channel channel)
+    {
+        channels.put(taskId, channel);
+    }
+
+    public void unbindChannel(int taskId)
+    {
+        channels.remove(taskId);
+    }
+}
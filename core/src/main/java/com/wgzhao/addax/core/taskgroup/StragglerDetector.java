@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wgzhao.addax.core.taskgroup;
+
+import com.wgzhao.addax.core.statistics.communication.Communication;
+import com.wgzhao.addax.core.statistics.communication.CommunicationTool;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds the running task of a task group that reads far slower than its peers.
+ * <p>
+ * The read rate of a task is its read records divided by the time since it started. The peers are the tasks that
+ * have succeeded in the task group plus the ones that have run for at least {@code minRuntimeInMs}; a task is a
+ * straggler when its rate is below {@code slowness} times the median rate of the other peers. Each task is reported
+ * at most once, a second copy that is slow as well is not worth a third one.
+ * <p>
+ * It is only used by the thread running the task group, so it is not thread safe.
+ */
+public class StragglerDetector
+{
+    // the fewest peer rates the median is taken from
+    private static final int MIN_PEERS = 2;
+
+    private final double slowness;
+
+    private final long minRuntimeInMs;
+
+    // key: taskId, value: the time its current attempt started
+    private final Map<Integer, Long> startTimes = new HashMap<>();
+
+    // the read rate, in records per millisecond, of each task that has succeeded
+    private final List<Double> finishedRates = new ArrayList<>();
+
+    private final Set<Integer> reported = new HashSet<>();
+
+    public StragglerDetector(double slowness, long minRuntimeInMs)
+    {
+        this.slowness = slowness;
+        this.minRuntimeInMs = minRuntimeInMs;
+    }
+
+    public void start(int taskId, long now)
+    {
+        startTimes.put(taskId, now);
+    }
+
+    public void succeed(int taskId, Communication communication, long now)
+    {
+        Long startTime = startTimes.remove(taskId);
+        if (startTime != null) {
+            finishedRates.add(rate(communication, now - startTime));
+        }
+    }
+
+    /**
+     * Pick the slowest straggler among the running tasks
+     *
+     * @param running key: taskId, value: the communication of the running task
+     * @param now the current time
+     * @return the taskId of the straggler, or null if no task is far behind its peers
+     */
+    public Integer find(Map<Integer, Communication> running, long now)
+    {
+        Map<Integer, Double> candidates = new HashMap<>();
+        for (Map.Entry<Integer, Communication> entry : running.entrySet()) {
+            Long startTime = startTimes.get(entry.getKey());
+            if (startTime != null && now - startTime >= minRuntimeInMs) {
+                candidates.put(entry.getKey(), rate(entry.getValue(), now - startTime));
+            }
+        }
+
+        Integer straggler = null;
+        double slowest = Double.MAX_VALUE;
+        for (Map.Entry<Integer, Double> candidate : candidates.entrySet()) {
+            if (reported.contains(candidate.getKey()) || candidate.getValue() >= slowest) {
+                continue;
+            }
+            List<Double> peers = new ArrayList<>(finishedRates);
+            for (Map.Entry<Integer, Double> other : candidates.entrySet()) {
+                if (!other.getKey().equals(candidate.getKey())) {
+                    peers.add(other.getValue());
+                }
+            }
+            if (peers.size() >= MIN_PEERS && candidate.getValue() < slowness * median(peers)) {
+                straggler = candidate.getKey();
+                slowest = candidate.getValue();
+            }
+        }
+        if (straggler != null) {
+            reported.add(straggler);
+        }
+        return straggler;
+    }
+
+    private static double rate(Communication communication, long elapsedInMs)
+    {
+        return (double) CommunicationTool.getTotalReadRecords(communication) / Math.max(elapsedInMs, 1);
+    }
+
+    private static double median(List<Double> values)
+    {
+        Collections.sort(values);
+        int middle = values.size() / 2;
+        return values.size() % 2 == 1 ? values.get(middle) : (values.get(middle - 1) + values.get(middle)) / 2;
+    }
+}
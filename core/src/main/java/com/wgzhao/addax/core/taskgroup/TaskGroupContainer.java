@@ -31,20 +31,27 @@ import com.wgzhao.addax.core.meta.State;
 import com.wgzhao.addax.core.statistics.communication.Communication;
 import com.wgzhao.addax.core.statistics.communication.CommunicationTool;
 import com.wgzhao.addax.core.statistics.container.communicator.taskgroup.StandaloneTGContainerCommunicator;
+import com.wgzhao.addax.core.statistics.metrics.JobMetrics;
+import com.wgzhao.addax.core.statistics.metrics.MetricsRegistry;
+import com.wgzhao.addax.core.statistics.metrics.TaskGroupMetrics;
 import com.wgzhao.addax.core.statistics.plugin.task.AbstractTaskPluginCollector;
 import com.wgzhao.addax.core.statistics.plugin.task.StdoutPluginCollector;
 import com.wgzhao.addax.core.taskgroup.runner.AbstractRunner;
 import com.wgzhao.addax.core.taskgroup.runner.ReaderRunner;
 import com.wgzhao.addax.core.taskgroup.runner.WriterRunner;
 import com.wgzhao.addax.core.transport.channel.Channel;
+import com.wgzhao.addax.core.transport.channel.TokenBucketLimiter;
 import com.wgzhao.addax.core.transport.channel.memory.MemoryChannel;
 import com.wgzhao.addax.core.transport.exchanger.BufferedRecordExchanger;
 import com.wgzhao.addax.core.transport.exchanger.BufferedRecordTransformerExchanger;
+import com.wgzhao.addax.core.transport.record.RecordPool;
 import com.wgzhao.addax.core.transport.transformer.TransformerExecution;
 import com.wgzhao.addax.core.util.ClassUtil;
 import com.wgzhao.addax.core.util.TransformerUtil;
+import com.wgzhao.addax.core.util.container.CompletionSignal;
 import com.wgzhao.addax.core.util.container.CoreConstant;
 import com.wgzhao.addax.core.util.container.LoadUtil;
+import com.wgzhao.addax.core.util.container.VirtualThreads;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -77,6 +84,21 @@ public class TaskGroupContainer
 
     private final TaskMonitor taskMonitor = TaskMonitor.getInstance();
 
+    // run the readers and writers on virtual threads where the plugin allows it
+    private final boolean virtualThread;
+
+    // signalled whenever a reader or writer thread of this task group ends
+    private final CompletionSignal taskCompletion = new CompletionSignal();
+
+    // the job-wide speed limiter shared with the other task groups, null if the job has no speed limit
+    private TokenBucketLimiter rateLimiter;
+
+    // the pending tasks of the whole job when task groups may take over each other's tasks, null otherwise
+    private WorkStealingTaskQueue sharedTaskQueue;
+
+    // the live view of this task group, null if the job is not registered
+    private final TaskGroupMetrics taskGroupMetrics;
+
     /**
      * Construct a TaskGroupContainer with the given configuration.
      *
@@ -91,6 +113,11 @@ public class TaskGroupContainer
         this.taskGroupId = this.configuration.getInt(CoreConstant.CORE_CONTAINER_TASK_GROUP_ID);
         this.channelClazz = this.configuration.getString(CoreConstant.CORE_TRANSPORT_CHANNEL_CLASS, MemoryChannel.class.getName());
         this.taskCollectorClass = this.configuration.getString(CoreConstant.CORE_STATISTICS_COLLECTOR_PLUGIN_TASK_CLASS, StdoutPluginCollector.class.getName());
+        this.virtualThread = VirtualThreads.isEnabled(this.configuration);
+
+        JobMetrics jobMetrics = MetricsRegistry.getJob(this.configuration.getString(CoreConstant.CORE_CONTAINER_JOB_ID));
+        this.taskGroupMetrics = jobMetrics == null ? null
+                : jobMetrics.registerTaskGroup(this.taskGroupId, this.containerCommunicator.getCommunicationMap());
     }
 
     private void initCommunicator(Configuration configuration)
@@ -103,14 +130,29 @@ public class TaskGroupContainer
         return taskGroupId;
     }
 
+    public void setRateLimiter(TokenBucketLimiter rateLimiter)
+    {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Take tasks from a queue shared with the other task groups of the job instead of the assigned ones only
+     *
+     * @param sharedTaskQueue the job-wide task queue, null to run the assigned tasks only
+     */
+    public void setSharedTaskQueue(WorkStealingTaskQueue sharedTaskQueue)
+    {
+        this.sharedTaskQueue = sharedTaskQueue;
+    }
+
     /**
      * Start scheduling tasks within this task group, handling failover and reporting periodically.
      */
     @Override
     public void start()
     {
-        // the interval time for checking the status of the task
-        // it is short, so that the task can be distributed to the corresponding channel in time
+        // the longest time between two checks of the task status,
+        // a finished task wakes the loop at once so that the next task can take over its channel
         int sleepIntervalInMillSec = this.configuration.getInt(CoreConstant.CORE_CONTAINER_TASK_GROUP_SLEEP_INTERVAL, 100);
 
         // the interval time for reporting the status of the task
@@ -132,22 +174,58 @@ public class TaskGroupContainer
         int taskCountInThisTaskGroup = taskConfigs.size();
         LOG.info("The taskGroupId=[{}] started [{}] channels for [{}] tasks.", this.taskGroupId, channelNumber, taskCountInThisTaskGroup);
 
-        this.containerCommunicator.registerCommunication(taskConfigs);
-        // set up the taskId and task configuration map
-        Map<Integer, Configuration> taskConfigMap = buildTaskConfigMap(taskConfigs);
-        // the task queue for the task that has not been executed
-        List<Configuration> taskQueue = buildRemainTasks(taskConfigs);
+        Map<Integer, Configuration> taskConfigMap;
+        List<Configuration> taskQueue;
+        if (sharedTaskQueue == null) {
+            this.containerCommunicator.registerCommunication(taskConfigs);
+            // set up the taskId and task configuration map
+            taskConfigMap = buildTaskConfigMap(taskConfigs);
+            // the task queue for the task that has not been executed
+            taskQueue = buildRemainTasks(taskConfigs);
+        }
+        else {
+            // tasks are registered when they are taken from the shared queue, the local queue only holds retries
+            taskConfigMap = new HashMap<>();
+            taskQueue = new ArrayList<>();
+            taskCountInThisTaskGroup = 0;
+        }
         // the map for the task that has failed
         Map<Integer, TaskExecutor> taskFailedExecutorMap = new HashMap<>();
         // the list for the task that is running
         List<TaskExecutor> runTasks = new ArrayList<>(channelNumber);
         // the map for the task start time
         Map<Integer, Long> taskStartTimeMap = new HashMap<>();
+        // the second copies of straggling tasks, keyed by taskId; whichever copy finishes first is kept
+        Map<Integer, TaskExecutor> speculativeTasks = new HashMap<>();
+        StragglerDetector stragglerDetector = null;
+        if (this.configuration.getBool(CoreConstant.CORE_CONTAINER_TASK_SPECULATION, false)) {
+            stragglerDetector = new StragglerDetector(
+                    this.configuration.getDouble(CoreConstant.CORE_CONTAINER_TASK_SPECULATION_SLOWNESS, 0.25),
+                    this.configuration.getLong(CoreConstant.CORE_CONTAINER_TASK_SPECULATION_MIN_RUNTIME_IN_MSEC, 60000));
+        }
 
         long lastReportTimeStamp = 0;
         Communication lastTaskGroupContainerCommunication = new Communication();
 
         while (true) {
+            // a speculative copy that succeeded first takes over from its straggler, a failed one is dropped
+            Iterator<Map.Entry<Integer, TaskExecutor>> speculativeIterator = speculativeTasks.entrySet().iterator();
+            while (speculativeIterator.hasNext()) {
+                Map.Entry<Integer, TaskExecutor> entry = speculativeIterator.next();
+                TaskExecutor speculativeExecutor = entry.getValue();
+                if (!speculativeExecutor.isTaskFinished()) {
+                    continue;
+                }
+                speculativeIterator.remove();
+                if (speculativeExecutor.getCommunication().getState() == State.SUCCEEDED) {
+                    takeOver(runTasks, speculativeExecutor);
+                }
+                else {
+                    LOG.warn("The speculative copy of TaskGroup[{}] TaskId[{}] did not succeed, keep the original one.",
+                            this.taskGroupId, entry.getKey(), speculativeExecutor.getCommunication().getThrowable());
+                }
+            }
+
             boolean failedOrKilled = false;
             Map<Integer, Communication> communicationMap = containerCommunicator.getCommunicationMap();
             for (Map.Entry<Integer, Communication> entry : communicationMap.entrySet()) {
@@ -156,10 +234,29 @@ public class TaskGroupContainer
                 if (!taskCommunication.isFinished()) {
                     continue;
                 }
+
+                // the first copy to succeed wins, a failed original leaves the task to its running copy
+                TaskExecutor speculativeExecutor = speculativeTasks.remove(taskId);
+                if (speculativeExecutor != null) {
+                    if (taskCommunication.getState() == State.SUCCEEDED) {
+                        LOG.info("TaskGroup[{}] TaskId[{}] finished before its speculative copy, shut the copy down.",
+                                this.taskGroupId, taskId);
+                        speculativeExecutor.shutdown();
+                    }
+                    else {
+                        takeOver(runTasks, speculativeExecutor);
+                        taskMonitor.registerTask(taskId, speculativeExecutor.getCommunication());
+                        continue;
+                    }
+                }
+
                 TaskExecutor taskExecutor = removeTask(runTasks, taskId);
 
                 // the task has been removed from runTasks, so remove it from the monitor
                 taskMonitor.removeTask(taskId);
+                if (taskGroupMetrics != null) {
+                    taskGroupMetrics.unbindChannel(taskId);
+                }
 
                 // if the task is failed, and the task supports fail over, and the attempt count is less than the max retry times
                 if (taskCommunication.getState() == State.FAILED) {
@@ -173,15 +270,24 @@ public class TaskGroupContainer
                         taskQueue.add(taskConfig);
                     }
                     else {
+                        if (sharedTaskQueue != null) {
+                            sharedTaskQueue.finish(taskId);
+                        }
                         failedOrKilled = true;
                         break;
                     }
                 }
                 else if (taskCommunication.getState() == State.KILLED) {
+                    if (sharedTaskQueue != null) {
+                        sharedTaskQueue.finish(taskId);
+                    }
                     failedOrKilled = true;
                     break;
                 }
                 else if (taskCommunication.getState() == State.SUCCEEDED) {
+                    if (stragglerDetector != null) {
+                        stragglerDetector.succeed(taskId, taskCommunication, System.currentTimeMillis());
+                    }
                     Long taskStartTime = taskStartTimeMap.get(taskId);
                     if (taskStartTime != null) {
                         long usedTime = System.currentTimeMillis() - taskStartTime;
@@ -189,6 +295,10 @@ public class TaskGroupContainer
                                 this.taskGroupId, taskId, usedTime);
                         taskStartTimeMap.remove(taskId);
                         taskConfigMap.remove(taskId);
+                        // finished communications stay in the map, so release the resource mark only once
+                        if (sharedTaskQueue != null) {
+                            sharedTaskQueue.finish(taskId);
+                        }
                     }
                 }
             }
@@ -202,7 +312,7 @@ public class TaskGroupContainer
 
             // the task that has not been executed, and the number of running tasks is less than the channel number
             Iterator<Configuration> iterator = taskQueue.iterator();
-            while (iterator.hasNext() && runTasks.size() < channelNumber) {
+            while (iterator.hasNext() && runTasks.size() + speculativeTasks.size() < channelNumber) {
                 Configuration taskConfig = iterator.next();
                 Integer taskId = taskConfig.getInt(CoreConstant.TASK_ID);
                 int attemptCount = 1;
@@ -234,6 +344,9 @@ public class TaskGroupContainer
                 TaskExecutor taskExecutor = new TaskExecutor(taskConfigForRun, attemptCount);
                 taskStartTimeMap.put(taskId, System.currentTimeMillis());
                 taskExecutor.doStart();
+                if (stragglerDetector != null) {
+                    stragglerDetector.start(taskId, System.currentTimeMillis());
+                }
 
                 iterator.remove();
                 runTasks.add(taskExecutor);
@@ -245,8 +358,33 @@ public class TaskGroupContainer
                         this.taskGroupId, taskId, attemptCount);
             }
 
+            // free channels pick up the next pending task of the job, whichever task group it was assigned to
+            while (sharedTaskQueue != null && runTasks.size() + speculativeTasks.size() < channelNumber) {
+                Configuration taskConfig = sharedTaskQueue.poll(this.taskGroupId);
+                if (taskConfig == null) {
+                    break;
+                }
+                Integer taskId = taskConfig.getInt(CoreConstant.TASK_ID);
+                this.containerCommunicator.registerCommunication(List.of(taskConfig));
+                taskConfigMap.put(taskId, taskConfig);
+                taskCountInThisTaskGroup++;
+
+                Configuration taskConfigForRun = taskMaxRetryTimes > 1 ? taskConfig.clone() : taskConfig;
+                TaskExecutor taskExecutor = new TaskExecutor(taskConfigForRun, 1);
+                taskStartTimeMap.put(taskId, System.currentTimeMillis());
+                taskExecutor.doStart();
+                if (stragglerDetector != null) {
+                    stragglerDetector.start(taskId, System.currentTimeMillis());
+                }
+                runTasks.add(taskExecutor);
+
+                taskMonitor.registerTask(taskId, this.containerCommunicator.getCommunication(taskId));
+                LOG.debug("TaskGroup[{}] TaskId[{}] AttemptCount[{}] has started", this.taskGroupId, taskId, 1);
+            }
+
             // the task queue is empty, the executor has ended, and the collection status is success
-            if (taskQueue.isEmpty() && isAllTaskDone(runTasks) && containerCommunicator.collectState() == State.SUCCEEDED) {
+            if (taskQueue.isEmpty() && (sharedTaskQueue == null || sharedTaskQueue.isEmpty())
+                    && isAllTaskDone(runTasks) && containerCommunicator.collectState() == State.SUCCEEDED) {
                 lastTaskGroupContainerCommunication = reportTaskGroupCommunication(lastTaskGroupContainerCommunication, taskCountInThisTaskGroup);
                 LOG.debug("The taskGroup[{}] has completed it's tasks.", this.taskGroupId);
                 break;
@@ -263,9 +401,15 @@ public class TaskGroupContainer
                 for (TaskExecutor taskExecutor : runTasks) {
                     taskMonitor.report(taskExecutor.getTaskId(), this.containerCommunicator.getCommunication(taskExecutor.getTaskId()));
                 }
+
+                // once nothing is pending, a free channel runs a second copy of the slowest straggler
+                if (stragglerDetector != null && taskQueue.isEmpty() && (sharedTaskQueue == null || sharedTaskQueue.isEmpty())
+                        && runTasks.size() + speculativeTasks.size() < channelNumber) {
+                    speculate(stragglerDetector, runTasks, speculativeTasks, taskConfigMap, now);
+                }
             }
             try {
-                TimeUnit.MILLISECONDS.sleep(sleepIntervalInMillSec);
+                taskCompletion.await(sleepIntervalInMillSec, TimeUnit.MILLISECONDS);
             }
             catch (InterruptedException e) {
                 Communication nowTaskGroupContainerCommunication = this.containerCommunicator.collect();
@@ -283,6 +427,60 @@ public class TaskGroupContainer
         reportTaskGroupCommunication(lastTaskGroupContainerCommunication, taskCountInThisTaskGroup);
     }
 
+    /**
+     * Start a second copy of the slowest straggler among the running tasks, if there is one and its writer
+     * can write the same data twice, which is what fail over already relies on.
+     */
+    private void speculate(StragglerDetector stragglerDetector, List<TaskExecutor> runTasks, Map<Integer, TaskExecutor> speculativeTasks,
+            Map<Integer, Configuration> taskConfigMap, long now)
+    {
+        Map<Integer, TaskExecutor> candidates = new HashMap<>();
+        Map<Integer, Communication> running = new HashMap<>();
+        for (TaskExecutor taskExecutor : runTasks) {
+            int taskId = taskExecutor.getTaskId();
+            if (!taskExecutor.isTaskFinished() && !speculativeTasks.containsKey(taskId)) {
+                candidates.put(taskId, taskExecutor);
+                running.put(taskId, taskExecutor.getCommunication());
+            }
+        }
+        Integer stragglerId = stragglerDetector.find(running, now);
+        if (stragglerId == null) {
+            return;
+        }
+        TaskExecutor straggler = candidates.get(stragglerId);
+        if (!straggler.supportFailOver()) {
+            LOG.warn("TaskGroup[{}] TaskId[{}] reads far slower than the other tasks, but its writer does not support fail over, "
+                    + "so it is not executed again.", this.taskGroupId, stragglerId);
+            return;
+        }
+        LOG.info("TaskGroup[{}] TaskId[{}] reads far slower than the other tasks, start a speculative copy of it.",
+                this.taskGroupId, stragglerId);
+        TaskExecutor speculativeExecutor = new TaskExecutor(taskConfigMap.get(stragglerId).clone(), straggler.getAttemptCount(),
+                new Communication());
+        speculativeExecutor.doStart();
+        speculativeTasks.put(stragglerId, speculativeExecutor);
+    }
+
+    /**
+     * Let a speculative copy replace the original task: the original is shut down and
+     * the statistics of the task become those of the copy.
+     */
+    private void takeOver(List<TaskExecutor> runTasks, TaskExecutor speculativeExecutor)
+    {
+        int taskId = speculativeExecutor.getTaskId();
+        TaskExecutor original = removeTask(runTasks, taskId);
+        if (original != null) {
+            original.shutdown();
+        }
+        taskMonitor.removeTask(taskId);
+        this.containerCommunicator.replaceCommunication(taskId, speculativeExecutor.getCommunication());
+        if (taskGroupMetrics != null) {
+            taskGroupMetrics.bindChannel(taskId, speculativeExecutor.channel);
+        }
+        runTasks.add(speculativeExecutor);
+        LOG.info("The speculative copy of TaskGroup[{}] TaskId[{}] takes over from the original one.", this.taskGroupId, taskId);
+    }
+
     /**
      * Build a map from taskId to task configuration.
      */
@@ -341,11 +539,19 @@ public class TaskGroupContainer
         Communication nowTaskGroupContainerCommunication = this.containerCommunicator.collect();
         nowTaskGroupContainerCommunication.setTimestamp(System.currentTimeMillis());
         Communication reportCommunication = CommunicationTool.getReportCommunication(nowTaskGroupContainerCommunication,
-                lastTaskGroupContainerCommunication, taskCount);
+                lastTaskGroupContainerCommunication, Math.max(taskCount, 1));
         this.containerCommunicator.report(reportCommunication);
         return reportCommunication;
     }
 
+    private Thread newRunnerThread(Runnable runner, String threadName, String pluginName, Configuration pluginConf)
+    {
+        if (virtualThread && VirtualThreads.isAllowed(this.configuration, pluginName, pluginConf)) {
+            return VirtualThreads.newThread(runner, threadName);
+        }
+        return new Thread(runner, threadName);
+    }
+
     private void markCommunicationFailed(Integer taskId)
     {
         Communication communication = containerCommunicator.getCommunication(taskId);
@@ -365,6 +571,9 @@ public class TaskGroupContainer
 
         private final Channel channel;
 
+        // records released by the writer and reused by the reader, null unless recycling is enabled
+        private final RecordPool recordPool;
+
         private final Thread readerThread;
 
         private final Thread writerThread;
@@ -373,11 +582,27 @@ public class TaskGroupContainer
 
         private final WriterRunner writerRunner;
 
+        // set by each runner thread just before it signals its end, while the thread is still alive
+        private volatile boolean readerExited;
+
+        private volatile boolean writerExited;
+
         // the taskCommunication for the taskExecutor will be invoked by channel, readerRunner, writerRunner
         // and the taskPluginCollector of reader and writer
         private final Communication taskCommunication;
 
         public TaskExecutor(Configuration taskConf, int attemptCount)
+        {
+            this(taskConf, attemptCount, null);
+        }
+
+        /**
+         * @param taskConf the task configuration
+         * @param attemptCount the attempt count of the task
+         * @param speculativeCommunication the communication of a speculative copy, which is not registered
+         * until the copy takes over; null to use the registered communication of the task
+         */
+        public TaskExecutor(Configuration taskConf, int attemptCount, Communication speculativeCommunication)
         {
             this.taskConfig = taskConf;
             Validate.isTrue(null != this.taskConfig.getConfiguration(CoreConstant.JOB_READER)
@@ -389,25 +614,66 @@ public class TaskGroupContainer
 
             // get the communication for the taskExecutor via taskId
             // then pass it to readerRunner and writerRunner, and pass it to channel for statistics
-            this.taskCommunication = containerCommunicator.getCommunication(taskId);
+            this.taskCommunication = speculativeCommunication != null ? speculativeCommunication : containerCommunicator.getCommunication(taskId);
+            String threadSuffix = speculativeCommunication != null ? "-speculative" : "";
             Validate.notNull(this.taskCommunication,
                     "Communication has not been registered for taskId:" + taskId);
             this.channel = ClassUtil.instantiate(channelClazz, Channel.class, configuration);
             this.channel.setCommunication(this.taskCommunication);
+            this.channel.setRateLimiter(rateLimiter);
+            if (taskGroupMetrics != null && speculativeCommunication == null) {
+                taskGroupMetrics.bindChannel(taskId, this.channel);
+            }
+            this.recordPool = createRecordPool();
 
             List<TransformerExecution> transformerInfoExecs = TransformerUtil.buildTransformerInfo(taskConfig);
 
             writerRunner = (WriterRunner) generateRunner(PluginType.WRITER, null);
-            this.writerThread = new Thread(writerRunner, String.format("writer-%d-%d", taskGroupId, this.taskId));
+            this.writerThread = newRunnerThread(taskCompletion.signalOnExit(this::runWriter), String.format("writer-%d-%d%s", taskGroupId, this.taskId, threadSuffix),
+                    this.taskConfig.getString(CoreConstant.JOB_WRITER_NAME), this.taskConfig.getConfiguration(CoreConstant.JOB_WRITER_PARAMETER));
             // through setting the contextClassLoader of the thread, we can achieve the synchronization and the main program
             this.writerThread.setContextClassLoader(LoadUtil.getJarLoader(PluginType.WRITER, this.taskConfig.getString(CoreConstant.JOB_WRITER_NAME)));
 
             readerRunner = (ReaderRunner) generateRunner(PluginType.READER, transformerInfoExecs);
-            this.readerThread = new Thread(readerRunner, String.format("reader-%d-%d", taskGroupId, this.taskId));
+            this.readerThread = newRunnerThread(taskCompletion.signalOnExit(this::runReader), String.format("reader-%d-%d%s", taskGroupId, this.taskId, threadSuffix),
+                    this.taskConfig.getString(CoreConstant.JOB_READER_NAME), this.taskConfig.getConfiguration(CoreConstant.JOB_READER_PARAMETER));
 
             this.readerThread.setContextClassLoader(LoadUtil.getJarLoader(PluginType.READER, this.taskConfig.getString(CoreConstant.JOB_READER_NAME)));
         }
 
+        private void runWriter()
+        {
+            try {
+                writerRunner.run();
+            }
+            finally {
+                writerExited = true;
+            }
+        }
+
+        private void runReader()
+        {
+            try {
+                readerRunner.run();
+            }
+            finally {
+                readerExited = true;
+            }
+        }
+
+        /*
+         * The pool only has to hold what can be in flight at once: the channel plus the buffers of both exchangers
+         */
+        private RecordPool createRecordPool()
+        {
+            if (!configuration.getBool(CoreConstant.CORE_TRANSPORT_RECORD_RECYCLE, false)) {
+                return null;
+            }
+            int capacity = configuration.getInt(CoreConstant.CORE_TRANSPORT_CHANNEL_CAPACITY, 2048)
+                    + 2 * configuration.getInt(CoreConstant.CORE_TRANSPORT_EXCHANGER_BUFFER_SIZE, 32);
+            return new RecordPool(capacity);
+        }
+
         public void doStart()
         {
             this.writerThread.start();
@@ -437,10 +703,11 @@ public class TaskGroupContainer
 
                     RecordSender recordSender;
                     if (transformerInfoExecs != null && !transformerInfoExecs.isEmpty()) {
-                        recordSender = new BufferedRecordTransformerExchanger(taskGroupId, this.taskId, this.channel, this.taskCommunication, pluginCollector, transformerInfoExecs);
+                        recordSender = new BufferedRecordTransformerExchanger(taskGroupId, this.taskId, this.channel, this.taskCommunication, pluginCollector, transformerInfoExecs,
+                                this.recordPool);
                     }
                     else {
-                        recordSender = new BufferedRecordExchanger(this.channel, pluginCollector);
+                        recordSender = new BufferedRecordExchanger(this.channel, pluginCollector, this.recordPool);
                     }
 
                     ((ReaderRunner) newRunner).setRecordSender(recordSender);
@@ -453,7 +720,7 @@ public class TaskGroupContainer
                     newRunner.setJobConf(this.taskConfig.getConfiguration(CoreConstant.JOB_WRITER_PARAMETER));
 
                     pluginCollector = ClassUtil.instantiate(taskCollectorClass, AbstractTaskPluginCollector.class, configuration, this.taskCommunication, PluginType.WRITER);
-                    ((WriterRunner) newRunner).setRecordReceiver(new BufferedRecordExchanger(this.channel, pluginCollector));
+                    ((WriterRunner) newRunner).setRecordReceiver(new BufferedRecordExchanger(this.channel, pluginCollector, this.recordPool));
 
                     // set the taskPlugin's collector to handle dirty data and job/task communication
                     newRunner.setTaskPluginCollector(pluginCollector);
@@ -469,9 +736,15 @@ public class TaskGroupContainer
             return newRunner;
         }
 
+        /*
+         * The exit flags tell a runner has ended as soon as its completion signal wakes the loop,
+         * isAlive() covers the runner threads that were never started
+         */
         private boolean isTaskFinished()
         {
-            if (readerThread.isAlive() || writerThread.isAlive()) {
+            boolean readerEnded = readerExited || !readerThread.isAlive();
+            boolean writerEnded = writerExited || !writerThread.isAlive();
+            if (!readerEnded || !writerEnded) {
                 return false;
             }
 
@@ -483,6 +756,11 @@ public class TaskGroupContainer
             return taskId;
         }
 
+        private Communication getCommunication()
+        {
+            return taskCommunication;
+        }
+
         private long getTimeStamp()
         {
             return taskCommunication.getTimestamp();
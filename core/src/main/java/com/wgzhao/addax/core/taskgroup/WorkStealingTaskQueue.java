@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wgzhao.addax.core.taskgroup;
+
+import com.wgzhao.addax.core.util.Configuration;
+import com.wgzhao.addax.core.util.container.CoreConstant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.wgzhao.addax.core.base.Constant.LOAD_BALANCE_RESOURCE_MARK;
+import static com.wgzhao.addax.core.util.container.CoreConstant.JOB_READER_PARAMETER;
+import static com.wgzhao.addax.core.util.container.CoreConstant.JOB_WRITER_PARAMETER;
+
+/**
+ * The pending tasks of a job, shared by all of its task groups.
+ * <p>
+ * Each task group keeps the tasks {@code JobAssignUtil.assignFairly} gave it and takes them in that order.
+ * A task group that runs out of tasks while it still has a free channel steals from the task group with the
+ * longest backlog, so skewed splits do not leave channels idle until the slowest task group is done.
+ * Stolen tasks are taken from the tail of the backlog, preferring the task whose resource mark has the fewest
+ * running tasks across the job, which keeps the load spread over the resources the same way the assignment does.
+ */
+public class WorkStealingTaskQueue
+{
+    private static final Logger LOG = LoggerFactory.getLogger(WorkStealingTaskQueue.class);
+
+    // key: taskGroupId, value: the tasks not started yet
+    private final Map<Integer, Deque<Configuration>> pending = new LinkedHashMap<>();
+
+    // key: taskId, value: the resource mark of the task
+    private final Map<Integer, String> resourceMarks = new HashMap<>();
+
+    // key: resource mark, value: the number of its tasks taken and not finished yet
+    private final Map<String, Integer> running = new HashMap<>();
+
+    public WorkStealingTaskQueue(List<Configuration> taskGroupConfigs)
+    {
+        for (Configuration taskGroupConfig : taskGroupConfigs) {
+            int taskGroupId = taskGroupConfig.getInt(CoreConstant.CORE_CONTAINER_TASK_GROUP_ID);
+            Deque<Configuration> tasks = new ArrayDeque<>();
+            for (Configuration taskConfig : taskGroupConfig.getListConfiguration(CoreConstant.JOB_CONTENT)) {
+                tasks.add(taskConfig);
+                resourceMarks.put(taskConfig.getInt(CoreConstant.TASK_ID), resourceMarkOf(taskConfig));
+            }
+            pending.put(taskGroupId, tasks);
+        }
+    }
+
+    /**
+     * Take the next task for a task group, stealing one from another task group if it has none left
+     *
+     * @param taskGroupId the task group asking for work
+     * @return the task configuration, or null if no task is pending in the job
+     */
+    public synchronized Configuration poll(int taskGroupId)
+    {
+        Deque<Configuration> own = pending.get(taskGroupId);
+        Configuration task = own == null ? null : own.pollFirst();
+        if (task == null) {
+            task = steal(taskGroupId);
+        }
+        if (task != null) {
+            running.merge(resourceMarks.get(task.getInt(CoreConstant.TASK_ID)), 1, Integer::sum);
+        }
+        return task;
+    }
+
+    /**
+     * Release the resource mark of a task that will not run again
+     *
+     * @param taskId the task id
+     */
+    public synchronized void finish(int taskId)
+    {
+        String resourceMark = resourceMarks.get(taskId);
+        if (resourceMark != null) {
+            running.computeIfPresent(resourceMark, (k, v) -> v > 1 ? v - 1 : null);
+        }
+    }
+
+    /**
+     * @return true if every task of the job has been taken
+     */
+    public synchronized boolean isEmpty()
+    {
+        for (Deque<Configuration> tasks : pending.values()) {
+            if (!tasks.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Configuration steal(int thiefId)
+    {
+        int victimId = -1;
+        Deque<Configuration> victim = null;
+        for (Map.Entry<Integer, Deque<Configuration>> entry : pending.entrySet()) {
+            if (entry.getKey() != thiefId && !entry.getValue().isEmpty()
+                    && (victim == null || entry.getValue().size() > victim.size())) {
+                victimId = entry.getKey();
+                victim = entry.getValue();
+            }
+        }
+        if (victim == null) {
+            return null;
+        }
+
+        Configuration best = null;
+        int bestLoad = Integer.MAX_VALUE;
+        Iterator<Configuration> iterator = victim.descendingIterator();
+        while (iterator.hasNext() && bestLoad > 0) {
+            Configuration candidate = iterator.next();
+            int load = running.getOrDefault(resourceMarks.get(candidate.getInt(CoreConstant.TASK_ID)), 0);
+            if (load < bestLoad) {
+                best = candidate;
+                bestLoad = load;
+            }
+        }
+        victim.removeLastOccurrence(best);
+        LOG.info("The taskGroup[{}] takes over the task[{}] from taskGroup[{}].",
+                thiefId, best.getInt(CoreConstant.TASK_ID), victimId);
+        return best;
+    }
+
+    private static String resourceMarkOf(Configuration taskConfig)
+    {
+        return taskConfig.getString(JOB_READER_PARAMETER + "." + LOAD_BALANCE_RESOURCE_MARK, "")
+                + "|" + taskConfig.getString(JOB_WRITER_PARAMETER + "." + LOAD_BALANCE_RESOURCE_MARK, "");
+    }
+}
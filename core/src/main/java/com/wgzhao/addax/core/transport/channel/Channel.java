@@ -23,6 +23,8 @@ import com.wgzhao.addax.core.element.Record;
 import com.wgzhao.addax.core.util.Configuration;
 import com.wgzhao.addax.core.statistics.communication.Communication;
 import com.wgzhao.addax.core.statistics.communication.CommunicationTool;
+import com.wgzhao.addax.core.statistics.communication.Metric;
+import com.wgzhao.addax.core.transport.record.BatchRecord;
 import com.wgzhao.addax.core.transport.record.TerminateRecord;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
@@ -34,13 +36,23 @@ import java.util.concurrent.atomic.AtomicLong;
 import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_CONTAINER_TASK_GROUP_ID;
 import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_TRANSPORT_CHANNEL_CAPACITY;
 import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_TRANSPORT_CHANNEL_CAPACITY_BYTE;
+import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_TRANSPORT_CHANNEL_FLOW_CONTROL;
 import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_TRANSPORT_CHANNEL_FLOW_CONTROL_INTERVAL;
+import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_TRANSPORT_CHANNEL_MAX_CAPACITY;
+import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_TRANSPORT_CHANNEL_MEMORY_ACCOUNTING;
 import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_TRANSPORT_CHANNEL_SPEED_BYTE;
 import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_TRANSPORT_CHANNEL_SPEED_RECORD;
+import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_TRANSPORT_EXCHANGER_ADAPTIVE;
+import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_TRANSPORT_EXCHANGER_BUFFER_SIZE;
 
 /**
  * The Channel is a queue between Reader and Writer.
  * it supports statistics and speed limit.
+ * <p>
+ * By default ({@code core.transport.channel.flowControl = tokenBucket}) the speed limit takes tokens from a
+ * {@link TokenBucketLimiter} before each push: the job-wide one shared by all channels when the job sets
+ * {@code job.setting.speed.byte/record}, otherwise one of its own built from the channel speed.
+ * {@code sleep} restores the former behavior of sampling the speed every flowControlInterval and sleeping off the excess.
  */
 public abstract class Channel
 {
@@ -50,10 +62,19 @@ public abstract class Channel
     private final Communication lastCommunication = new Communication();
     protected int taskGroupId;
     protected int capacity;
+    // the number of records currently allowed in the channel, at most capacity; lowered or raised by the adaptive exchanger
+    protected volatile int capacityLimit;
+    // the maximum number of records handed to the writer per pull
+    protected volatile int pullSize;
     protected int byteCapacity;
+    // bound byteCapacity by the real heap footprint of the records instead of the legacy estimate
+    protected boolean heapAccounting;
     protected long byteSpeed; // bps: bytes/s
     protected long recordSpeed; // tps: records/s
     protected long flowControlInterval;
+    // null when the legacy sleep flow control is used or there is no limit
+    private TokenBucketLimiter rateLimiter;
+    private final boolean tokenBucket;
     protected volatile boolean isClosed = false;
     protected Configuration configuration;
     protected volatile AtomicLong waitReaderTime = new AtomicLong(0);
@@ -77,11 +98,22 @@ public abstract class Channel
         }
 
         this.taskGroupId = configuration.getInt(CORE_CONTAINER_TASK_GROUP_ID);
+        this.capacityLimit = capacity;
+        if (configuration.getBool(CORE_TRANSPORT_EXCHANGER_ADAPTIVE, false)) {
+            // room to grow, the records actually allowed are still bounded by capacityLimit
+            capacity = Math.max(capacity, configuration.getInt(CORE_TRANSPORT_CHANNEL_MAX_CAPACITY, capacity * 4));
+        }
         this.capacity = capacity;
+        this.pullSize = configuration.getInt(CORE_TRANSPORT_EXCHANGER_BUFFER_SIZE, 32);
         this.byteSpeed = byteSpeed;
         this.recordSpeed = recordSpeed;
         this.flowControlInterval = configuration.getLong(CORE_TRANSPORT_CHANNEL_FLOW_CONTROL_INTERVAL, 1000);
         this.byteCapacity = configuration.getInt(CORE_TRANSPORT_CHANNEL_CAPACITY_BYTE, 8 * 1024 * 1024);
+        this.tokenBucket = !"sleep".equalsIgnoreCase(configuration.getString(CORE_TRANSPORT_CHANNEL_FLOW_CONTROL, "tokenBucket"));
+        if (this.tokenBucket) {
+            this.rateLimiter = TokenBucketLimiter.of(byteSpeed, recordSpeed, this.flowControlInterval);
+        }
+        this.heapAccounting = "heap".equalsIgnoreCase(configuration.getString(CORE_TRANSPORT_CHANNEL_MEMORY_ACCOUNTING, "estimate"));
         this.configuration = configuration;
     }
 
@@ -100,6 +132,40 @@ public abstract class Channel
         return capacity;
     }
 
+    public int getCapacityLimit()
+    {
+        return capacityLimit;
+    }
+
+    /**
+     * Change the batch handed to the writer per pull and the number of records the channel may hold at runtime.
+     * The record limit is kept between 1 and the allocated capacity.
+     *
+     * @param pullSize the maximum records per pull
+     * @param capacityLimit the maximum records in the channel
+     */
+    public void resize(int pullSize, int capacityLimit)
+    {
+        this.pullSize = Math.max(1, pullSize);
+        this.capacityLimit = Math.max(1, Math.min(capacityLimit, this.capacity));
+    }
+
+    /**
+     * @return the total nanoseconds the reader spent blocked on a full channel
+     */
+    public long getWaitWriterTime()
+    {
+        return waitWriterTime.get();
+    }
+
+    /**
+     * @return the total nanoseconds the writer spent blocked on an empty channel
+     */
+    public long getWaitReaderTime()
+    {
+        return waitReaderTime.get();
+    }
+
     public long getByteSpeed()
     {
         return byteSpeed;
@@ -110,6 +176,32 @@ public abstract class Channel
         return this.configuration;
     }
 
+    /**
+     * The size a record counts against {@code byteCapacity}: its heap footprint when
+     * {@code core.transport.channel.memoryAccounting} is {@code heap}, otherwise the legacy estimate.
+     * The exchangers use it as well so their buffers are bounded the same way.
+     *
+     * @param r the record
+     * @return the size in bytes
+     */
+    public int getMemorySize(Record r)
+    {
+        return heapAccounting ? r.getHeapSize() : r.getMemorySize();
+    }
+
+    /**
+     * Draw from a limiter shared with the other channels of the job instead of the per-channel one.
+     * Ignored when the legacy sleep flow control is configured.
+     *
+     * @param rateLimiter the job-wide limiter
+     */
+    public void setRateLimiter(TokenBucketLimiter rateLimiter)
+    {
+        if (this.tokenBucket && rateLimiter != null) {
+            this.rateLimiter = rateLimiter;
+        }
+    }
+
     public void setCommunication(final Communication communication)
     {
         this.currentCommunication = communication;
@@ -119,8 +211,12 @@ public abstract class Channel
     public void push(Record r)
     {
         Validate.notNull(r, "The record cannot be empty.");
+        long recordCount = r instanceof BatchRecord ? ((BatchRecord) r).getRowCount() : 1L;
+        if (this.rateLimiter != null) {
+            this.rateLimiter.acquire(recordCount, r.getByteSize());
+        }
         this.doPush(r);
-        this.statPush(1L, r.getByteSize());
+        this.statPush(recordCount, r.getByteSize());
     }
 
     public void pushTerminate(TerminateRecord r)
@@ -133,14 +229,19 @@ public abstract class Channel
     {
         Validate.notNull(rs, "The Record must not be empty");
         Validate.noNullElements(rs);
+        long recordCount = this.getRecordCount(rs);
+        long byteSize = this.getByteSize(rs);
+        if (this.rateLimiter != null) {
+            this.rateLimiter.acquire(recordCount, byteSize);
+        }
         this.doPushAll(rs);
-        this.statPush(rs.size(), this.getByteSize(rs));
+        this.statPush(recordCount, byteSize);
     }
 
     public Record pull()
     {
         Record record = this.doPull();
-        this.statPull(1L, record.getByteSize());
+        this.statPull(record instanceof BatchRecord ? ((BatchRecord) record).getRowCount() : 1L, record.getByteSize());
         return record;
     }
 
@@ -148,7 +249,7 @@ public abstract class Channel
     {
         Validate.notNull(rs, "The Record must not be empty");
         this.doPullAll(rs);
-        this.statPull(rs.size(), this.getByteSize(rs));
+        this.statPull(this.getRecordCount(rs), this.getByteSize(rs));
     }
 
     protected abstract void doPush(Record r);
@@ -174,13 +275,28 @@ public abstract class Channel
         return size;
     }
 
+    // a batch element counts as the rows it carries
+    private long getRecordCount(Collection<Record> rs)
+    {
+        long count = 0;
+        for (Record each : rs) {
+            count += each instanceof BatchRecord ? ((BatchRecord) each).getRowCount() : 1;
+        }
+        return count;
+    }
+
     private void statPush(long recordSize, long byteSize)
     {
-        currentCommunication.increaseCounter(CommunicationTool.READ_SUCCEED_RECORDS, recordSize);
-        currentCommunication.increaseCounter(CommunicationTool.READ_SUCCEED_BYTES, byteSize);
+        currentCommunication.increaseCounter(Metric.READ_SUCCEED_RECORDS, recordSize);
+        currentCommunication.increaseCounter(Metric.READ_SUCCEED_BYTES, byteSize);
 
-        currentCommunication.setLongCounter(CommunicationTool.WAIT_READER_TIME, waitReaderTime.get());
-        currentCommunication.setLongCounter(CommunicationTool.WAIT_WRITER_TIME, waitWriterTime.get());
+        currentCommunication.setLongCounter(Metric.WAIT_READER_TIME, waitReaderTime.get());
+        currentCommunication.setLongCounter(Metric.WAIT_WRITER_TIME, waitWriterTime.get());
+
+        if (this.tokenBucket) {
+            // throttled by the token bucket before the push
+            return;
+        }
 
         boolean isChannelByteSpeedLimit = (this.byteSpeed > 0);
         boolean isChannelRecordSpeedLimit = (this.recordSpeed > 0);
@@ -220,21 +336,21 @@ public abstract class Channel
                 }
             }
 
-            lastCommunication.setLongCounter(CommunicationTool.READ_SUCCEED_BYTES,
-                    currentCommunication.getLongCounter(CommunicationTool.READ_SUCCEED_BYTES));
-            lastCommunication.setLongCounter(CommunicationTool.READ_FAILED_BYTES,
-                    currentCommunication.getLongCounter(CommunicationTool.READ_FAILED_BYTES));
-            lastCommunication.setLongCounter(CommunicationTool.READ_SUCCEED_RECORDS,
-                    currentCommunication.getLongCounter(CommunicationTool.READ_SUCCEED_RECORDS));
-            lastCommunication.setLongCounter(CommunicationTool.READ_FAILED_RECORDS,
-                    currentCommunication.getLongCounter(CommunicationTool.READ_FAILED_RECORDS));
+            lastCommunication.setLongCounter(Metric.READ_SUCCEED_BYTES,
+                    currentCommunication.getLongCounter(Metric.READ_SUCCEED_BYTES));
+            lastCommunication.setLongCounter(Metric.READ_FAILED_BYTES,
+                    currentCommunication.getLongCounter(Metric.READ_FAILED_BYTES));
+            lastCommunication.setLongCounter(Metric.READ_SUCCEED_RECORDS,
+                    currentCommunication.getLongCounter(Metric.READ_SUCCEED_RECORDS));
+            lastCommunication.setLongCounter(Metric.READ_FAILED_RECORDS,
+                    currentCommunication.getLongCounter(Metric.READ_FAILED_RECORDS));
             lastCommunication.setTimestamp(nowTimestamp);
         }
     }
 
     private void statPull(long recordSize, long byteSize)
     {
-        currentCommunication.increaseCounter(CommunicationTool.WRITE_RECEIVED_RECORDS, recordSize);
-        currentCommunication.increaseCounter(CommunicationTool.WRITE_RECEIVED_BYTES, byteSize);
+        currentCommunication.increaseCounter(Metric.WRITE_RECEIVED_RECORDS, recordSize);
+        currentCommunication.increaseCounter(Metric.WRITE_RECEIVED_BYTES, byteSize);
     }
 }
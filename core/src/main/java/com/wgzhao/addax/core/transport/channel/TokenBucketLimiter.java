@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wgzhao.addax.core.transport.channel;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A lock-free token bucket for bytes and records, shared by any number of channels.
+ * <p>
+ * Each bucket keeps only the time at which its tokens are paid off (a virtual clock in nanoseconds).
+ * Taking n tokens moves that clock forward by n times the cost of a token with a CAS;
+ * tokens refill implicitly as {@link System#nanoTime()} advances, and up to {@code burst} worth of
+ * idle time can be spent at once. A caller that ends up ahead of the clock parks until it catches up,
+ * so a busy channel can use whatever budget idle channels leave unused.
+ */
+public class TokenBucketLimiter
+{
+    private final Bucket bytes;
+
+    private final Bucket records;
+
+    /**
+     * @param byteSpeed bytes per second, 0 or negative for no limit
+     * @param recordSpeed records per second, 0 or negative for no limit
+     * @param burstMillis how long idle time may accumulate into tokens
+     */
+    public TokenBucketLimiter(long byteSpeed, long recordSpeed, long burstMillis)
+    {
+        long burstNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(burstMillis, 1));
+        this.bytes = byteSpeed > 0 ? new Bucket(byteSpeed, burstNanos) : null;
+        this.records = recordSpeed > 0 ? new Bucket(recordSpeed, burstNanos) : null;
+    }
+
+    /**
+     * Create a limiter, or return null when neither limit is set
+     */
+    public static TokenBucketLimiter of(long byteSpeed, long recordSpeed, long burstMillis)
+    {
+        if (byteSpeed <= 0 && recordSpeed <= 0) {
+            return null;
+        }
+        return new TokenBucketLimiter(byteSpeed, recordSpeed, burstMillis);
+    }
+
+    /**
+     * Take tokens for the given records and bytes, parking the calling thread until they are available.
+     * An interrupt ends the wait early and keeps the interrupt status.
+     *
+     * @param recordCount the number of records
+     * @param byteCount the number of bytes
+     */
+    public void acquire(long recordCount, long byteCount)
+    {
+        long now = System.nanoTime();
+        long wait = 0;
+        if (records != null && recordCount > 0) {
+            wait = records.reserve(recordCount, now);
+        }
+        if (bytes != null && byteCount > 0) {
+            wait = Math.max(wait, bytes.reserve(byteCount, now));
+        }
+        if (wait <= 0) {
+            return;
+        }
+        long deadline = now + wait;
+        while (!Thread.currentThread().isInterrupted()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static final class Bucket
+    {
+        private final double nanosPerToken;
+
+        private final long burstNanos;
+
+        // the time at which all tokens taken so far are paid off
+        private final AtomicLong paidUntil;
+
+        Bucket(long tokensPerSecond, long burstNanos)
+        {
+            this.nanosPerToken = (double) TimeUnit.SECONDS.toNanos(1) / tokensPerSecond;
+            this.burstNanos = burstNanos;
+            this.paidUntil = new AtomicLong(System.nanoTime());
+        }
+
+        /*
+         * Take n tokens and return how long the caller must wait for them, 0 if they are available now
+         */
+        long reserve(long n, long now)
+        {
+            long cost = (long) Math.min(n * nanosPerToken, Long.MAX_VALUE / 4);
+            while (true) {
+                long current = paidUntil.get();
+                // unused time older than the burst window is forfeited
+                long start = Math.max(current, now - burstNanos);
+                long next = start + cost;
+                if (paidUntil.compareAndSet(current, next)) {
+                    return next - now;
+                }
+            }
+        }
+    }
+}
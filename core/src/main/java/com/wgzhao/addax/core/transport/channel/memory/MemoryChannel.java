@@ -33,15 +33,12 @@ import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
 import static com.wgzhao.addax.core.spi.ErrorCode.RUNTIME_ERROR;
-import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_TRANSPORT_EXCHANGER_BUFFER_SIZE;
 
 
 public class MemoryChannel
         extends Channel
 {
 
-    private final int bufferSize;
-
     private final AtomicInteger memoryBytes = new AtomicInteger(0);
 
     private final ArrayBlockingQueue<Record> queue;
@@ -55,7 +52,6 @@ public class MemoryChannel
     {
         super(configuration);
         this.queue = new ArrayBlockingQueue<>(this.getCapacity());
-        this.bufferSize = configuration.getInt(CORE_TRANSPORT_EXCHANGER_BUFFER_SIZE, 32);
 
         lock = new ReentrantLock();
         notInsufficient = lock.newCondition();
@@ -86,8 +82,8 @@ public class MemoryChannel
         try {
             long startTime = System.nanoTime();
             this.queue.put(r);
-            waitReaderTime.addAndGet(System.nanoTime() - startTime);
-            memoryBytes.addAndGet(r.getMemorySize());
+            waitWriterTime.addAndGet(System.nanoTime() - startTime);
+            memoryBytes.addAndGet(getMemorySize(r));
         }
         catch (InterruptedException ex) {
             Thread.currentThread().interrupt();
@@ -101,11 +97,12 @@ public class MemoryChannel
             long startTime = System.nanoTime();
             lock.lockInterruptibly();
             int bytes = getRecordBytes(rs);
-            while (memoryBytes.get() + bytes > this.byteCapacity || rs.size() > this.queue.remainingCapacity()) {
+            while (memoryBytes.get() + bytes > this.byteCapacity || rs.size() > this.queue.remainingCapacity()
+                    || (!this.queue.isEmpty() && this.queue.size() + rs.size() > this.capacityLimit)) {
                 notInsufficient.await(200L, TimeUnit.MILLISECONDS);
             }
             this.queue.addAll(rs);
-            waitReaderTime.addAndGet(System.nanoTime() - startTime);
+            waitWriterTime.addAndGet(System.nanoTime() - startTime);
             memoryBytes.addAndGet(bytes);
             notEmpty.signalAll();
         }
@@ -124,7 +121,7 @@ public class MemoryChannel
             long startTime = System.nanoTime();
             Record r = this.queue.take();
             waitReaderTime.addAndGet(System.nanoTime() - startTime);
-            memoryBytes.addAndGet(-r.getMemorySize());
+            memoryBytes.addAndGet(-getMemorySize(r));
             return r;
         }
         catch (InterruptedException e) {
@@ -141,7 +138,7 @@ public class MemoryChannel
         try {
             long startTime = System.nanoTime();
             lock.lockInterruptibly();
-            while (this.queue.drainTo(rs, bufferSize) <= 0) {
+            while (this.queue.drainTo(rs, this.pullSize) <= 0) {
                 notEmpty.await(200L, TimeUnit.MILLISECONDS);
             }
             waitReaderTime.addAndGet(System.nanoTime() - startTime);
@@ -161,7 +158,7 @@ public class MemoryChannel
     {
         int bytes = 0;
         for (Record r : rs) {
-            bytes += r.getMemorySize();
+            bytes += getMemorySize(r);
         }
         return bytes;
     }
@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wgzhao.addax.core.transport.channel.memory;
+
+import com.wgzhao.addax.core.element.Record;
+import com.wgzhao.addax.core.exception.AddaxException;
+import com.wgzhao.addax.core.transport.channel.Channel;
+import com.wgzhao.addax.core.transport.record.TerminateRecord;
+import com.wgzhao.addax.core.util.Configuration;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.wgzhao.addax.core.spi.ErrorCode.RUNTIME_ERROR;
+import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_TRANSPORT_CHANNEL_WAIT_STRATEGY;
+
+/**
+ * A lock-free channel for exactly one producer (the reader thread) and one consumer (the writer thread).
+ * <p>
+ * Records are kept in a power-of-two ring. The producer owns {@code tail} and the consumer owns {@code head};
+ * each side only publishes its own index with an ordered write, so no lock or CAS is needed.
+ * A whole batch is copied into the ring before the tail is moved, which makes it visible to the consumer at once.
+ * When the ring is full or empty the waiting side follows the configured {@link WaitStrategy}.
+ * <p>
+ * Enable it with {@code core.transport.channel.class = com.wgzhao.addax.core.transport.channel.memory.RingBufferChannel}
+ * and choose the strategy with {@code core.transport.channel.waitStrategy} (spin, yield or park, default park).
+ */
+public class RingBufferChannel
+        extends Channel
+{
+    private final Record[] ring;
+
+    private final int mask;
+
+    private final WaitStrategy waitStrategy;
+
+    // next slot to read, written by the consumer only
+    private final AtomicLong head = new AtomicLong(0);
+
+    // next slot to write, written by the producer only
+    private final AtomicLong tail = new AtomicLong(0);
+
+    private final AtomicInteger memoryBytes = new AtomicInteger(0);
+
+    // producer-local copy of head, refreshed only when the ring looks full
+    private long cachedHead = 0;
+
+    // consumer-local copy of tail, refreshed only when the ring looks empty
+    private long cachedTail = 0;
+
+    public RingBufferChannel(Configuration configuration)
+    {
+        super(configuration);
+        int size = 1;
+        while (size < this.capacity) {
+            size <<= 1;
+        }
+        this.ring = new Record[size];
+        this.mask = size - 1;
+        this.waitStrategy = WaitStrategy.of(configuration.getString(CORE_TRANSPORT_CHANNEL_WAIT_STRATEGY));
+    }
+
+    @Override
+    public void close()
+    {
+        super.close();
+        doPush(TerminateRecord.get());
+    }
+
+    @Override
+    public void clear()
+    {
+        // only called on shutdown, the records left in the ring are dropped
+        long t = tail.get();
+        for (long i = head.get(); i < t; i++) {
+            ring[(int) i & mask] = null;
+        }
+        memoryBytes.set(0);
+        head.lazySet(t);
+    }
+
+    @Override
+    protected void doPush(Record r)
+    {
+        long startTime = System.nanoTime();
+        long t = tail.get();
+        awaitFreeSlots(t, 1, getMemorySize(r));
+        ring[(int) t & mask] = r;
+        memoryBytes.addAndGet(getMemorySize(r));
+        tail.lazySet(t + 1);
+        waitWriterTime.addAndGet(System.nanoTime() - startTime);
+    }
+
+    @Override
+    protected void doPushAll(Collection<Record> rs)
+    {
+        long startTime = System.nanoTime();
+        int n = rs.size();
+        if (n == 0) {
+            return;
+        }
+        if (n > ring.length) {
+            // larger than the whole ring, fall back to publishing one by one
+            for (Record r : rs) {
+                doPush(r);
+            }
+            return;
+        }
+        int bytes = getRecordBytes(rs);
+        long t = tail.get();
+        awaitFreeSlots(t, n, bytes);
+        long i = t;
+        for (Record r : rs) {
+            ring[(int) i++ & mask] = r;
+        }
+        memoryBytes.addAndGet(bytes);
+        tail.lazySet(t + n);
+        waitWriterTime.addAndGet(System.nanoTime() - startTime);
+    }
+
+    @Override
+    protected Record doPull()
+    {
+        long startTime = System.nanoTime();
+        long h = head.get();
+        awaitAvailable(h);
+        int idx = (int) h & mask;
+        Record r = ring[idx];
+        ring[idx] = null;
+        memoryBytes.addAndGet(-getMemorySize(r));
+        head.lazySet(h + 1);
+        waitReaderTime.addAndGet(System.nanoTime() - startTime);
+        return r;
+    }
+
+    @Override
+    protected void doPullAll(Collection<Record> rs)
+    {
+        assert rs != null;
+        rs.clear();
+        long startTime = System.nanoTime();
+        long h = head.get();
+        long available = awaitAvailable(h);
+        int n = (int) Math.min(available, this.pullSize);
+        int bytes = 0;
+        for (long i = h; i < h + n; i++) {
+            int idx = (int) i & mask;
+            Record r = ring[idx];
+            ring[idx] = null;
+            bytes += getMemorySize(r);
+            rs.add(r);
+        }
+        memoryBytes.addAndGet(-bytes);
+        head.lazySet(h + n);
+        waitReaderTime.addAndGet(System.nanoTime() - startTime);
+    }
+
+    /*
+     * Block the producer until n slots are free and the bytes fit in byteCapacity.
+     * An empty ring always accepts the batch, otherwise an oversized batch could never be published.
+     */
+    private void awaitFreeSlots(long t, int n, int bytes)
+    {
+        int counter = 0;
+        while (true) {
+            int limit = Math.min(ring.length, this.capacityLimit);
+            if (t + n - cachedHead > limit) {
+                cachedHead = head.get();
+            }
+            // the soft limit never blocks a batch on an empty ring
+            boolean hasSlots = t + n - cachedHead <= ring.length && (cachedHead == t || t + n - cachedHead <= limit);
+            boolean hasBytes = cachedHead == t || memoryBytes.get() + bytes <= this.byteCapacity;
+            if (hasSlots && hasBytes) {
+                return;
+            }
+            if (!hasBytes) {
+                cachedHead = head.get();
+            }
+            checkInterrupted();
+            waitStrategy.idle(counter++);
+        }
+    }
+
+    /*
+     * Block the consumer until at least one record is readable, return the readable count
+     */
+    private long awaitAvailable(long h)
+    {
+        int counter = 0;
+        while (cachedTail <= h) {
+            cachedTail = tail.get();
+            if (cachedTail > h) {
+                break;
+            }
+            checkInterrupted();
+            waitStrategy.idle(counter++);
+        }
+        return cachedTail - h;
+    }
+
+    private void checkInterrupted()
+    {
+        if (Thread.currentThread().isInterrupted()) {
+            throw AddaxException.asAddaxException(RUNTIME_ERROR, new InterruptedException());
+        }
+    }
+
+    private int getRecordBytes(Collection<Record> rs)
+    {
+        int bytes = 0;
+        for (Record r : rs) {
+            bytes += getMemorySize(r);
+        }
+        return bytes;
+    }
+
+    @Override
+    public int size()
+    {
+        return (int) (tail.get() - head.get());
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return size() == 0;
+    }
+}
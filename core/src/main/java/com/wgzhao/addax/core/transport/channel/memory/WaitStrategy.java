@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wgzhao.addax.core.transport.channel.memory;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How a {@link RingBufferChannel} side waits while the ring is full (producer) or empty (consumer).
+ * <ul>
+ *     <li>SPIN: busy spin, lowest latency, burns one core per waiting side</li>
+ *     <li>YIELD: spin briefly then yield the CPU to other threads</li>
+ *     <li>PARK: spin briefly, yield, then park with an increasing back-off up to 1ms</li>
+ * </ul>
+ */
+public enum WaitStrategy
+{
+    SPIN {
+        @Override
+        public void idle(int counter)
+        {
+            Thread.onSpinWait();
+        }
+    },
+
+    YIELD {
+        @Override
+        public void idle(int counter)
+        {
+            if (counter < SPIN_TRIES) {
+                Thread.onSpinWait();
+            }
+            else {
+                Thread.yield();
+            }
+        }
+    },
+
+    PARK {
+        @Override
+        public void idle(int counter)
+        {
+            if (counter < SPIN_TRIES) {
+                Thread.onSpinWait();
+            }
+            else if (counter < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+            }
+            else {
+                int shift = Math.min(counter - SPIN_TRIES - YIELD_TRIES, 10);
+                LockSupport.parkNanos(Math.min(1000L << shift, MAX_PARK_NANOS));
+            }
+        }
+    };
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long MAX_PARK_NANOS = 1_000_000L;
+
+    /**
+     * Wait once. {@code counter} is the number of consecutive idle rounds so far and starts at 0,
+     * so strategies can back off progressively.
+     *
+     * @param counter consecutive idle rounds
+     */
+    public abstract void idle(int counter);
+
+    public static WaitStrategy of(String name)
+    {
+        if (name == null || name.isBlank()) {
+            return PARK;
+        }
+        return WaitStrategy.valueOf(name.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wgzhao.addax.core.transport.exchanger;
+
+import com.wgzhao.addax.core.transport.channel.Channel;
+import com.wgzhao.addax.core.util.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_TRANSPORT_EXCHANGER_MAX_BUFFER_SIZE;
+import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_TRANSPORT_EXCHANGER_MIN_BUFFER_SIZE;
+
+/**
+ * Tunes the exchanger buffer size and the channel capacity of one task while it runs
+ * ({@code core.transport.exchanger.adaptive = true}).
+ * <p>
+ * After every flush the reader side reports the batch it pushed. Once per window the wait counters of the channel
+ * are compared with the elapsed time:
+ * <ul>
+ *     <li>neither side waited: both are busy and the hand-offs themselves cost, so the batch doubles</li>
+ *     <li>one side waited most of the window: it is starved or blocked by the other one, so the batch shrinks by a quarter
+ *     to cut latency and the memory held in flight</li>
+ * </ul>
+ * A batch never takes more than a quarter of the byte capacity, so wide records get small batches and narrow ones
+ * large batches. The channel may hold {@value #CHANNEL_BATCHES} batches.
+ */
+final class AdaptiveBufferSizer
+{
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptiveBufferSizer.class);
+
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private static final double LOW_WAIT_RATIO = 0.05;
+
+    private static final double HIGH_WAIT_RATIO = 0.5;
+
+    private static final int CHANNEL_BATCHES = 8;
+
+    private final Channel channel;
+
+    private final int minBufferSize;
+
+    private final int maxBufferSize;
+
+    private final int byteCapacity;
+
+    private int bufferSize;
+
+    private long windowStart;
+
+    private long lastWaitWriterTime;
+
+    private long lastWaitReaderTime;
+
+    private long windowRecords;
+
+    private long windowBytes;
+
+    AdaptiveBufferSizer(Channel channel, Configuration configuration, int bufferSize, int byteCapacity)
+    {
+        this.channel = channel;
+        this.minBufferSize = Math.max(1, configuration.getInt(CORE_TRANSPORT_EXCHANGER_MIN_BUFFER_SIZE, 8));
+        this.maxBufferSize = Math.max(this.minBufferSize, configuration.getInt(CORE_TRANSPORT_EXCHANGER_MAX_BUFFER_SIZE, 1024));
+        this.byteCapacity = byteCapacity;
+        this.bufferSize = Math.max(minBufferSize, Math.min(bufferSize, maxBufferSize));
+        this.windowStart = System.nanoTime();
+        this.lastWaitWriterTime = channel.getWaitWriterTime();
+        this.lastWaitReaderTime = channel.getWaitReaderTime();
+    }
+
+    int getBufferSize()
+    {
+        return bufferSize;
+    }
+
+    /**
+     * Account a flushed batch and return the buffer size to use from now on
+     *
+     * @param records the records just pushed
+     * @param bytes their memory size
+     * @return the new buffer size
+     */
+    int onFlush(int records, long bytes)
+    {
+        windowRecords += records;
+        windowBytes += bytes;
+        long now = System.nanoTime();
+        long elapsed = now - windowStart;
+        if (elapsed < WINDOW_NANOS || windowRecords == 0) {
+            return bufferSize;
+        }
+
+        long waitWriterTime = channel.getWaitWriterTime();
+        long waitReaderTime = channel.getWaitReaderTime();
+        double pushWaitRatio = (double) (waitWriterTime - lastWaitWriterTime) / elapsed;
+        double pullWaitRatio = (double) (waitReaderTime - lastWaitReaderTime) / elapsed;
+
+        long next = bufferSize;
+        if (pushWaitRatio < LOW_WAIT_RATIO && pullWaitRatio < LOW_WAIT_RATIO) {
+            next = (long) bufferSize * 2;
+        }
+        else if (pushWaitRatio > HIGH_WAIT_RATIO || pullWaitRatio > HIGH_WAIT_RATIO) {
+            next = bufferSize - bufferSize / 4;
+        }
+        long recordBytes = Math.max(1, windowBytes / windowRecords);
+        next = Math.min(next, byteCapacity / 4 / recordBytes);
+        next = Math.max(minBufferSize, Math.min(next, maxBufferSize));
+
+        if (next != bufferSize) {
+            LOG.debug("Adjust the exchanger buffer size from {} to {}, push wait {}%, pull wait {}%, {} bytes per record",
+                    bufferSize, next, Math.round(pushWaitRatio * 100), Math.round(pullWaitRatio * 100), recordBytes);
+            bufferSize = (int) next;
+            channel.resize(bufferSize, bufferSize * CHANNEL_BATCHES);
+        }
+
+        windowStart = now;
+        lastWaitWriterTime = waitWriterTime;
+        lastWaitReaderTime = waitReaderTime;
+        windowRecords = 0;
+        windowBytes = 0;
+        return bufferSize;
+    }
+}
@@ -20,12 +20,17 @@
 package com.wgzhao.addax.core.transport.exchanger;
 
 import com.wgzhao.addax.core.element.Record;
+import com.wgzhao.addax.core.element.RecordBatch;
 import com.wgzhao.addax.core.exception.AddaxException;
 import com.wgzhao.addax.core.plugin.RecordReceiver;
 import com.wgzhao.addax.core.plugin.RecordSender;
 import com.wgzhao.addax.core.plugin.TaskPluginCollector;
 import com.wgzhao.addax.core.util.Configuration;
 import com.wgzhao.addax.core.transport.channel.Channel;
+import com.wgzhao.addax.core.transport.record.BatchRecord;
+import com.wgzhao.addax.core.transport.record.DefaultRecord;
+import com.wgzhao.addax.core.transport.record.RecordFactory;
+import com.wgzhao.addax.core.transport.record.RecordPool;
 import com.wgzhao.addax.core.transport.record.TerminateRecord;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
@@ -35,36 +40,49 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
-import static com.wgzhao.addax.core.spi.ErrorCode.CONFIG_ERROR;
 import static com.wgzhao.addax.core.spi.ErrorCode.SHUT_DOWN_TASK;
 import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_TRANSPORT_CHANNEL_CAPACITY_BYTE;
+import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_TRANSPORT_EXCHANGER_ADAPTIVE;
 import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_TRANSPORT_EXCHANGER_BUFFER_SIZE;
-import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_TRANSPORT_RECORD_CLASS;
+import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_TRANSPORT_EXCHANGER_RECORD_BATCH;
 
 public class BufferedRecordExchanger
         implements RecordSender, RecordReceiver
 {
 
-    private static Class<? extends Record> recordClass;
     protected final int byteCapacity;
+    private final RecordFactory recordFactory;
+    private final boolean recordBatchEnabled;
     private final Channel channel;
     private final List<Record> buffer;
     private final AtomicInteger memoryBytes = new AtomicInteger(0);
     private final TaskPluginCollector pluginCollector;
+    // shared by the reader and writer exchangers of one task, null when recycling is disabled
+    private final RecordPool recordPool;
+    // tunes bufferSize from the channel wait times, null unless core.transport.exchanger.adaptive is enabled
+    private final AdaptiveBufferSizer bufferSizer;
 
     private static final Logger logger = LoggerFactory.getLogger(BufferedRecordExchanger.class);
     private int bufferSize;
     private int bufferIndex = 0;
     private volatile boolean shutdown = false;
+    // the batch whose rows are being handed out by getFromReader()
+    private RecordBatch currentBatch;
+    private int batchRowIndex = 0;
 
-    @SuppressWarnings("unchecked")
     public BufferedRecordExchanger(Channel channel, TaskPluginCollector pluginCollector)
+    {
+        this(channel, pluginCollector, null);
+    }
+
+    public BufferedRecordExchanger(Channel channel, TaskPluginCollector pluginCollector, RecordPool recordPool)
     {
         assert null != channel;
         assert null != channel.getConfiguration();
 
         this.channel = channel;
         this.pluginCollector = pluginCollector;
+        this.recordPool = recordPool;
         Configuration configuration = channel.getConfiguration();
 
         this.bufferSize = configuration.getInt(CORE_TRANSPORT_EXCHANGER_BUFFER_SIZE, 32);
@@ -74,26 +92,41 @@ public class BufferedRecordExchanger
         this.byteCapacity = configuration.getInt(
                 CORE_TRANSPORT_CHANNEL_CAPACITY_BYTE, 8 * 1024 * 1024);
 
-        try {
-            BufferedRecordExchanger.recordClass = ((Class<? extends Record>) Class
-                    .forName(configuration.getString(
-                            CORE_TRANSPORT_RECORD_CLASS,
-                            "com.wgzhao.addax.core.transport.record.DefaultRecord")));
+        this.recordBatchEnabled = configuration.getBool(CORE_TRANSPORT_EXCHANGER_RECORD_BATCH, false);
+
+        this.recordFactory = RecordFactory.of(configuration);
+
+        if (configuration.getBool(CORE_TRANSPORT_EXCHANGER_ADAPTIVE, false)) {
+            this.bufferSizer = new AdaptiveBufferSizer(channel, configuration, this.bufferSize, this.byteCapacity);
+            this.bufferSize = this.bufferSizer.getBufferSize();
         }
-        catch (Exception e) {
-            throw AddaxException.asAddaxException(CONFIG_ERROR, e);
+        else {
+            this.bufferSizer = null;
         }
     }
 
     @Override
     public Record createRecord()
     {
-        try {
-            return BufferedRecordExchanger.recordClass.getConstructor().newInstance();
+        if (recordPool != null) {
+            DefaultRecord record = recordPool.poll();
+            if (record != null) {
+                return record;
+            }
         }
-        catch (Exception e) {
-            throw AddaxException.asAddaxException(CONFIG_ERROR, e);
+        return recordFactory.create();
+    }
+
+    @Override
+    public Record createRecord(int columnCount)
+    {
+        if (recordPool != null) {
+            DefaultRecord record = recordPool.poll();
+            if (record != null) {
+                return record;
+            }
         }
+        return recordFactory.create(columnCount);
     }
 
     @Override
@@ -105,21 +138,59 @@ public class BufferedRecordExchanger
 
         Validate.notNull(record, "The record cannot be empty.");
 
-        if (record.getMemorySize() > this.byteCapacity) {
+        int memorySize = this.channel.getMemorySize(record);
+        if (memorySize > this.byteCapacity) {
             this.pluginCollector.collectDirtyRecord(record,
                     new Exception(String.format("A single record exceeds the size limit. The current limit is %d", this.byteCapacity)));
             return;
         }
 
         boolean isFull = (this.bufferIndex >= this.bufferSize
-                || this.memoryBytes.get() + record.getMemorySize() > this.byteCapacity);
+                || this.memoryBytes.get() + memorySize > this.byteCapacity);
         if (isFull) {
             flush();
         }
 
         this.buffer.add(record);
         this.bufferIndex++;
-        memoryBytes.addAndGet(record.getMemorySize());
+        memoryBytes.addAndGet(memorySize);
+    }
+
+    @Override
+    public boolean isRecordBatchEnabled()
+    {
+        return recordBatchEnabled;
+    }
+
+    @Override
+    public void sendBatchToWriter(RecordBatch batch)
+    {
+        if (shutdown) {
+            throw AddaxException.asAddaxException(SHUT_DOWN_TASK, "");
+        }
+
+        Validate.notNull(batch, "The record batch cannot be empty.");
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        BatchRecord batchRecord = new BatchRecord(batch);
+        int memorySize = this.channel.getMemorySize(batchRecord);
+        if (memorySize > this.byteCapacity) {
+            // too large to be a single channel element, send the rows instead
+            RecordSender.super.sendBatchToWriter(batch);
+            return;
+        }
+
+        // keep the order with the rows already buffered
+        if (this.memoryBytes.get() + memorySize > this.byteCapacity) {
+            flush();
+        }
+        this.buffer.add(batchRecord);
+        this.bufferIndex++;
+        memoryBytes.addAndGet(memorySize);
+        flush();
     }
 
     @Override
@@ -129,6 +200,9 @@ public class BufferedRecordExchanger
             throw AddaxException.asAddaxException(SHUT_DOWN_TASK, "");
         }
         this.channel.pushAll(this.buffer);
+        if (this.bufferSizer != null && !this.buffer.isEmpty()) {
+            this.bufferSize = this.bufferSizer.onFlush(this.buffer.size(), this.memoryBytes.get());
+        }
         this.buffer.clear();
         this.bufferIndex = 0;
         this.memoryBytes.set(0);
@@ -150,16 +224,64 @@ public class BufferedRecordExchanger
         if (shutdown) {
             throw AddaxException.asAddaxException(SHUT_DOWN_TASK, "");
         }
-        boolean isEmpty = (this.bufferIndex >= this.buffer.size());
-        if (isEmpty) {
+        while (true) {
+            if (currentBatch != null) {
+                if (batchRowIndex < currentBatch.size()) {
+                    // always allocate here so that only the reader thread takes from the pool
+                    Record row = recordFactory.create(currentBatch.getColumnNumber());
+                    currentBatch.fillRecord(batchRowIndex++, row);
+                    return row;
+                }
+                currentBatch = null;
+            }
+
+            boolean isEmpty = (this.bufferIndex >= this.buffer.size());
+            if (isEmpty) {
+                receive();
+            }
+
+            Record record = this.buffer.get(this.bufferIndex++);
+            if (record instanceof BatchRecord batchRecord) {
+                currentBatch = batchRecord.getBatch();
+                batchRowIndex = 0;
+                continue;
+            }
+            if (record instanceof TerminateRecord) {
+                record = null;
+            }
+            return record;
+        }
+    }
+
+    @Override
+    public RecordBatch getBatchFromReader()
+    {
+        if (shutdown) {
+            throw AddaxException.asAddaxException(SHUT_DOWN_TASK, "");
+        }
+        if (currentBatch != null && batchRowIndex < currentBatch.size()) {
+            // a batch is partially consumed as rows, finish it through getFromReader()
+            return null;
+        }
+        currentBatch = null;
+
+        if (this.bufferIndex >= this.buffer.size()) {
             receive();
         }
+        Record record = this.buffer.get(this.bufferIndex);
+        if (record instanceof BatchRecord batchRecord) {
+            this.bufferIndex++;
+            return batchRecord.getBatch();
+        }
+        return null;
+    }
 
-        Record record = this.buffer.get(this.bufferIndex++);
-        if (record instanceof TerminateRecord) {
-            record = null;
+    @Override
+    public void recycle(Record record)
+    {
+        if (recordPool != null && record != null) {
+            recordPool.recycle(record);
         }
-        return record;
     }
 
     @Override
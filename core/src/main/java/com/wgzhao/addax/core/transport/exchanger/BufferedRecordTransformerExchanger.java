@@ -28,6 +28,9 @@ import com.wgzhao.addax.core.plugin.TaskPluginCollector;
 import com.wgzhao.addax.core.util.Configuration;
 import com.wgzhao.addax.core.statistics.communication.Communication;
 import com.wgzhao.addax.core.transport.channel.Channel;
+import com.wgzhao.addax.core.transport.record.DefaultRecord;
+import com.wgzhao.addax.core.transport.record.RecordFactory;
+import com.wgzhao.addax.core.transport.record.RecordPool;
 import com.wgzhao.addax.core.transport.record.TerminateRecord;
 import com.wgzhao.addax.core.transport.transformer.TransformerExecution;
 import com.wgzhao.addax.core.util.container.CoreConstant;
@@ -37,33 +40,44 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
-import static com.wgzhao.addax.core.spi.ErrorCode.CONFIG_ERROR;
-
 public class BufferedRecordTransformerExchanger
         extends TransformerExchanger
         implements RecordSender, RecordReceiver
 {
 
-    private static Class<? extends Record> RECORD_CLASS;
     protected final int byteCapacity;
+    private final RecordFactory recordFactory;
     private final Channel channel;
     private final List<Record> buffer;
     private final AtomicInteger memoryBytes = new AtomicInteger(0);
+    // filled by the writer exchanger of the same task, null when recycling is disabled
+    private final RecordPool recordPool;
+    // tunes bufferSize from the channel wait times, null unless core.transport.exchanger.adaptive is enabled
+    private final AdaptiveBufferSizer bufferSizer;
     private int bufferSize;
     private int bufferIndex = 0;
     private volatile boolean shutdown = false;
 
-    @SuppressWarnings("unchecked")
     public BufferedRecordTransformerExchanger(int taskGroupId, int taskId,
             Channel channel, Communication communication,
             TaskPluginCollector pluginCollector,
             List<TransformerExecution> tInfoExecs)
+    {
+        this(taskGroupId, taskId, channel, communication, pluginCollector, tInfoExecs, null);
+    }
+
+    public BufferedRecordTransformerExchanger(int taskGroupId, int taskId,
+            Channel channel, Communication communication,
+            TaskPluginCollector pluginCollector,
+            List<TransformerExecution> tInfoExecs,
+            RecordPool recordPool)
     {
         super(taskGroupId, taskId, communication, tInfoExecs, pluginCollector);
         assert null != channel;
         assert null != channel.getConfiguration();
 
         this.channel = channel;
+        this.recordPool = recordPool;
         Configuration configuration = channel.getConfiguration();
 
         this.bufferSize = configuration.getInt(CoreConstant.CORE_TRANSPORT_EXCHANGER_BUFFER_SIZE, 32);
@@ -73,26 +87,39 @@ public class BufferedRecordTransformerExchanger
         this.byteCapacity = configuration.getInt(
                 CoreConstant.CORE_TRANSPORT_CHANNEL_CAPACITY_BYTE, 8 * 1024 * 1024);
 
-        try {
-            BufferedRecordTransformerExchanger.RECORD_CLASS = ((Class<? extends Record>) Class
-                    .forName(configuration.getString(
-                            CoreConstant.CORE_TRANSPORT_RECORD_CLASS,
-                            "com.wgzhao.addax.core.transport.record.DefaultRecord")));
+        this.recordFactory = RecordFactory.of(configuration);
+
+        if (configuration.getBool(CoreConstant.CORE_TRANSPORT_EXCHANGER_ADAPTIVE, false)) {
+            this.bufferSizer = new AdaptiveBufferSizer(channel, configuration, this.bufferSize, this.byteCapacity);
+            this.bufferSize = this.bufferSizer.getBufferSize();
         }
-        catch (Exception e) {
-            throw AddaxException.asAddaxException(CONFIG_ERROR, e);
+        else {
+            this.bufferSizer = null;
         }
     }
 
     @Override
     public Record createRecord()
     {
-        try {
-            return BufferedRecordTransformerExchanger.RECORD_CLASS.getConstructor().newInstance();
+        if (recordPool != null) {
+            DefaultRecord record = recordPool.poll();
+            if (record != null) {
+                return record;
+            }
         }
-        catch (Exception e) {
-            throw AddaxException.asAddaxException(CONFIG_ERROR, e);
+        return recordFactory.create();
+    }
+
+    @Override
+    public Record createRecord(int columnCount)
+    {
+        if (recordPool != null) {
+            DefaultRecord record = recordPool.poll();
+            if (record != null) {
+                return record;
+            }
         }
+        return recordFactory.create(columnCount);
     }
 
     @Override
@@ -104,27 +131,17 @@ public class BufferedRecordTransformerExchanger
 
         Validate.notNull(record, "The record cannot be empty.");
 
-        record = doTransformer(record);
-
-        if (record == null) {
-            return;
-        }
-
-        if (record.getMemorySize() > this.byteCapacity) {
-            this.pluginCollector.collectDirtyRecord(record,
-                    new Exception(String.format("A single record exceeds the size limit. The current limit is %d", this.byteCapacity)));
-            return;
-        }
-
+        // the transformers run over the whole buffer in flush(), the size limit is checked on their result there
+        int memorySize = this.channel.getMemorySize(record);
         boolean isFull = (this.bufferIndex >= this.bufferSize
-                || this.memoryBytes.get() + record.getMemorySize() > this.byteCapacity);
+                || this.memoryBytes.get() + memorySize > this.byteCapacity);
         if (isFull) {
             flush();
         }
 
         this.buffer.add(record);
         this.bufferIndex++;
-        memoryBytes.addAndGet(record.getMemorySize());
+        memoryBytes.addAndGet(memorySize);
     }
 
     @Override
@@ -133,9 +150,13 @@ public class BufferedRecordTransformerExchanger
         if (shutdown) {
             throw AddaxException.asAddaxException(ErrorCode.SHUT_DOWN_TASK, "");
         }
-        this.channel.pushAll(this.buffer);
+        doTransformer(this.buffer);
+        long pushedBytes = pushTransformed();
         // Keep transformer stats in sync with channel pushes
         doStat();
+        if (this.bufferSizer != null && !this.buffer.isEmpty()) {
+            this.bufferSize = this.bufferSizer.onFlush(this.buffer.size(), pushedBytes);
+        }
         this.buffer.clear();
         this.bufferIndex = 0;
         this.memoryBytes.set(0);
@@ -182,6 +203,45 @@ public class BufferedRecordTransformerExchanger
         }
     }
 
+    /*
+     * Push the transformed buffer. Records the transformers made larger than the channel capacity are dirty,
+     * and a buffer that grew beyond it as a whole is pushed in parts the channel can take.
+     */
+    private long pushTransformed()
+    {
+        long totalBytes = 0;
+        int kept = 0;
+        for (Record record : this.buffer) {
+            int memorySize = this.channel.getMemorySize(record);
+            if (memorySize > this.byteCapacity) {
+                this.pluginCollector.collectDirtyRecord(record,
+                        new Exception(String.format("A single record exceeds the size limit. The current limit is %d", this.byteCapacity)));
+                continue;
+            }
+            this.buffer.set(kept++, record);
+            totalBytes += memorySize;
+        }
+        this.buffer.subList(kept, this.buffer.size()).clear();
+
+        if (totalBytes <= this.byteCapacity) {
+            this.channel.pushAll(this.buffer);
+            return totalBytes;
+        }
+        int from = 0;
+        long partBytes = 0;
+        for (int i = 0; i < this.buffer.size(); i++) {
+            int memorySize = this.channel.getMemorySize(this.buffer.get(i));
+            if (partBytes + memorySize > this.byteCapacity) {
+                this.channel.pushAll(this.buffer.subList(from, i));
+                from = i;
+                partBytes = 0;
+            }
+            partBytes += memorySize;
+        }
+        this.channel.pushAll(this.buffer.subList(from, this.buffer.size()));
+        return totalBytes;
+    }
+
     private void receive()
     {
         this.channel.pullAll(this.buffer);
@@ -27,27 +27,23 @@ import com.wgzhao.addax.core.plugin.TaskPluginCollector;
 import com.wgzhao.addax.core.util.Configuration;
 import com.wgzhao.addax.core.statistics.communication.Communication;
 import com.wgzhao.addax.core.transport.channel.Channel;
-import com.wgzhao.addax.core.transport.record.DefaultRecord;
+import com.wgzhao.addax.core.transport.record.RecordFactory;
 import com.wgzhao.addax.core.transport.record.TerminateRecord;
 import com.wgzhao.addax.core.transport.transformer.TransformerExecution;
-import org.apache.commons.lang3.StringUtils;
 
 import java.util.List;
 
-import static com.wgzhao.addax.core.spi.ErrorCode.CONFIG_ERROR;
 import static com.wgzhao.addax.core.spi.ErrorCode.SHUT_DOWN_TASK;
-import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_TRANSPORT_RECORD_CLASS;
 
 public class RecordExchanger
         extends TransformerExchanger
         implements RecordSender, RecordReceiver
 {
 
-    private static Class<? extends Record> RECORD_CLASS;
     private final Channel channel;
+    private final RecordFactory recordFactory;
     private volatile boolean shutdown = false;
 
-    @SuppressWarnings("unchecked")
     public RecordExchanger(int taskGroupId, int taskId, Channel channel, Communication communication,
             List<TransformerExecution> transformerExecs, TaskPluginCollector pluginCollector)
     {
@@ -55,18 +51,7 @@ public class RecordExchanger
         assert channel != null;
         this.channel = channel;
         Configuration configuration = channel.getConfiguration();
-        try {
-            String cls = configuration.getString(CORE_TRANSPORT_RECORD_CLASS, null);
-            if (!StringUtils.isBlank(cls)) {
-                RECORD_CLASS = (Class<? extends Record>) Class.forName(cls);
-            }
-            else {
-                RecordExchanger.RECORD_CLASS = DefaultRecord.class;
-            }
-        }
-        catch (ClassNotFoundException e) {
-            throw AddaxException.asAddaxException(CONFIG_ERROR, e);
-        }
+        this.recordFactory = RecordFactory.of(configuration);
     }
 
     @Override
@@ -82,12 +67,13 @@ public class RecordExchanger
     @Override
     public Record createRecord()
     {
-        try {
-            return RECORD_CLASS.getConstructor().newInstance();
-        }
-        catch (Exception e) {
-            throw AddaxException.asAddaxException(CONFIG_ERROR, e);
-        }
+        return recordFactory.create();
+    }
+
+    @Override
+    public Record createRecord(int columnCount)
+    {
+        return recordFactory.create(columnCount);
     }
 
     @Override
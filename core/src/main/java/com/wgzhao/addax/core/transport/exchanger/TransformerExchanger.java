@@ -23,7 +23,8 @@ import com.wgzhao.addax.core.element.Record;
 import com.wgzhao.addax.core.exception.AddaxException;
 import com.wgzhao.addax.core.plugin.TaskPluginCollector;
 import com.wgzhao.addax.core.statistics.communication.Communication;
-import com.wgzhao.addax.core.statistics.communication.CommunicationTool;
+import com.wgzhao.addax.core.statistics.communication.Metric;
+import com.wgzhao.addax.core.transport.transformer.TransformerBatch;
 import com.wgzhao.addax.core.transport.transformer.TransformerExecution;
 import com.wgzhao.addax.core.util.container.ClassLoaderSwapper;
 
@@ -45,6 +46,8 @@ public abstract class TransformerExchanger
     protected final Communication currentCommunication;
     private final List<TransformerExecution> transformerExecs;
     private final ClassLoaderSwapper classLoaderSwapper = ClassLoaderSwapper.newCurrentThreadClassLoaderSwapper();
+    // reused by every batch of the task, the reader thread is the only user
+    private final TransformerBatch batch = new TransformerBatch();
     private long totalExhaustedTime = 0;
     private long totalFilterRecords = 0;
     private long totalSuccessRecords = 0;
@@ -137,11 +140,85 @@ public abstract class TransformerExchanger
         }
     }
 
+    /**
+     * Run the transformers over a whole buffer: each transformer is called once for the batch, so the class loader
+     * swap, the parameter parsing and the timing happen once per transformer and flush instead of once per record.
+     * The list is updated in place and keeps the records that passed all transformers, in their original order;
+     * failed records are collected as dirty records.
+     *
+     * @param records the records to transform
+     */
+    public void doTransformer(List<Record> records)
+    {
+        if (transformerExecs == null || transformerExecs.isEmpty() || records.isEmpty()) {
+            return;
+        }
+
+        batch.load(records);
+        long startTs = System.nanoTime();
+        for (TransformerExecution transformerInfoExec : transformerExecs) {
+            Record first = batch.first();
+            if (first == null) {
+                break;
+            }
+
+            if (!transformerInfoExec.isChecked()) {
+                if (transformerInfoExec.getColumnIndex() != null
+                        && transformerInfoExec.getColumnIndex() >= first.getColumnNumber()) {
+                    throw AddaxException.asAddaxException(ILLEGAL_VALUE,
+                            String.format("columnIndex[%s] out of bound[%s]. name=%s",
+                                    transformerInfoExec.getColumnIndex(), first.getColumnNumber(),
+                                    transformerInfoExec.getTransformerName()));
+                }
+                transformerInfoExec.setIsChecked(true);
+            }
+
+            if (transformerInfoExec.getClassLoader() != null) {
+                classLoaderSwapper.setCurrentThreadClassLoader(transformerInfoExec.getClassLoader());
+            }
+            batch.begin(transformerInfoExec.getTransformerName());
+            try {
+                transformerInfoExec
+                        .getTransformer()
+                        .evaluate(batch, transformerInfoExec.getContext(),
+                                transformerInfoExec.getFinalParas());
+            }
+            catch (Exception e) {
+                // the transformer gave up on the whole batch, e.g. because of its parameters
+                batch.failAll(e);
+            }
+            finally {
+                if (transformerInfoExec.getClassLoader() != null) {
+                    classLoaderSwapper.restoreCurrentThreadClassLoader();
+                }
+            }
+        }
+        totalExhaustedTime += System.nanoTime() - startTs;
+
+        records.clear();
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.isFailed(i)) {
+                totalFailedRecords++;
+                this.pluginCollector.collectDirtyRecord(batch.getOriginal(i), batch.getError(i));
+                continue;
+            }
+            totalSuccessRecords++;
+            Record result = batch.get(i);
+            if (result == null) {
+                totalFilterRecords++;
+            }
+            else {
+                records.add(result);
+            }
+        }
+        batch.clear();
+    }
+
     public void doStat()
     {
-        currentCommunication.setLongCounter(CommunicationTool.TRANSFORMER_SUCCEED_RECORDS, totalSuccessRecords);
-        currentCommunication.setLongCounter(CommunicationTool.TRANSFORMER_FAILED_RECORDS, totalFailedRecords);
-        currentCommunication.setLongCounter(CommunicationTool.TRANSFORMER_FILTER_RECORDS, totalFilterRecords);
-        currentCommunication.setLongCounter(CommunicationTool.TRANSFORMER_USED_TIME, totalExhaustedTime);
+        currentCommunication.setLongCounter(Metric.TRANSFORMER_SUCCEED_RECORDS, totalSuccessRecords);
+        currentCommunication.setLongCounter(Metric.TRANSFORMER_FAILED_RECORDS, totalFailedRecords);
+        currentCommunication.setLongCounter(Metric.TRANSFORMER_FILTER_RECORDS, totalFilterRecords);
+        currentCommunication.setLongCounter(Metric.TRANSFORMER_USED_TIME, totalExhaustedTime);
     }
 }
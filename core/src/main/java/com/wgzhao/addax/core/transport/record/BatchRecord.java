@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wgzhao.addax.core.transport.record;
+
+import com.wgzhao.addax.core.element.Column;
+import com.wgzhao.addax.core.element.Record;
+import com.wgzhao.addax.core.element.RecordBatch;
+
+import java.util.Map;
+
+/**
+ * Carries a whole {@link RecordBatch} through the channel as one element.
+ * Like {@link TerminateRecord} it is a transport marker and is never handed to plugins:
+ * the exchanger either returns the batch itself or expands it into rows.
+ */
+public class BatchRecord
+        implements Record
+{
+    private final RecordBatch batch;
+
+    private final int byteSize;
+
+    private final int memorySize;
+
+    public BatchRecord(RecordBatch batch)
+    {
+        this.batch = batch;
+        this.byteSize = batch.getByteSize();
+        this.memorySize = batch.getMemorySize();
+    }
+
+    public RecordBatch getBatch()
+    {
+        return batch;
+    }
+
+    /**
+     * The number of rows carried, used by the channel statistics
+     */
+    public int getRowCount()
+    {
+        return batch.size();
+    }
+
+    @Override
+    public void addColumn(Column column)
+    {
+        throw new UnsupportedOperationException("BatchRecord is read only");
+    }
+
+    @Override
+    public void setColumn(int i, Column column)
+    {
+        throw new UnsupportedOperationException("BatchRecord is read only");
+    }
+
+    @Override
+    public Column getColumn(int i)
+    {
+        return null;
+    }
+
+    @Override
+    public int getColumnNumber()
+    {
+        return batch.getColumnNumber();
+    }
+
+    @Override
+    public int getByteSize()
+    {
+        return byteSize;
+    }
+
+    @Override
+    public int getMemorySize()
+    {
+        return memorySize;
+    }
+
+    @Override
+    public void setMeta(Map<String, String> meta)
+    {
+        //
+    }
+
+    @Override
+    public Map<String, String> getMeta()
+    {
+        return null;
+    }
+}
@@ -42,6 +42,9 @@ public class DefaultRecord
 
     private static final int RECORD_AVERAGE_COLUMN_NUMBER = 16;
 
+    // the record, its column list and the header of the list's backing array
+    private static final int DEFAULT_RECORD_HEAD_WITH_ARRAY = ClassSize.DEFAULT_RECORD_HEAD + ClassSize.ARRAY;
+
     private final List<Column> columns;
 
     private int byteSize;
@@ -51,16 +54,25 @@ public class DefaultRecord
 
     private Map<String, String> meta;
 
+    // the cached result of getHeapSize(), -1 when the columns changed since
+    private int heapSize = -1;
+
     public DefaultRecord()
     {
         this.columns = new ArrayList<>(RECORD_AVERAGE_COLUMN_NUMBER);
     }
 
+    public DefaultRecord(int columnCount)
+    {
+        this.columns = new ArrayList<>(columnCount > 0 ? columnCount : RECORD_AVERAGE_COLUMN_NUMBER);
+    }
+
     @Override
     public void addColumn(Column column)
     {
         columns.add(column);
         incrByteSize(column);
+        heapSize = -1;
     }
 
     @Override
@@ -87,6 +99,7 @@ public class DefaultRecord
         decrByteSize(getColumn(i));
         this.columns.set(i, column);
         incrByteSize(getColumn(i));
+        heapSize = -1;
     }
 
     @Override
@@ -115,6 +128,21 @@ public class DefaultRecord
         return memorySize;
     }
 
+    @Override
+    public int getHeapSize()
+    {
+        if (heapSize < 0) {
+            int size = DEFAULT_RECORD_HEAD_WITH_ARRAY + ClassSize.REFERENCE * columns.size();
+            for (Column column : columns) {
+                if (column != null) {
+                    size += column.getMemorySize();
+                }
+            }
+            heapSize = size;
+        }
+        return heapSize;
+    }
+
     @Override
     public void setMeta(Map<String, String> meta)
     {
@@ -127,6 +155,19 @@ public class DefaultRecord
         return this.meta;
     }
 
+    /**
+     * Drop all columns and the meta so the record can be filled again,
+     * the column list keeps its capacity
+     */
+    public void reset()
+    {
+        this.columns.clear();
+        this.byteSize = 0;
+        this.memorySize = ClassSize.DEFAULT_RECORD_HEAD;
+        this.meta = null;
+        this.heapSize = -1;
+    }
+
     private void decrByteSize(Column column)
     {
         if (null == column) {
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wgzhao.addax.core.transport.record;
+
+import com.wgzhao.addax.core.element.Record;
+import com.wgzhao.addax.core.exception.AddaxException;
+import com.wgzhao.addax.core.util.Configuration;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.Supplier;
+
+import static com.wgzhao.addax.core.spi.ErrorCode.CONFIG_ERROR;
+import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_TRANSPORT_RECORD_CLASS;
+import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_TRANSPORT_RECORD_FACTORY;
+
+/**
+ * Creates the records a reader fills.
+ * <p>
+ * The factory is resolved once per exchanger by {@link #of(Configuration)}:
+ * <ul>
+ *     <li>{@code core.transport.record.factory} names a {@link RecordFactory} implementation with a public no-arg constructor</li>
+ *     <li>otherwise {@code core.transport.record.class} names a {@link Record} implementation with a public no-arg constructor,
+ *     which is called through a generated {@link Supplier} instead of reflection</li>
+ *     <li>otherwise records are {@link DefaultRecord}</li>
+ * </ul>
+ */
+public interface RecordFactory
+{
+    Record create();
+
+    /**
+     * Create a record for a row whose column count is already known, e.g. from the result set metadata,
+     * so the implementation can size its storage up front.
+     *
+     * @param columnCount the number of columns the record will hold
+     * @return an empty record
+     */
+    default Record create(int columnCount)
+    {
+        return create();
+    }
+
+    static RecordFactory of(Configuration configuration)
+    {
+        String factoryClass = configuration.getString(CORE_TRANSPORT_RECORD_FACTORY, null);
+        if (StringUtils.isNotBlank(factoryClass)) {
+            try {
+                Class<?> clazz = Class.forName(factoryClass.trim());
+                return (RecordFactory) clazz.getConstructor().newInstance();
+            }
+            catch (Exception e) {
+                throw AddaxException.asAddaxException(CONFIG_ERROR,
+                        String.format("Failed to create the record factory [%s].", factoryClass), e);
+            }
+        }
+
+        String recordClass = configuration.getString(CORE_TRANSPORT_RECORD_CLASS, null);
+        if (StringUtils.isBlank(recordClass) || DefaultRecord.class.getName().equals(recordClass.trim())) {
+            return DefaultRecordFactory.INSTANCE;
+        }
+        try {
+            return forClass(Class.forName(recordClass.trim()).asSubclass(Record.class));
+        }
+        catch (ClassNotFoundException | ClassCastException e) {
+            throw AddaxException.asAddaxException(CONFIG_ERROR,
+                    String.format("The record class [%s] is not a valid Record implementation.", recordClass), e);
+        }
+    }
+
+    /**
+     * Build a factory calling the public no-arg constructor of {@code recordClass}.
+     * A lambda is spun once with {@link LambdaMetafactory} so each call is a plain constructor invocation;
+     * if the class cannot be linked that way the constructor handle is invoked directly.
+     *
+     * @param recordClass the record implementation
+     * @return the factory
+     */
+    @SuppressWarnings("unchecked")
+    static RecordFactory forClass(Class<? extends Record> recordClass)
+    {
+        if (recordClass == DefaultRecord.class) {
+            return DefaultRecordFactory.INSTANCE;
+        }
+        MethodHandle constructor;
+        try {
+            constructor = MethodHandles.publicLookup().findConstructor(recordClass, MethodType.methodType(void.class));
+        }
+        catch (NoSuchMethodException | IllegalAccessException e) {
+            throw AddaxException.asAddaxException(CONFIG_ERROR,
+                    String.format("The record class [%s] has no public no-arg constructor.", recordClass.getName()), e);
+        }
+
+        try {
+            CallSite site = LambdaMetafactory.metafactory(MethodHandles.lookup(), "get",
+                    MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class),
+                    constructor,
+                    MethodType.methodType(recordClass));
+            Supplier<Record> supplier = (Supplier<Record>) site.getTarget().invoke();
+            return supplier::get;
+        }
+        catch (Throwable t) {
+            MethodHandle handle = constructor.asType(MethodType.methodType(Record.class));
+            return () -> {
+                try {
+                    return (Record) handle.invokeExact();
+                }
+                catch (Throwable e) {
+                    throw AddaxException.asAddaxException(CONFIG_ERROR, e);
+                }
+            };
+        }
+    }
+
+    final class DefaultRecordFactory
+            implements RecordFactory
+    {
+        static final DefaultRecordFactory INSTANCE = new DefaultRecordFactory();
+
+        private DefaultRecordFactory()
+        {
+        }
+
+        @Override
+        public Record create()
+        {
+            return new DefaultRecord();
+        }
+
+        @Override
+        public Record create(int columnCount)
+        {
+            return new DefaultRecord(columnCount);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wgzhao.addax.core.transport.record;
+
+import com.wgzhao.addax.core.element.Record;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A per-task pool of cleared {@link DefaultRecord}s.
+ * <p>
+ * The writer thread is the only one that recycles records and the reader thread is the only one that takes them,
+ * so the pool is a single-producer/single-consumer ring without locks.
+ * Both operations never block: a full pool drops the record for the GC and an empty pool makes the caller allocate.
+ */
+public class RecordPool
+{
+    private final DefaultRecord[] ring;
+
+    private final int mask;
+
+    // next slot to take, written by the reader thread only
+    private final AtomicLong head = new AtomicLong(0);
+
+    // next slot to fill, written by the writer thread only
+    private final AtomicLong tail = new AtomicLong(0);
+
+    public RecordPool(int capacity)
+    {
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.ring = new DefaultRecord[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Take a cleared record from the pool.
+     *
+     * @return a reusable record, or null if the pool is empty
+     */
+    public DefaultRecord poll()
+    {
+        long h = head.get();
+        if (h >= tail.get()) {
+            return null;
+        }
+        int idx = (int) h & mask;
+        DefaultRecord record = ring[idx];
+        ring[idx] = null;
+        head.lazySet(h + 1);
+        return record;
+    }
+
+    /**
+     * Clear a record the writer has finished with and put it back.
+     * Records that are not {@link DefaultRecord} are ignored.
+     *
+     * @param record the record to recycle
+     */
+    public void recycle(Record record)
+    {
+        if (!(record instanceof DefaultRecord defaultRecord)) {
+            return;
+        }
+        long t = tail.get();
+        if (t - head.get() >= ring.length) {
+            return;
+        }
+        defaultRecord.reset();
+        ring[(int) t & mask] = defaultRecord;
+        tail.lazySet(t + 1);
+    }
+
+    public int size()
+    {
+        return (int) (tail.get() - head.get());
+    }
+}
@@ -44,4 +44,28 @@ public abstract class ComplexTransformer
      * @return record
      */
     public abstract Record evaluate(Record record, Map<String, Object> tContext, Object... paras);
+
+    /**
+     * Transform all records of a batch. The default implementation calls {@link #evaluate(Record, Map, Object...)}
+     * for each record.
+     *
+     * @param batch the records to be transformed, updated in place
+     * @param tContext the transformer function context
+     * @param paras transformer parameters
+     */
+    public void evaluate(TransformerBatch batch, Map<String, Object> tContext, Object... paras)
+    {
+        for (int i = 0; i < batch.size(); i++) {
+            Record record = batch.get(i);
+            if (record == null) {
+                continue;
+            }
+            try {
+                batch.set(i, evaluate(record, tContext, paras));
+            }
+            catch (Exception e) {
+                batch.fail(i, e);
+            }
+        }
+    }
 }
@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wgzhao.addax.core.transport.transformer;
+
+import com.wgzhao.addax.core.element.BoolColumn;
+import com.wgzhao.addax.core.element.BytesColumn;
+import com.wgzhao.addax.core.element.Column;
+import com.wgzhao.addax.core.element.DateColumn;
+import com.wgzhao.addax.core.element.DoubleColumn;
+import com.wgzhao.addax.core.element.LongColumn;
+import com.wgzhao.addax.core.element.Record;
+import com.wgzhao.addax.core.element.StringColumn;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled {@code dx_filter} expression.
+ * <p>
+ * The parameters are {@code [columnIndex, code, value]}, optionally followed by any number of
+ * {@code [and|or, columnIndex, code, value]} groups. {@code and} binds tighter than {@code or}, so
+ * {@code a and b or c} reads {@code (a and b) or c}. A record is filtered out when the expression holds.
+ * <p>
+ * Operators, numeric constants and regular expressions are resolved once here, so testing a record
+ * only reads its columns.
+ */
+final class FilterExpression
+{
+    // the expression in disjunctive normal form: OR of AND groups
+    private final Condition[][] groups;
+
+    private FilterExpression(Condition[][] groups)
+    {
+        this.groups = groups;
+    }
+
+    /**
+     * Compile the transformer parameters
+     *
+     * @param paras [columnIndex, code, value] followed by optional [and|or, columnIndex, code, value] groups
+     * @return the expression
+     * @throws RuntimeException if the parameters are malformed
+     */
+    static FilterExpression compile(Object... paras)
+    {
+        if (paras == null || paras.length < 3 || (paras.length - 3) % 4 != 0) {
+            throw new RuntimeException("The dx_filter parameters must be 3, optionally followed by groups of "
+                    + "[and|or, columnIndex, code, value]");
+        }
+
+        List<Condition[]> groups = new ArrayList<>();
+        List<Condition> current = new ArrayList<>();
+        current.add(new Condition((Integer) paras[0], paras[1].toString(), (String) paras[2]));
+        for (int i = 3; i < paras.length; i += 4) {
+            String connective = paras[i].toString().trim();
+            if ("or".equalsIgnoreCase(connective)) {
+                groups.add(current.toArray(new Condition[0]));
+                current = new ArrayList<>();
+            }
+            else if (!"and".equalsIgnoreCase(connective)) {
+                throw new RuntimeException("dx_filter connective:" + connective + " is unsupported, use and/or");
+            }
+            int columnIndex = Integer.parseInt(paras[i + 1].toString().trim());
+            current.add(new Condition(columnIndex, paras[i + 2].toString(), (String) paras[i + 3]));
+        }
+        groups.add(current.toArray(new Condition[0]));
+        return new FilterExpression(groups.toArray(new Condition[0][]));
+    }
+
+    /**
+     * @param record the record to test
+     * @return true if the record must be filtered out
+     */
+    boolean matches(Record record)
+    {
+        for (Condition[] group : groups) {
+            boolean all = true;
+            for (Condition condition : group) {
+                if (!condition.matches(record)) {
+                    all = false;
+                    break;
+                }
+            }
+            if (all) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private enum Operator
+    {
+        LIKE("like"), NOT_LIKE("not like"), GT(">"), GE(">="), LT("<"), LE("<="), EQ("="), NE("!=");
+
+        private final String code;
+
+        Operator(String code)
+        {
+            this.code = code;
+        }
+
+        static Operator of(String code)
+        {
+            String normalized = code.trim().toLowerCase().replaceAll("\\s+", " ");
+            if ("==".equals(normalized)) {
+                return EQ;
+            }
+            for (Operator operator : values()) {
+                if (operator.code.equals(normalized)) {
+                    return operator;
+                }
+            }
+            throw new RuntimeException("dx_filter code:" + code + " is unsupported");
+        }
+    }
+
+    private static final class Condition
+    {
+        private final int columnIndex;
+
+        private final Operator operator;
+
+        private final String value;
+
+        // the constant as a number, null if it does not parse
+        private final Double doubleValue;
+
+        private final Long longValue;
+
+        private final Pattern pattern;
+
+        private final boolean nullValue;
+
+        Condition(int columnIndex, String code, String value)
+        {
+            if (StringUtils.isEmpty(value)) {
+                throw new RuntimeException("The value of dx_filter cannot be null");
+            }
+            this.columnIndex = columnIndex;
+            this.operator = Operator.of(code);
+            this.value = value;
+            this.doubleValue = parseDouble(value);
+            this.longValue = parseLong(value);
+            this.pattern = operator == Operator.LIKE || operator == Operator.NOT_LIKE ? Pattern.compile(value) : null;
+            this.nullValue = "null".equalsIgnoreCase(value);
+        }
+
+        boolean matches(Record record)
+        {
+            Column column = record.getColumn(columnIndex);
+            if (column == null) {
+                throw new RuntimeException(String.format("columnIndex[%s] out of bound[%s]",
+                        columnIndex, record.getColumnNumber()));
+            }
+
+            if (operator == Operator.LIKE || operator == Operator.NOT_LIKE) {
+                String ori = column.asString();
+                boolean found = ori != null && pattern.matcher(ori).matches();
+                return operator == Operator.LIKE ? found : !found;
+            }
+
+            if (column.getRawData() == null) {
+                // null equals only the literal "null" and is never greater or less than anything
+                if (operator == Operator.EQ) {
+                    return nullValue;
+                }
+                if (operator == Operator.NE) {
+                    return !nullValue;
+                }
+                return false;
+            }
+
+            if (column instanceof DoubleColumn) {
+                return testDouble(column.asDouble());
+            }
+            else if (column instanceof LongColumn || column instanceof DateColumn) {
+                return testLong(column.asLong());
+            }
+            else if (column instanceof StringColumn
+                    || column instanceof BytesColumn
+                    || column instanceof BoolColumn) {
+                return testCompare(column.asString().compareTo(value));
+            }
+            else {
+                throw new RuntimeException(operator.code + " can't support this columnType:" + column.getClass().getSimpleName());
+            }
+        }
+
+        private boolean testDouble(double ori)
+        {
+            // a constant that does not parse fails the same way per record as it always did
+            double val = doubleValue != null ? doubleValue : Double.parseDouble(value);
+            return switch (operator) {
+                case GT -> ori > val;
+                case GE -> ori >= val;
+                case LT -> ori < val;
+                case LE -> ori <= val;
+                case EQ -> Double.compare(ori, val) == 0;
+                case NE -> Double.compare(ori, val) != 0;
+                default -> throw new IllegalStateException(operator.code);
+            };
+        }
+
+        private boolean testLong(long ori)
+        {
+            long val = longValue != null ? longValue : Long.parseLong(value);
+            return switch (operator) {
+                case GT -> ori > val;
+                case GE -> ori >= val;
+                case LT -> ori < val;
+                case LE -> ori <= val;
+                case EQ -> ori == val;
+                case NE -> ori != val;
+                default -> throw new IllegalStateException(operator.code);
+            };
+        }
+
+        private boolean testCompare(int cmp)
+        {
+            return switch (operator) {
+                case GT -> cmp > 0;
+                case GE -> cmp >= 0;
+                case LT -> cmp < 0;
+                case LE -> cmp <= 0;
+                case EQ -> cmp == 0;
+                case NE -> cmp != 0;
+                default -> throw new IllegalStateException(operator.code);
+            };
+        }
+
+        private static Double parseDouble(String value)
+        {
+            try {
+                return Double.parseDouble(value);
+            }
+            catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static Long parseLong(String value)
+        {
+            try {
+                return Long.parseLong(value);
+            }
+            catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
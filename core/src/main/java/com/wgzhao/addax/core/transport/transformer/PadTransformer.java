@@ -19,7 +19,6 @@
 
 package com.wgzhao.addax.core.transport.transformer;
 
-import com.wgzhao.addax.core.element.Column;
 import com.wgzhao.addax.core.element.Record;
 import com.wgzhao.addax.core.element.StringColumn;
 import com.wgzhao.addax.core.exception.AddaxException;
@@ -44,55 +43,75 @@ public class PadTransformer
     @Override
     public Record evaluate(Record record, Object... paras)
     {
+        Paras args = parseParas(paras);
+        try {
+            return pad(record, args);
+        }
+        catch (Exception e) {
+            throw AddaxException.asAddaxException(
+                    RUNTIME_ERROR, e.getMessage(), e);
+        }
+    }
 
-        int columnIndex;
-        String padType;
-        int length;
-        String padString;
+    @Override
+    public void evaluate(TransformerBatch batch, Object... paras)
+    {
+        Paras args = parseParas(paras);
+        for (int i = 0; i < batch.size(); i++) {
+            Record record = batch.get(i);
+            if (record == null) {
+                continue;
+            }
+            try {
+                pad(record, args);
+            }
+            catch (Exception e) {
+                batch.fail(i, e);
+            }
+        }
+    }
 
+    private static Paras parseParas(Object... paras)
+    {
         try {
             if (paras.length != 4) {
                 throw new RuntimeException("The dx_pad parameters must be 4");
             }
 
-            columnIndex = (Integer) paras[0];
-            padType = (String) paras[1];
-            length = Integer.parseInt((String) paras[2]);
-            padString = (String) paras[3];
+            int columnIndex = (Integer) paras[0];
+            String padType = (String) paras[1];
+            int length = Integer.parseInt((String) paras[2]);
+            String padString = (String) paras[3];
+            return new Paras(columnIndex, padType, length, padString);
         }
         catch (Exception e) {
             throw AddaxException.asAddaxException(
                     ILLEGAL_VALUE,
                     "paras:" + Arrays.asList(paras) + " => " + e.getMessage());
         }
+    }
 
-        Column column = record.getColumn(columnIndex);
-
-        try {
-            String oriValue = column.asString();
-
-            if (oriValue == null) {
-                oriValue = "";
-            }
-            String newValue;
-            if (!"r".equalsIgnoreCase(padType) && !"l".equalsIgnoreCase(padType)) {
-                throw new RuntimeException(String.format("The first parameter of dx_pad must be either l or r, " +
-                        "The current parameter is %s", padType));
-            }
-            if (length <= oriValue.length()) {
-                newValue = oriValue.substring(0, length);
-            }
-            else {
-
-                newValue = doPad(padType, oriValue, length, padString);
-            }
+    private Record pad(Record record, Paras args)
+    {
+        String oriValue = record.getColumn(args.columnIndex()).asString();
 
-            record.setColumn(columnIndex, new StringColumn(newValue));
+        if (oriValue == null) {
+            oriValue = "";
         }
-        catch (Exception e) {
-            throw AddaxException.asAddaxException(
-                    RUNTIME_ERROR, e.getMessage(), e);
+        String newValue;
+        if (!"r".equalsIgnoreCase(args.padType()) && !"l".equalsIgnoreCase(args.padType())) {
+            throw new RuntimeException(String.format("The first parameter of dx_pad must be either l or r, " +
+                    "The current parameter is %s", args.padType()));
+        }
+        if (args.length() <= oriValue.length()) {
+            newValue = oriValue.substring(0, args.length());
+        }
+        else {
+
+            newValue = doPad(args.padType(), oriValue, args.length(), args.padString());
         }
+
+        record.setColumn(args.columnIndex(), new StringColumn(newValue));
         return record;
     }
 
@@ -120,4 +139,8 @@ public class PadTransformer
             return oriValue + finalPad;
         }
     }
+
+    private record Paras(int columnIndex, String padType, int length, String padString)
+    {
+    }
 }
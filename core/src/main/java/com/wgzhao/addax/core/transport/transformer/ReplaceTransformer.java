@@ -19,7 +19,6 @@
 
 package com.wgzhao.addax.core.transport.transformer;
 
-import com.wgzhao.addax.core.element.Column;
 import com.wgzhao.addax.core.element.Record;
 import com.wgzhao.addax.core.element.StringColumn;
 import com.wgzhao.addax.core.exception.AddaxException;
@@ -44,54 +43,80 @@ public class ReplaceTransformer
     @Override
     public Record evaluate(Record record, Object... paras)
     {
+        Paras args = parseParas(paras);
+        try {
+            return replace(record, args);
+        }
+        catch (Exception e) {
+            throw AddaxException.asAddaxException(
+                    RUNTIME_ERROR, e.getMessage(), e);
+        }
+    }
 
-        int columnIndex;
-        int startIndex;
-        int length;
-        String replaceString;
+    @Override
+    public void evaluate(TransformerBatch batch, Object... paras)
+    {
+        Paras args = parseParas(paras);
+        for (int i = 0; i < batch.size(); i++) {
+            Record record = batch.get(i);
+            if (record == null) {
+                continue;
+            }
+            try {
+                replace(record, args);
+            }
+            catch (Exception e) {
+                batch.fail(i, e);
+            }
+        }
+    }
+
+    private static Paras parseParas(Object... paras)
+    {
         try {
             if (paras.length != 4) {
                 throw new RuntimeException("The dx_replace parameters must be 4");
             }
 
-            columnIndex = (Integer) paras[0];
-            startIndex = Integer.parseInt((String) paras[1]);
-            length = Integer.parseInt((String) paras[2]);
-            replaceString = (String) paras[3];
+            int columnIndex = (Integer) paras[0];
+            int startIndex = Integer.parseInt((String) paras[1]);
+            int length = Integer.parseInt((String) paras[2]);
+            String replaceString = (String) paras[3];
+            return new Paras(columnIndex, startIndex, length, replaceString);
         }
         catch (Exception e) {
             throw AddaxException.asAddaxException(ILLEGAL_VALUE,
                     "paras:" + Arrays.asList(paras) + " => " + e.getMessage());
         }
+    }
 
-        Column column = record.getColumn(columnIndex);
-
-        try {
-            String oriValue = column.asString();
-
-            //如果字段为空，跳过replace处理
-            if (oriValue == null) {
-                return record;
-            }
-            String newValue;
-            if (startIndex > oriValue.length()) {
-                throw new RuntimeException(String.format("The dx_replace startIndex(%s) out of range(%s)",
-                        startIndex, oriValue.length()));
-            }
-            if (startIndex + length >= oriValue.length()) {
-                newValue = oriValue.substring(0, startIndex) + replaceString;
-            }
-            else {
-                newValue = oriValue.substring(0, startIndex) + replaceString
-                        + oriValue.substring(startIndex + length);
-            }
+    private static Record replace(Record record, Paras args)
+    {
+        int startIndex = args.startIndex();
+        String oriValue = record.getColumn(args.columnIndex()).asString();
 
-            record.setColumn(columnIndex, new StringColumn(newValue));
+        //如果字段为空，跳过replace处理
+        if (oriValue == null) {
+            return record;
         }
-        catch (Exception e) {
-            throw AddaxException.asAddaxException(
-                    RUNTIME_ERROR, e.getMessage(), e);
+        String newValue;
+        if (startIndex > oriValue.length()) {
+            throw new RuntimeException(String.format("The dx_replace startIndex(%s) out of range(%s)",
+                    startIndex, oriValue.length()));
+        }
+        if (startIndex + args.length() >= oriValue.length()) {
+            newValue = oriValue.substring(0, startIndex) + args.replaceString();
+        }
+        else {
+            newValue = oriValue.substring(0, startIndex) + args.replaceString()
+                    + oriValue.substring(startIndex + args.length());
         }
+
+        record.setColumn(args.columnIndex(), new StringColumn(newValue));
         return record;
     }
+
+    private record Paras(int columnIndex, int startIndex, int length, String replaceString)
+    {
+    }
 }
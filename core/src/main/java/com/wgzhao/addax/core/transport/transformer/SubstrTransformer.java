@@ -19,7 +19,6 @@
 
 package com.wgzhao.addax.core.transport.transformer;
 
-import com.wgzhao.addax.core.element.Column;
 import com.wgzhao.addax.core.element.Record;
 import com.wgzhao.addax.core.element.StringColumn;
 import com.wgzhao.addax.core.exception.AddaxException;
@@ -50,53 +49,86 @@ public class SubstrTransformer
     @Override
     public Record evaluate(Record record, Object... paras)
     {
+        Paras args = parseParas(paras);
+        try {
+            return substr(record, args);
+        }
+        catch (Exception e) {
+            throw AddaxException.asAddaxException(
+                    RUNTIME_ERROR, e.getMessage(), e);
+        }
+    }
 
-        int columnIndex;
-        int startIndex;
-        int length;
+    /**
+     * Parse the parameters once and apply them to every record of the batch.
+     *
+     * @param batch the records to transform
+     * @param paras parameters: [columnIndex:int, startIndex:String, length:String]
+     */
+    @Override
+    public void evaluate(TransformerBatch batch, Object... paras)
+    {
+        Paras args = parseParas(paras);
+        for (int i = 0; i < batch.size(); i++) {
+            Record record = batch.get(i);
+            if (record == null) {
+                continue;
+            }
+            try {
+                substr(record, args);
+            }
+            catch (Exception e) {
+                batch.fail(i, e);
+            }
+        }
+    }
 
+    private static Paras parseParas(Object... paras)
+    {
         try {
             if (paras.length != 3) {
                 throw new RuntimeException("The dx_substr parameters must be 3");
             }
 
-            columnIndex = (Integer) paras[0];
-            startIndex = Integer.parseInt((String) paras[1]);
-            length = Integer.parseInt((String) paras[2]);
+            int columnIndex = (Integer) paras[0];
+            int startIndex = Integer.parseInt((String) paras[1]);
+            int length = Integer.parseInt((String) paras[2]);
+            return new Paras(columnIndex, startIndex, length);
         }
         catch (Exception e) {
             throw AddaxException.asAddaxException(ILLEGAL_VALUE,
                     "paras:" + Arrays.asList(paras) + " => " + e.getMessage());
         }
+    }
 
-        Column column = record.getColumn(columnIndex);
-
-        try {
-            String oriValue = column.asString();
-            // If the field is null, skip substring processing
-            if (oriValue == null) {
-                return record;
-            }
-
-            if (startIndex > oriValue.length()) {
-                throw new RuntimeException(String.format("The dx_substr startIndex(%s) out of range" +
-                        "(%s) of (%s)", startIndex, oriValue.length(), oriValue));
-            }
+    private static Record substr(Record record, Paras args)
+    {
+        int startIndex = args.startIndex();
+        int length = args.length();
+        String oriValue = record.getColumn(args.columnIndex()).asString();
+        // If the field is null, skip substring processing
+        if (oriValue == null) {
+            return record;
+        }
 
-            String newValue;
-            if (startIndex + length >= oriValue.length()) {
-                newValue = oriValue.substring(startIndex);
-            }
-            else {
-                newValue = oriValue.substring(startIndex, startIndex + length);
-            }
+        if (startIndex > oriValue.length()) {
+            throw new RuntimeException(String.format("The dx_substr startIndex(%s) out of range" +
+                    "(%s) of (%s)", startIndex, oriValue.length(), oriValue));
+        }
 
-            record.setColumn(columnIndex, new StringColumn(newValue));
+        String newValue;
+        if (startIndex + length >= oriValue.length()) {
+            newValue = oriValue.substring(startIndex);
         }
-        catch (Exception e) {
-            throw AddaxException.asAddaxException(
-                    RUNTIME_ERROR, e.getMessage(), e);
+        else {
+            newValue = oriValue.substring(startIndex, startIndex + length);
         }
+
+        record.setColumn(args.columnIndex(), new StringColumn(newValue));
         return record;
     }
+
+    private record Paras(int columnIndex, int startIndex, int length)
+    {
+    }
 }
@@ -40,4 +40,27 @@ public abstract class Transformer
      * @return record
      */
     public abstract Record evaluate(Record record, Object... paras);
+
+    /**
+     * Transform all records of a batch. The default implementation calls {@link #evaluate(Record, Object...)}
+     * for each record; transformers that can parse their parameters once or work column-wise should override it.
+     *
+     * @param batch the records to be transformed, updated in place
+     * @param paras transformer parameters
+     */
+    public void evaluate(TransformerBatch batch, Object... paras)
+    {
+        for (int i = 0; i < batch.size(); i++) {
+            Record record = batch.get(i);
+            if (record == null) {
+                continue;
+            }
+            try {
+                batch.set(i, evaluate(record, paras));
+            }
+            catch (Exception e) {
+                batch.fail(i, e);
+            }
+        }
+    }
 }
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wgzhao.addax.core.transport.transformer;
+
+import com.wgzhao.addax.core.element.Record;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The records of one exchanger flush, handed to every transformer of the task at once.
+ * <p>
+ * Each slot holds the current result of one input record. A transformer replaces the slots it changes with
+ * {@link #set(int, Record)}, clears the ones it filters out with {@code set(i, null)} and reports the ones it cannot
+ * handle with {@link #fail(int, Exception)}; the other records of the batch carry on.
+ * Empty slots are skipped by the following transformers.
+ */
+public class TransformerBatch
+{
+    private Record[] records = new Record[0];
+
+    // the records as the reader sent them, reported as dirty when they fail
+    private Record[] originals = new Record[0];
+
+    // the failure of each slot, null while it succeeds
+    private String[] errors = new String[0];
+
+    private int size;
+
+    private String transformerName;
+
+    /**
+     * Fill the batch with the given records, dropping what the previous batch held
+     *
+     * @param input the records to transform
+     */
+    public void load(List<Record> input)
+    {
+        int n = input.size();
+        if (records.length < n) {
+            records = new Record[n];
+            originals = new Record[n];
+            errors = new String[n];
+        }
+        else if (n < size) {
+            Arrays.fill(records, n, size, null);
+            Arrays.fill(originals, n, size, null);
+        }
+        for (int i = 0; i < n; i++) {
+            Record record = input.get(i);
+            records[i] = record;
+            originals[i] = record;
+            errors[i] = null;
+        }
+        size = n;
+    }
+
+    /**
+     * Release the records of the last batch
+     */
+    public void clear()
+    {
+        Arrays.fill(records, 0, size, null);
+        Arrays.fill(originals, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Name the transformer about to run, failures are reported against it
+     *
+     * @param transformerName the transformer name
+     */
+    public void begin(String transformerName)
+    {
+        this.transformerName = transformerName;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @param i the slot index
+     * @return the record in the slot, or null if it was filtered out or failed
+     */
+    public Record get(int i)
+    {
+        return records[i];
+    }
+
+    /**
+     * @param i the slot index
+     * @param record the transformed record, null to filter the record out
+     */
+    public void set(int i, Record record)
+    {
+        records[i] = record;
+    }
+
+    /**
+     * Mark the record in the slot as failed, it becomes a dirty record and leaves the batch
+     *
+     * @param i the slot index
+     * @param e the cause
+     */
+    public void fail(int i, Exception e)
+    {
+        records[i] = null;
+        errors[i] = String.format("The transformer(%s) has encountered an exception(%s)",
+                transformerName, e.getMessage());
+    }
+
+    /**
+     * Mark every record still in the batch as failed
+     *
+     * @param e the cause
+     */
+    public void failAll(Exception e)
+    {
+        for (int i = 0; i < size; i++) {
+            if (records[i] != null) {
+                fail(i, e);
+            }
+        }
+    }
+
+    /**
+     * @return the first record still in the batch, or null if none is left
+     */
+    public Record first()
+    {
+        for (int i = 0; i < size; i++) {
+            if (records[i] != null) {
+                return records[i];
+            }
+        }
+        return null;
+    }
+
+    public boolean isFailed(int i)
+    {
+        return errors[i] != null;
+    }
+
+    public String getError(int i)
+    {
+        return errors[i];
+    }
+
+    public Record getOriginal(int i)
+    {
+        return originals[i];
+    }
+}
@@ -19,6 +19,9 @@
 
 package com.wgzhao.addax.core.util;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
 /**
  * Utility constants for estimating object sizes in memory.
  */
@@ -33,6 +36,19 @@ public class ClassSize
     public static final int ARRAY;
     public static final int ARRAYLIST;
 
+    // the unaligned fields of a Column: header, type and rawData references, byteSize
+    public static final int COLUMN_FIELDS;
+    // a String object without its value array: header, value reference, hash, coder, hashIsZero
+    public static final int STRING;
+    // a boxed Long or Double
+    public static final int BOXED_LONG;
+    // a java.sql.Timestamp: header, fastTime, cdate reference, nanos
+    public static final int TIMESTAMP;
+    // a BigInteger object without its magnitude array
+    public static final int BIG_INTEGER;
+    // a BigDecimal object without its unscaled BigInteger and cached string
+    public static final int BIG_DECIMAL;
+
     private ClassSize() {}
 
     public static int align(int num)
@@ -47,6 +63,84 @@ public class ClassSize
         return ((num + 7) >> 3) << 3;
     }
 
+    /**
+     * The heap occupied by a column value, shared instances such as Boolean count as 0
+     */
+    public static int sizeOf(Object value)
+    {
+        if (value == null || value instanceof Boolean) {
+            return 0;
+        }
+        if (value instanceof String s) {
+            return sizeOf(s);
+        }
+        if (value instanceof byte[] bytes) {
+            return sizeOfByteArray(bytes.length);
+        }
+        if (value instanceof BigInteger b) {
+            return sizeOf(b);
+        }
+        if (value instanceof BigDecimal d) {
+            return sizeOf(d);
+        }
+        if (value instanceof java.sql.Timestamp) {
+            return TIMESTAMP;
+        }
+        // Long, Double, Integer and java.util.Date all hold a single 8-byte field at most
+        return BOXED_LONG;
+    }
+
+    /**
+     * The heap occupied by a byte array of the given length
+     */
+    public static int sizeOfByteArray(int length)
+    {
+        return align(ARRAY + length);
+    }
+
+    /**
+     * The heap occupied by a String. With compact strings a Latin-1 string keeps one byte per char,
+     * any other string keeps two, so the chars are scanned until the first one outside Latin-1.
+     */
+    public static int sizeOf(String s)
+    {
+        if (s == null) {
+            return 0;
+        }
+        int length = s.length();
+        int coder = 1;
+        for (int i = 0; i < length; i++) {
+            if (s.charAt(i) > 0xFF) {
+                coder = 2;
+                break;
+            }
+        }
+        return STRING + sizeOfByteArray(length * coder);
+    }
+
+    /**
+     * The heap occupied by a BigInteger and its magnitude array of 32-bit words
+     */
+    public static int sizeOf(BigInteger b)
+    {
+        if (b == null) {
+            return 0;
+        }
+        int words = (b.bitLength() + 31) >>> 5;
+        return BIG_INTEGER + align(ARRAY + 4 * words);
+    }
+
+    /**
+     * The heap occupied by a BigDecimal, its unscaled value is only inflated beyond 18 digits
+     */
+    public static int sizeOf(BigDecimal d)
+    {
+        if (d == null) {
+            return 0;
+        }
+        return d.precision() > 18 ? BIG_DECIMAL + sizeOf(d.unscaledValue()) : BIG_DECIMAL;
+    }
+
     static {
         // 64-bit only
         REFERENCE = 8;
@@ -62,5 +156,17 @@ public class ClassSize
         DEFAULT_RECORD_HEAD = align(align(REFERENCE) + ClassSize.ARRAYLIST + 2 * Integer.SIZE / Byte.SIZE);
         //16+4
         COLUMN_HEAD = align(2 * REFERENCE + Integer.SIZE / Byte.SIZE);
+
+        // 16+8+8+4
+        COLUMN_FIELDS = OBJECT + 2 * REFERENCE + Integer.SIZE / Byte.SIZE;
+        // 16+8+4+1+1
+        STRING = align(OBJECT + REFERENCE + Integer.SIZE / Byte.SIZE + 2);
+        BOXED_LONG = align(OBJECT + Long.SIZE / Byte.SIZE);
+        // 16+8+8+4
+        TIMESTAMP = align(OBJECT + Long.SIZE / Byte.SIZE + REFERENCE + Integer.SIZE / Byte.SIZE);
+        // 16+4+8+4*4
+        BIG_INTEGER = align(OBJECT + Integer.SIZE / Byte.SIZE + REFERENCE + 4 * Integer.SIZE / Byte.SIZE);
+        // 16+8+4+4+8+8
+        BIG_DECIMAL = align(OBJECT + 2 * REFERENCE + 2 * Integer.SIZE / Byte.SIZE + Long.SIZE / Byte.SIZE);
     }
 }
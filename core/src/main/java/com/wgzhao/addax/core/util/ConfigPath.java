@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wgzhao.addax.core.util;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Strings;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A JSON path of a {@link Configuration}, such as {@code job.content[0].reader.parameter.column}, split and validated once.
+ * <p>
+ * {@link #of(String)} keeps the compiled paths, so the configuration getters no longer split the same path on every call.
+ * Code reading the same key in a loop can also hold the compiled path in a constant and use {@link Configuration#get(ConfigPath)}.
+ */
+public final class ConfigPath
+{
+    // the paths used by a job are a few hundred at most, the bound only protects against generated ones
+    private static final int MAX_CACHED_PATHS = 4096;
+
+    private static final Map<String, ConfigPath> CACHE = new ConcurrentHashMap<>();
+
+    // the index of a segment addressing a map key
+    static final int MAP_KEY = -1;
+
+    // the index of a list segment whose subscript is not a number
+    static final int ILLEGAL_INDEX = -2;
+
+    private final String path;
+
+    // e.g. "content", "[0]", "reader"
+    private final List<String> segments;
+
+    // the list subscript of each segment, MAP_KEY for map keys
+    private final int[] indexes;
+
+    private ConfigPath(String path)
+    {
+        this.path = path;
+        this.segments = Arrays.asList(StringUtils.split(Strings.CS.replace(path, "[", ".["), "."));
+        this.indexes = new int[segments.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            String each = segments.get(i);
+            if (!isList(each)) {
+                indexes[i] = MAP_KEY;
+                continue;
+            }
+            String index = each.replace("[", "").replace("]", "");
+            try {
+                indexes[i] = StringUtils.isNumeric(index) ? Integer.parseInt(index) : ILLEGAL_INDEX;
+            }
+            catch (NumberFormatException e) {
+                indexes[i] = ILLEGAL_INDEX;
+            }
+        }
+    }
+
+    /**
+     * Compile a path, or take it from the cache
+     *
+     * @param path the JSON path, an empty string addresses the root
+     * @return the compiled path
+     * @throws IllegalArgumentException if the path is null or contains a blank key
+     */
+    public static ConfigPath of(String path)
+    {
+        if (null == path) {
+            throw new IllegalArgumentException("System internal error.");
+        }
+        ConfigPath compiled = CACHE.get(path);
+        if (compiled != null) {
+            return compiled;
+        }
+
+        for (String each : StringUtils.split(path, ".")) {
+            if (StringUtils.isBlank(each)) {
+                throw new IllegalArgumentException("The item '" + path + "' is invalid, Blank characters should not  appear here.");
+            }
+        }
+        compiled = new ConfigPath(path);
+        if (CACHE.size() >= MAX_CACHED_PATHS) {
+            CACHE.clear();
+        }
+        CACHE.put(path, compiled);
+        return compiled;
+    }
+
+    public String getPath()
+    {
+        return path;
+    }
+
+    boolean isRoot()
+    {
+        return StringUtils.isBlank(path);
+    }
+
+    List<String> getSegments()
+    {
+        return segments;
+    }
+
+    int getIndex(int segment)
+    {
+        return indexes[segment];
+    }
+
+    static boolean isList(String segment)
+    {
+        return segment.contains("[") && segment.contains("]");
+    }
+
+    @Override
+    public String toString()
+    {
+        return path;
+    }
+}
@@ -18,13 +18,14 @@
 package com.wgzhao.addax.core.util;
 
 import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
 import com.alibaba.fastjson2.JSONWriter;
 import com.wgzhao.addax.core.exception.AddaxException;
 import com.wgzhao.addax.core.spi.ErrorCode;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.CharUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.Strings;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
 import java.io.File;
@@ -34,9 +35,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -64,11 +67,26 @@ import static com.wgzhao.addax.core.spi.ErrorCode.REQUIRED_VALUE;
  * represent the key is difficult to handle such problems. <br>
  * 2. Return the tree structure, for example, a.b.c.d = "foo", if you return all elements under "a", it is actually a Map that needs to be merged and processed <br>
  * 3. Output JSON, convert the above objects to JSON, convert the multi-level key of the above Map to a tree structure, and output it as JSON <br>
+ * <p>
+ * {@link #clone()}, {@link #getConfiguration(String)} and {@link #getListConfiguration(String)} share the tree instead of
+ * copying it. Once a tree is shared, neither side modifies a node in place before copying it: {@link #set(String, Object)}
+ * copies the Maps and Lists on the way to the key, and {@link #get(String)} hands out a Map or List only after copying its
+ * subtree, so a clone costs nothing and a modification costs the depth of its key. A configuration that has never been
+ * shared modifies its tree in place as before.
  */
 public class Configuration
 {
 
-    private Object root;
+    private volatile Object root;
+
+    // true while no other configuration references any part of the tree, it can then be modified in place anywhere
+    private volatile boolean exclusive = true;
+
+    // the Maps and Lists copied since the tree was last shared, this configuration may modify them in place
+    private Set<Object> owned;
+
+    // the owned containers whose whole subtree is owned as well, they can be handed out by get()
+    private Set<Object> deepOwned;
 
     private Configuration(String json)
     {
@@ -80,6 +98,12 @@ public class Configuration
         }
     }
 
+    private Configuration(Object root, boolean exclusive)
+    {
+        this.root = root;
+        this.exclusive = exclusive;
+    }
+
     public static Configuration newDefault()
     {
         return Configuration.from("{}");
@@ -203,13 +227,27 @@ public class Configuration
      */
     public Object get(String path)
     {
-        this.checkPath(path);
-        try {
-            return this.findObject(path);
-        }
-        catch (Exception e) {
-            return null;
+        return this.get(ConfigPath.of(path));
+    }
+
+    /**
+     * get the object by a compiled json path, see {@link #get(String)}
+     * <p>
+     * On a configuration whose tree is shared, a Map or List is copied into this configuration before it is returned,
+     * so modifying it changes this configuration only. Such a get() is a modification: like {@link #set(String, Object)}
+     * it must not run concurrently with other modifications of the same configuration, and the returned container must
+     * not be handed to another configuration, which would see the later changes of this one.
+     *
+     * @param path the compiled JSON path
+     * @return Java representation of the JSON object, returns null if the path does not exist or the object does not exist.
+     */
+    public Object get(ConfigPath path)
+    {
+        Object object = this.find(path);
+        if (this.exclusive || !isContainer(object)) {
+            return object;
         }
+        return this.own(path, object);
     }
 
     /**
@@ -220,12 +258,13 @@ public class Configuration
      */
     public Configuration getConfiguration(String path)
     {
-        Object object = this.get(path);
+        Object object = this.find(ConfigPath.of(path));
         if (null == object) {
             return null;
         }
 
-        return Configuration.from(Configuration.toJSONString(object));
+        this.share();
+        return new Configuration(object, false);
     }
 
     /**
@@ -535,14 +574,15 @@ public class Configuration
      */
     public List<Configuration> getListConfiguration(String path)
     {
-        List<Object> lists = getList(path);
+        List<Object> lists = (List<Object>) this.find(ConfigPath.of(path));
         if (lists == null) {
             return new ArrayList<>();
         }
 
+        this.share();
         List<Configuration> result = new ArrayList<>();
         for (Object object : lists) {
-            result.add(Configuration.from(Configuration.toJSONString(object)));
+            result.add(new Configuration(object, false));
         }
         return result;
     }
@@ -593,7 +633,6 @@ public class Configuration
      */
     public <T> T get(String path, Class<T> clazz)
     {
-        this.checkPath(path);
         Object object = this.get(path);
         if (object == null) {
             return null;
@@ -617,15 +656,16 @@ public class Configuration
      *
      * @param path JSON path
      * @param object Object to be inserted
-     * @return Java representation of the JSON object
+     * @return Java representation of the previous object, it may still be referenced by a clone and must not be modified
      */
     public Object set(String path, Object object)
     {
-        checkPath(path);
+        ConfigPath compiled = ConfigPath.of(path);
 
-        Object result = this.get(path);
+        // the previous value is dropped from this tree, no need to copy it
+        Object result = this.find(compiled);
 
-        setObject(path, extractConfiguration(object));
+        setObject(compiled, extractConfiguration(object));
 
         return result;
     }
@@ -703,7 +743,8 @@ public class Configuration
     @Override
     public Configuration clone()
     {
-        return Configuration.from(Configuration.toJSONString(this.getInternal()));
+        this.share();
+        return new Configuration(this.root, false);
     }
 
     void getKeysRecursive(Object current, String path, Set<String> collect)
@@ -734,14 +775,194 @@ public class Configuration
         }
     }
 
+    /**
+     * @return the root of the tree, which may be shared with other configurations and must not be modified
+     */
     public Object getInternal()
     {
         return this.root;
     }
 
-    private void setObject(String path, Object object)
+    // synchronized with the copies made by get() and set(), which replace the nodes on the way to their key
+    private synchronized Object find(ConfigPath path)
     {
-        Object newRoot = setObjectRecursive(this.root, split2List(path), 0, object);
+        try {
+            return this.findObject(path);
+        }
+        catch (Exception e) {
+            return null;
+        }
+    }
+
+    /*
+     * The tree is about to be referenced by another configuration: from now on every node has to be copied before it is modified
+     */
+    private synchronized void share()
+    {
+        this.exclusive = false;
+        this.owned = null;
+        this.deepOwned = null;
+    }
+
+    /*
+     * Replace the container found at the path by a copy whose whole subtree is owned, so the caller may modify it
+     */
+    private synchronized Object own(ConfigPath path, Object object)
+    {
+        if (deepOwned != null && deepOwned.contains(object)) {
+            return object;
+        }
+        Object target = copyPath(path.getSegments());
+        if (target == null) {
+            // the path changed under us, hand out a private copy
+            return deepCopy(object);
+        }
+        deepOwn(target);
+        return target;
+    }
+
+    /*
+     * Make sure every container from the root down to the path may be modified in place, copying the shared ones
+     *
+     * @return the container at the end of the path, or null if the path does not lead to a container
+     */
+    private Object copyPath(List<String> paths)
+    {
+        Object current = ownShallow(this.root);
+        this.root = current;
+        for (String each : paths) {
+            String path = each.trim();
+            if (!isContainer(current)) {
+                return null;
+            }
+            // the subtree below current is about to change
+            deepOwned().remove(current);
+            Object child;
+            if (isPathMap(path) && current instanceof Map) {
+                Map<String, Object> mapping = (Map<String, Object>) current;
+                child = mapping.get(path);
+                if (!isContainer(child)) {
+                    return null;
+                }
+                Object copy = ownShallow(child);
+                if (copy != child) {
+                    mapping.put(path, copy);
+                }
+                current = copy;
+            }
+            else if (isPathList(path) && current instanceof List) {
+                List<Object> lists = (List<Object>) current;
+                int index = getIndex(path);
+                child = index < lists.size() ? lists.get(index) : null;
+                if (!isContainer(child)) {
+                    return null;
+                }
+                Object copy = ownShallow(child);
+                if (copy != child) {
+                    lists.set(index, copy);
+                }
+                current = copy;
+            }
+            else {
+                return null;
+            }
+        }
+        return isContainer(current) ? current : null;
+    }
+
+    private void deepOwn(Object node)
+    {
+        if (node instanceof Map) {
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) node).entrySet()) {
+                Object child = entry.getValue();
+                if (isContainer(child) && !deepOwned().contains(child)) {
+                    Object copy = ownShallow(child);
+                    entry.setValue(copy);
+                    deepOwn(copy);
+                }
+            }
+        }
+        else if (node instanceof List) {
+            List<Object> lists = (List<Object>) node;
+            for (int i = 0; i < lists.size(); i++) {
+                Object child = lists.get(i);
+                if (isContainer(child) && !deepOwned().contains(child)) {
+                    Object copy = ownShallow(child);
+                    lists.set(i, copy);
+                    deepOwn(copy);
+                }
+            }
+        }
+        deepOwned().add(node);
+    }
+
+    private Object ownShallow(Object node)
+    {
+        if (!isContainer(node) || owned().contains(node)) {
+            return node;
+        }
+        Object copy = shallowCopy(node);
+        owned().add(copy);
+        return copy;
+    }
+
+    private Set<Object> owned()
+    {
+        if (owned == null) {
+            owned = Collections.newSetFromMap(new IdentityHashMap<>());
+        }
+        return owned;
+    }
+
+    private Set<Object> deepOwned()
+    {
+        if (deepOwned == null) {
+            deepOwned = Collections.newSetFromMap(new IdentityHashMap<>());
+        }
+        return deepOwned;
+    }
+
+    private static boolean isContainer(Object object)
+    {
+        return object instanceof Map || object instanceof List;
+    }
+
+    // keep the JSON types, plugins check for them
+    private static Object shallowCopy(Object node)
+    {
+        if (node instanceof JSONObject) {
+            return new JSONObject((Map<String, Object>) node);
+        }
+        if (node instanceof Map) {
+            return new LinkedHashMap<>((Map<String, Object>) node);
+        }
+        if (node instanceof JSONArray) {
+            return new JSONArray((List<Object>) node);
+        }
+        return new ArrayList<>((List<Object>) node);
+    }
+
+    private static Object deepCopy(Object node)
+    {
+        if (!isContainer(node)) {
+            return node;
+        }
+        Object copy = shallowCopy(node);
+        if (copy instanceof Map) {
+            ((Map<String, Object>) copy).replaceAll((key, value) -> deepCopy(value));
+        }
+        else {
+            ((List<Object>) copy).replaceAll(Configuration::deepCopy);
+        }
+        return copy;
+    }
+
+    private synchronized void setObject(ConfigPath path, Object object)
+    {
+        if (!this.exclusive) {
+            copyPath(path.getSegments());
+        }
+        Object newRoot = setObjectRecursive(this.root, path.getSegments(), 0, object);
 
         if (isSuitForRoot(newRoot)) {
             this.root = newRoot;
@@ -779,6 +1000,11 @@ public class Configuration
     private Object extractFromConfiguration(Object object)
     {
         if (object instanceof Configuration) {
+            // both configurations reference the tree from now on
+            ((Configuration) object).share();
+            if (this.exclusive) {
+                this.share();
+            }
             return ((Configuration) object).getInternal();
         }
 
@@ -886,21 +1112,23 @@ public class Configuration
         throw AddaxException.asAddaxException(ErrorCode.RUNTIME_ERROR, "System internal error.");
     }
 
-    private Object findObject(String path)
+    private Object findObject(ConfigPath path)
     {
-        boolean isRootQuery = StringUtils.isBlank(path);
+        boolean isRootQuery = path.isRoot();
         if (isRootQuery) {
             return this.root;
         }
 
         Object target = this.root;
 
-        for (String each : split2List(path)) {
-            if (isPathMap(each)) {
-                target = findObjectInMap(target, each);
+        List<String> segments = path.getSegments();
+        for (int i = 0; i < segments.size(); i++) {
+            int index = path.getIndex(i);
+            if (index == ConfigPath.MAP_KEY) {
+                target = findObjectInMap(target, segments.get(i));
             }
             else {
-                target = findObjectInList(target, each);
+                target = findObjectInList(target, segments.get(i), index);
             }
         }
 
@@ -922,19 +1150,19 @@ public class Configuration
         return result;
     }
 
-    private Object findObjectInList(Object target, String each)
+    private Object findObjectInList(Object target, String each, int index)
     {
         boolean isList = (target instanceof List);
         if (!isList) {
             throw new IllegalArgumentException(String.format("The item [%s] requires a Map object in json format, but the actual type is [%s].", each, target.getClass()));
         }
 
-        String index = each.replace("[", "").replace("]", "");
-        if (!StringUtils.isNumeric(index)) {
-            throw new IllegalArgumentException(String.format("The list subscript must be a numeric type, but the actual type is [%s].", index));
+        if (index == ConfigPath.ILLEGAL_INDEX) {
+            throw new IllegalArgumentException(String.format("The list subscript must be a numeric type, but the actual type is [%s].",
+                    each.replace("[", "").replace("]", "")));
         }
 
-        return ((List<Object>) target).get(Integer.parseInt(index));
+        return ((List<Object>) target).get(index);
     }
 
     private List<Object> expand(List<Object> list, int size)
@@ -948,7 +1176,7 @@ public class Configuration
 
     private boolean isPathList(String path)
     {
-        return path.contains("[") && path.contains("]");
+        return ConfigPath.isList(path);
     }
 
     private boolean isPathMap(String path)
@@ -965,27 +1193,4 @@ public class Configuration
     {
         return (object instanceof List || object instanceof Map);
     }
-
-    private String split(String path)
-    {
-        return Strings.CS.replace(path, "[", ".[");
-    }
-
-    private List<String> split2List(String path)
-    {
-        return Arrays.asList(StringUtils.split(split(path), "."));
-    }
-
-    private void checkPath(String path)
-    {
-        if (null == path) {
-            throw new IllegalArgumentException("System internal error.");
-        }
-
-        for (String each : StringUtils.split(path, ".")) {
-            if (StringUtils.isBlank(each)) {
-                throw new IllegalArgumentException("The item '" + path + "' is invalid, Blank characters should not  appear here.");
-            }
-        }
-    }
 }
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wgzhao.addax.core.util.container;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wakes up a container loop as soon as one of the units it supervises (a task, a task group) has finished,
+ * so the loop only waits its full interval when there is nothing to do but report progress.
+ * <p>
+ * Any thread may {@link #signal()}; signals sent while nobody waits are kept, so a completion that happens
+ * between two checks is not lost.
+ */
+public class CompletionSignal
+{
+    private final Semaphore signals = new Semaphore(0);
+
+    public void signal()
+    {
+        signals.release();
+    }
+
+    /**
+     * Wait until a signal arrives or the timeout elapses, consuming all pending signals
+     *
+     * @param timeout the longest time to wait
+     * @param unit the unit of the timeout
+     * @return true if woken by a signal, false if the timeout elapsed
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    public boolean await(long timeout, TimeUnit unit)
+            throws InterruptedException
+    {
+        boolean signalled = signals.tryAcquire(timeout, unit);
+        signals.drainPermits();
+        return signalled;
+    }
+
+    /**
+     * Wrap a runnable so that it signals when it ends, whether it completes or fails
+     *
+     * @param runnable the work to run
+     * @return the signalling runnable
+     */
+    public Runnable signalOnExit(Runnable runnable)
+    {
+        return () -> {
+            try {
+                runnable.run();
+            }
+            finally {
+                signal();
+            }
+        };
+    }
+}
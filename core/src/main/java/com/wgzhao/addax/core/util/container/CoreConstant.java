@@ -30,6 +30,9 @@ public class CoreConstant
 {
     // --------------------------- global variables (
     // --------------------------------
+    // the id the metrics of the job are labelled with, generated when not given
+    public static final String CORE_CONTAINER_JOB_ID = "core.container.job.id";
+
     public static final String CORE_CONTAINER_TASK_GROUP_CHANNEL = "core.container.taskGroup.channel";
 
     public static final String CORE_CONTAINER_JOB_REPORT_INTERVAL = "core.container.job.reportInterval";
@@ -42,12 +45,30 @@ public class CoreConstant
 
     public static final String CORE_CONTAINER_TASK_GROUP_REPORT_INTERVAL = "core.container.taskGroup.reportInterval";
 
+    // let task groups take over the pending tasks of each other, default true
+    public static final String CORE_CONTAINER_JOB_WORK_STEALING = "core.container.job.workStealing";
+
+    // run readers, writers and task groups on virtual threads (Java 21+), default false
+    public static final String CORE_CONTAINER_VIRTUAL_THREAD = "core.container.virtualThread";
+
+    // plugins kept on platform threads when virtual threads are enabled
+    public static final String CORE_CONTAINER_VIRTUAL_THREAD_EXCLUDE = "core.container.virtualThread.exclude";
+
     public static final String CORE_CONTAINER_TASK_FAIL_OVER_MAX_RETRY_TIMES = "core.container.task.failOver.maxRetryTimes";
 
     public static final String CORE_CONTAINER_TASK_FAIL_OVER_RETRY_INTERVAL_IN_MSEC = "core.container.task.failOver.retryIntervalInMsec";
 
     public static final String CORE_CONTAINER_TASK_FAIL_OVER_MAX_WAIT_IN_MSEC = "core.container.task.failOver.maxWaitInMsec";
 
+    // launch a second copy of a task far slower than its peers when its writer supports fail over, default false
+    public static final String CORE_CONTAINER_TASK_SPECULATION = "core.container.task.speculation.enabled";
+
+    // a task is a straggler when its read rate is below this fraction of the median rate of its peers, default 0.25
+    public static final String CORE_CONTAINER_TASK_SPECULATION_SLOWNESS = "core.container.task.speculation.slowness";
+
+    // a task is not compared to its peers before it has run this long, default 60000
+    public static final String CORE_CONTAINER_TASK_SPECULATION_MIN_RUNTIME_IN_MSEC = "core.container.task.speculation.minRuntimeInMsec";
+
     public static final String CORE_SERVER_ADDRESS = "core.server.address";
 
     public static final String CORE_SERVER_TIMEOUT_SEC = "core.server.timeout";
@@ -58,20 +79,49 @@ public class CoreConstant
 
     public static final String CORE_TRANSPORT_CHANNEL_CAPACITY_BYTE = "core.transport.channel.byteCapacity";
 
+    public static final String CORE_TRANSPORT_CHANNEL_MAX_CAPACITY = "core.transport.channel.maxCapacity";
+
     public static final String CORE_TRANSPORT_CHANNEL_SPEED_BYTE = "core.transport.channel.speed.byte";
 
     public static final String CORE_TRANSPORT_CHANNEL_SPEED_RECORD = "core.transport.channel.speed.record";
 
     public static final String CORE_TRANSPORT_CHANNEL_FLOW_CONTROL_INTERVAL = "core.transport.channel.flowControlInterval";
 
+    public static final String CORE_TRANSPORT_CHANNEL_FLOW_CONTROL = "core.transport.channel.flowControl";
+
+    public static final String CORE_TRANSPORT_CHANNEL_MEMORY_ACCOUNTING = "core.transport.channel.memoryAccounting";
+
+    public static final String CORE_TRANSPORT_CHANNEL_WAIT_STRATEGY = "core.transport.channel.waitStrategy";
+
     public static final String CORE_TRANSPORT_EXCHANGER_BUFFER_SIZE = "core.transport.exchanger.bufferSize";
 
+    public static final String CORE_TRANSPORT_EXCHANGER_ADAPTIVE = "core.transport.exchanger.adaptive";
+
+    public static final String CORE_TRANSPORT_EXCHANGER_MIN_BUFFER_SIZE = "core.transport.exchanger.minBufferSize";
+
+    public static final String CORE_TRANSPORT_EXCHANGER_MAX_BUFFER_SIZE = "core.transport.exchanger.maxBufferSize";
+
+    public static final String CORE_TRANSPORT_EXCHANGER_RECORD_BATCH = "core.transport.exchanger.recordBatch";
+
     public static final String CORE_TRANSPORT_RECORD_CLASS = "core.transport.record.class";
 
+    public static final String CORE_TRANSPORT_RECORD_FACTORY = "core.transport.record.factory";
+
+    public static final String CORE_TRANSPORT_RECORD_RECYCLE = "core.transport.record.recycle";
+
     public static final String CORE_STATISTICS_COLLECTOR_PLUGIN_TASK_CLASS = "core.statistics.collector.plugin.taskClass";
 
     public static final String CORE_STATISTICS_COLLECTOR_PLUGIN_MAX_DIRTY_NUMBER = "core.statistics.collector.plugin.maxDirtyNumber";
 
+    // serve the live metrics of the job on this port at /metrics, disabled when not positive
+    public static final String CORE_STATISTICS_METRICS_PORT = "core.statistics.metrics.port";
+
+    // the task phases listed by the performance report at job end, 0 to skip the report, default 10
+    public static final String CORE_STATISTICS_PERF_TRACE_SLOWEST = "core.statistics.perfTrace.slowest";
+
+    // write the performance trace to this file as JSON at job end, not written by default
+    public static final String CORE_STATISTICS_PERF_TRACE_DUMP_FILE = "core.statistics.perfTrace.dumpFile";
+
     public static final String JOB_CONTENT_READER_NAME = "job.content.reader.name";
 
     public static final String JOB_CONTENT_READER = "job.content.reader";
@@ -102,6 +152,22 @@ public class CoreConstant
 
     public static final String JOB_SETTING_DRY_RUN = "job.setting.dryRun";
 
+    // the connections each JDBC pool of the job may open, default max(8, (1 + max(1, flushWorkers)) * channels + 2),
+    // with one more channel when speculation is enabled
+    public static final String JOB_SETTING_JDBC_POOL_MAX_TOTAL = "job.setting.jdbcPool.maxTotal";
+
+    // the idle connections each JDBC pool of the job keeps, default 2
+    public static final String JOB_SETTING_JDBC_POOL_MIN_IDLE = "job.setting.jdbcPool.minIdle";
+
+    // how long to wait for a connection when the pool is exhausted, not positive to wait as long as it takes (default)
+    public static final String JOB_SETTING_JDBC_POOL_MAX_WAIT_SECONDS = "job.setting.jdbcPool.maxWaitSeconds";
+
+    // validate a connection before handing it out, default true
+    public static final String JOB_SETTING_JDBC_POOL_TEST_ON_BORROW = "job.setting.jdbcPool.testOnBorrow";
+
+    // log and reclaim a connection unused for this long, 0 to disable (default), it must exceed the longest query
+    public static final String JOB_SETTING_JDBC_POOL_LEAK_DETECTION_SECONDS = "job.setting.jdbcPool.leakDetectionSeconds";
+
     public static final String JOB_PRE_HANDLER_PLUGIN_TYPE = "job.preHandler.pluginType";
 
     public static final String JOB_PRE_HANDLER_PLUGIN_NAME = "job.preHandler.pluginName";
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wgzhao.addax.core.util.container;
+
+import com.wgzhao.addax.core.base.Key;
+import com.wgzhao.addax.core.util.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_CONTAINER_VIRTUAL_THREAD;
+import static com.wgzhao.addax.core.util.container.CoreConstant.CORE_CONTAINER_VIRTUAL_THREAD_EXCLUDE;
+
+/**
+ * Creates the reader, writer and task group threads on virtual threads when
+ * {@code core.container.virtualThread = true} and the JVM provides them (Java 21 or later).
+ * <p>
+ * The project is built for Java 17, so the {@code Thread.ofVirtual()} builder is looked up once through method handles;
+ * on older JVMs every call falls back to platform threads.
+ * <p>
+ * Until Java 24 a virtual thread blocked inside a {@code synchronized} block pins its carrier thread, and most JDBC
+ * drivers block on the network while holding a monitor. Plugins with a {@code connection.jdbcUrl} therefore keep
+ * platform threads on those JVMs, as do the plugins listed in {@code core.container.virtualThread.exclude}.
+ */
+public final class VirtualThreads
+{
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreads.class);
+
+    // the first release with final virtual threads
+    private static final int VIRTUAL_THREAD_VERSION = 21;
+
+    // the first release where monitors no longer pin the carrier thread
+    private static final int UNPINNED_MONITOR_VERSION = 24;
+
+    // Thread.ofVirtual(), null if the JVM has no virtual threads
+    private static final MethodHandle OF_VIRTUAL;
+
+    // Thread.Builder#name(String)
+    private static final MethodHandle NAME;
+
+    // Thread.Builder#unstarted(Runnable)
+    private static final MethodHandle UNSTARTED;
+
+    // Thread.Builder#factory()
+    private static final MethodHandle FACTORY;
+
+    // every task group asks, the missing support is only worth one warning
+    private static final AtomicBoolean UNSUPPORTED_WARNED = new AtomicBoolean(false);
+
+    static {
+        MethodHandle ofVirtual = null;
+        MethodHandle name = null;
+        MethodHandle unstarted = null;
+        MethodHandle factory = null;
+        if (Runtime.version().feature() >= VIRTUAL_THREAD_VERSION) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+                Class<?> builder = Class.forName("java.lang.Thread$Builder");
+                ofVirtual = lookup.findStatic(Thread.class, "ofVirtual",
+                        MethodType.methodType(Class.forName("java.lang.Thread$Builder$OfVirtual")));
+                name = lookup.findVirtual(builder, "name", MethodType.methodType(builder, String.class));
+                unstarted = lookup.findVirtual(builder, "unstarted", MethodType.methodType(Thread.class, Runnable.class));
+                factory = lookup.findVirtual(builder, "factory", MethodType.methodType(ThreadFactory.class));
+            }
+            catch (ReflectiveOperationException e) {
+                ofVirtual = null;
+            }
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        UNSTARTED = unstarted;
+        FACTORY = factory;
+    }
+
+    private VirtualThreads()
+    {
+    }
+
+    public static boolean isSupported()
+    {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Whether the configuration asks for virtual threads and the JVM can provide them
+     *
+     * @param configuration the job or task group configuration
+     * @return true if virtual threads should be used
+     */
+    public static boolean isEnabled(Configuration configuration)
+    {
+        if (!configuration.getBool(CORE_CONTAINER_VIRTUAL_THREAD, false)) {
+            return false;
+        }
+        if (!isSupported()) {
+            if (UNSUPPORTED_WARNED.compareAndSet(false, true)) {
+                LOG.warn("Virtual threads need Java 21 or later, the current JVM is {}, use platform threads instead.",
+                        Runtime.version());
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Whether a plugin may run on a virtual thread without pinning its carrier thread
+     *
+     * @param configuration the task group configuration
+     * @param pluginName the plugin name
+     * @param pluginConf the plugin parameters of the task
+     * @return true if the plugin can run on a virtual thread
+     */
+    public static boolean isAllowed(Configuration configuration, String pluginName, Configuration pluginConf)
+    {
+        List<String> excludes = configuration.getList(CORE_CONTAINER_VIRTUAL_THREAD_EXCLUDE, List.of(), String.class);
+        if (excludes.contains(pluginName)) {
+            return false;
+        }
+        if (Runtime.version().feature() < UNPINNED_MONITOR_VERSION && pluginConf != null) {
+            return !hasJdbcUrl(pluginConf);
+        }
+        return true;
+    }
+
+    // the connection is an object, or a list of them in older job files
+    private static boolean hasJdbcUrl(Configuration pluginConf)
+    {
+        Configuration connection = pluginConf.getConfiguration(Key.CONNECTION);
+        if (connection == null) {
+            return false;
+        }
+        if (connection.getInternal() instanceof List) {
+            return pluginConf.getListConfiguration(Key.CONNECTION).stream()
+                    .anyMatch(each -> each.getString(Key.JDBC_URL) != null);
+        }
+        return connection.getString(Key.JDBC_URL) != null;
+    }
+
+    /**
+     * Create an unstarted virtual thread
+     *
+     * @param runnable the work to run
+     * @param threadName the thread name
+     * @return the thread
+     */
+    public static Thread newThread(Runnable runnable, String threadName)
+    {
+        try {
+            Object builder = OF_VIRTUAL.invoke();
+            builder = NAME.invoke(builder, threadName);
+            return (Thread) UNSTARTED.invoke(builder, runnable);
+        }
+        catch (Throwable e) {
+            throw new IllegalStateException("Failed to create a virtual thread", e);
+        }
+    }
+
+    /**
+     * @return a factory creating virtual threads
+     */
+    public static ThreadFactory newThreadFactory()
+    {
+        try {
+            return (ThreadFactory) FACTORY.invoke(OF_VIRTUAL.invoke());
+        }
+        catch (Throwable e) {
+            throw new IllegalStateException("Failed to create a virtual thread factory", e);
+        }
+    }
+}
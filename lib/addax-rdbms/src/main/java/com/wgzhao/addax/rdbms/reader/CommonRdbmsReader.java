@@ -37,6 +37,7 @@ import com.wgzhao.addax.core.plugin.TaskPluginCollector;
 import com.wgzhao.addax.core.statistics.PerfRecord;
 import com.wgzhao.addax.core.util.Configuration;
 import com.wgzhao.addax.rdbms.reader.util.GetPrimaryKeyUtil;
+import com.wgzhao.addax.rdbms.reader.util.KeysetPageQuery;
 import com.wgzhao.addax.rdbms.reader.util.OriginalConfPretreatmentUtil;
 import com.wgzhao.addax.rdbms.reader.util.PreCheckTask;
 import com.wgzhao.addax.rdbms.reader.util.ReaderSplitUtil;
@@ -49,10 +50,13 @@ import org.slf4j.LoggerFactory;
 
 import java.io.UnsupportedEncodingException;
 import java.math.BigInteger;
+import java.sql.Array;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.SQLXML;
 import java.sql.Types;
 import java.util.Calendar;
 import java.util.List;
@@ -104,11 +108,32 @@ public class CommonRdbmsReader
                     LOG.warn("There is no primary key or unique key in the table, and the split key cannot be guessed.");
                 }
             }
+            checkPageKey(originalConfig);
 
             LOG.debug("After the job is initialized, the job configuration is now as follows::[\n{}\n]", originalConfig.toJSON());
             return originalConfig;
         }
 
+        /*
+         * A page starts after the last split key of the previous one, so rows sharing that key would be skipped:
+         * read by pages only when the split key is unique in every table
+         */
+        private void checkPageKey(Configuration originalConfig)
+        {
+            String splitPk = originalConfig.getString(Key.SPLIT_PK, "");
+            if (originalConfig.getInt(Key.PAGE_SIZE, 0) < 1 || splitPk.isBlank() || !originalConfig.getBool(Key.IS_TABLE_MODE, false)) {
+                return;
+            }
+            for (String table : originalConfig.getList(Key.CONNECTION + "." + Key.TABLE, String.class)) {
+                if (!GetPrimaryKeyUtil.isUniqueKey(dataBaseType, originalConfig, table, splitPk)) {
+                    LOG.warn("The split key {} is not known to be the primary key or a single-column unique key of the table {}, "
+                            + "read each split with one query instead of pages of {} rows.", splitPk, table, originalConfig.getInt(Key.PAGE_SIZE));
+                    originalConfig.set(Key.PAGE_SIZE, 0);
+                    return;
+                }
+            }
+        }
+
         /**
          * Performs pre-checks on the configuration to validate table accessibility and split key validity.
          *
@@ -168,6 +193,8 @@ public class CommonRdbmsReader
     {
         private static final Logger LOG = LoggerFactory.getLogger(Task.class);
         private static final int SQL_LOG_MAX_LENGTH = 256;
+        // the times a page is read again after a failure before the task fails
+        private static final int MAX_PAGE_RETRIES = 3;
         private static final Calendar CALENDAR_INSTANCE = Calendar.getInstance();
 
         /**
@@ -186,6 +213,10 @@ public class CommonRdbmsReader
 
         private String basicMsg;
 
+        // the result set the extractors were resolved for, and its extractors indexed by column
+        private ResultSetMetaData extractorMetaData;
+        private ColumnExtractor[] extractors;
+
         /**
          * Creates a new Task instance for the specified database type.
          *
@@ -237,6 +268,12 @@ public class CommonRdbmsReader
         public void startRead(Configuration readerSliceConfig, RecordSender recordSender,
                 TaskPluginCollector taskPluginCollector, int fetchSize)
         {
+            KeysetPageQuery pageQuery = KeysetPageQuery.of(dataBaseType, readerSliceConfig, readerSliceConfig.getInt(Key.PAGE_SIZE, 0));
+            if (pageQuery != null) {
+                startPagedRead(readerSliceConfig, recordSender, taskPluginCollector, fetchSize, pageQuery);
+                return;
+            }
+
             String querySql = readerSliceConfig.getString(Key.QUERY_SQL);
             String logSql = querySql.length() > SQL_LOG_MAX_LENGTH ?
                     StringUtils.abbreviate(querySql, SQL_LOG_MAX_LENGTH) : querySql;
@@ -273,10 +310,105 @@ public class CommonRdbmsReader
                 throw RdbmsException.asQueryException(e, querySql);
             }
             finally {
+                extractorMetaData = null;
+                extractors = null;
+                DBUtil.closeDBResources(null, conn);
+            }
+        }
+
+        /**
+         * Read the split page by page in the order of its split key. Only one page holds the connection at a time,
+         * and a page that fails is read again on a new connection from the last key sent, so nothing is sent twice.
+         * The rows with a null key are read last by one query, which is not read again.
+         *
+         * @param readerSliceConfig The read configuration
+         * @param recordSender The record sender
+         * @param taskPluginCollector The task plugin collector
+         * @param fetchSize The fetch size, a page is fetched at once when it is not positive
+         * @param pageQuery The page queries of the split
+         */
+        private void startPagedRead(Configuration readerSliceConfig, RecordSender recordSender,
+                TaskPluginCollector taskPluginCollector, int fetchSize, KeysetPageQuery pageQuery)
+        {
+            LOG.info("Begin reading records by pages of {} rows: [{}].", pageQuery.pageSize(), pageQuery.nextPageSql());
+            int pageFetchSize = fetchSize > 0 ? Math.min(fetchSize, pageQuery.pageSize()) : pageQuery.pageSize();
+            PerfRecord allResultPerfRecord = new PerfRecord(taskGroupId, taskId, PerfRecord.PHASE.RESULT_NEXT_ALL);
+            allResultPerfRecord.start();
+            long rsNextUsedTime = 0;
+
+            Connection conn = null;
+            Object lastKey = null;
+            // every row with a key has been read, only the null keys are left
+            boolean keysDone = false;
+            int failures = 0;
+            try {
+                while (true) {
+                    String pageSql = keysDone ? pageQuery.nullKeySql() : (lastKey == null ? pageQuery.firstPageSql() : pageQuery.nextPageSql());
+                    int rows = 0;
+                    try {
+                        if (conn == null) {
+                            conn = DBUtil.getConnection(this.dataBaseType, jdbcUrl, username, password);
+                            DBUtil.dealWithSessionConfig(conn, readerSliceConfig, this.dataBaseType, basicMsg);
+                        }
+                        try (PreparedStatement ps = conn.prepareStatement(pageSql)) {
+                            ps.setFetchSize(pageFetchSize);
+                            if (!keysDone && lastKey != null) {
+                                ps.setObject(1, lastKey);
+                            }
+                            try (ResultSet rs = ps.executeQuery()) {
+                                ResultSetMetaData metaData = rs.getMetaData();
+                                // the split key selected after the configured columns is not sent
+                                int columnNumber = metaData.getColumnCount() - 1;
+                                long lastTime = System.nanoTime();
+                                while (rs.next()) {
+                                    rsNextUsedTime += (System.nanoTime() - lastTime);
+                                    transportOneRecord(recordSender, rs, metaData, columnNumber, taskPluginCollector);
+                                    if (!keysDone) {
+                                        lastKey = rs.getObject(columnNumber + 1);
+                                    }
+                                    rows++;
+                                    lastTime = System.nanoTime();
+                                }
+                            }
+                        }
+                    }
+                    catch (SQLException e) {
+                        if (keysDone || ++failures > MAX_PAGE_RETRIES) {
+                            throw RdbmsException.asQueryException(e, pageSql);
+                        }
+                        LOG.warn("Failed to read the page after the key {}, read it again ({}/{}).", lastKey, failures, MAX_PAGE_RETRIES, e);
+                        DBUtil.closeDBResources(null, conn);
+                        conn = null;
+                        sleepBeforeRetry(failures, e, pageSql);
+                        continue;
+                    }
+                    failures = 0;
+                    if (keysDone) {
+                        break;
+                    }
+                    keysDone = rows < pageQuery.pageSize();
+                }
+                allResultPerfRecord.end(rsNextUsedTime);
+                LOG.info("Finished reading records by pages: [{}].", pageQuery.nextPageSql());
+            }
+            finally {
+                extractorMetaData = null;
+                extractors = null;
                 DBUtil.closeDBResources(null, conn);
             }
         }
 
+        private static void sleepBeforeRetry(int failures, SQLException cause, String pageSql)
+        {
+            try {
+                Thread.sleep(1000L * failures);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw RdbmsException.asQueryException(cause, pageSql);
+            }
+        }
+
         /**
          * Performs task cleanup operations.
          * This method is called after data reading is complete.
@@ -328,9 +460,41 @@ public class CommonRdbmsReader
          */
         protected Column createColumn(ResultSet rs, ResultSetMetaData metaData, int i)
                 throws SQLException, UnsupportedEncodingException
+        {
+            return getColumnExtractor(metaData, i).extract(rs, i);
+        }
+
+        /*
+         * The extractor of a column of the result set being read, resolved the first time the column is read.
+         * A new result set has a new metadata object, which starts over.
+         */
+        private ColumnExtractor getColumnExtractor(ResultSetMetaData metaData, int i)
+                throws SQLException
+        {
+            if (metaData != extractorMetaData) {
+                extractors = new ColumnExtractor[metaData.getColumnCount() + 1];
+                extractorMetaData = metaData;
+            }
+            ColumnExtractor extractor = extractors[i];
+            if (extractor == null) {
+                extractor = createColumnExtractor(metaData, i);
+                extractors[i] = extractor;
+            }
+            return extractor;
+        }
+
+        /**
+         * Resolve how a column is read from its metadata, once per result set instead of once per cell
+         *
+         * @param metaData The result set meta data
+         * @param i The column index
+         * @return The extractor reading the column of the current row
+         * @throws SQLException If the metadata cannot be read
+         */
+        protected ColumnExtractor createColumnExtractor(ResultSetMetaData metaData, int i)
+                throws SQLException
         {
             int colType = metaData.getColumnType(i);
-            String colTypeName = metaData.getColumnTypeName(i);
             switch (colType) {
                 case Types.CHAR:
                 case Types.NCHAR:
@@ -338,89 +502,116 @@ public class CommonRdbmsReader
                 case Types.LONGVARCHAR:
                 case Types.NVARCHAR:
                 case Types.LONGNVARCHAR: {
-                    byte[] rawBytes = rs.getBytes(i);
-                    String rawData;
                     if (StringUtils.isBlank(mandatoryEncoding)) {
-                        rawData = rs.getString(i);
-                    }
-                    else {
-                        rawData = new String((rawBytes == null ? EMPTY_CHAR_ARRAY : rawBytes), mandatoryEncoding);
+                        return (rs, index) -> new StringColumn(rs.getString(index));
                     }
-                    return new StringColumn(rawData);
+                    String encoding = mandatoryEncoding;
+                    return (rs, index) -> {
+                        byte[] rawBytes = rs.getBytes(index);
+                        return new StringColumn(new String((rawBytes == null ? EMPTY_CHAR_ARRAY : rawBytes), encoding));
+                    };
                 }
                 case Types.CLOB:
                 case Types.NCLOB:
-                    return new StringColumn(rs.getString(i));
+                    return (rs, index) -> new StringColumn(rs.getString(index));
                 case Types.SMALLINT:
                 case Types.TINYINT:
                 case Types.INTEGER:
-                    return new LongColumn(rs.getString(i));
+                    return (rs, index) -> {
+                        long value = rs.getLong(index);
+                        return rs.wasNull() ? new LongColumn() : new LongColumn(value);
+                    };
                 case Types.BIGINT:
                     if (!metaData.isSigned(i)) {
                         // BIGINT UNSIGNED may exceed Long.MAX_VALUE (9223372036854775807);
                         // store as StringColumn to preserve full precision
-                        String raw = rs.getString(i);
-                        if (raw != null) {
-                            BigInteger bi = new BigInteger(raw);
-                            if (bi.compareTo(BigInteger.valueOf(Long.MAX_VALUE)) > 0) {
-                                return new StringColumn(raw);
+                        return (rs, index) -> {
+                            String raw = rs.getString(index);
+                            if (raw != null) {
+                                BigInteger bi = new BigInteger(raw);
+                                if (bi.compareTo(BigInteger.valueOf(Long.MAX_VALUE)) > 0) {
+                                    return new StringColumn(raw);
+                                }
+                                return new LongColumn(bi);
                             }
-                            return new LongColumn(bi);
-                        }
-                        return new LongColumn((String) null);
+                            return new LongColumn((String) null);
+                        };
                     }
-                    return new LongColumn(rs.getString(i));
+                    return (rs, index) -> {
+                        long value = rs.getLong(index);
+                        return rs.wasNull() ? new LongColumn() : new LongColumn(value);
+                    };
                 case Types.NUMERIC:
                 case Types.DECIMAL:
+                    return (rs, index) -> {
+                        try {
+                            return new DoubleColumn(rs.getBigDecimal(index));
+                        }
+                        catch (SQLException e) {
+                            // e.g. PostgreSQL numeric NaN/Infinity have no BigDecimal form
+                            return new DoubleColumn(rs.getString(index));
+                        }
+                    };
                 case Types.FLOAT:
-                case Types.REAL:
                 case Types.DOUBLE:
-                    return new DoubleColumn(rs.getString(i));
-                case Types.TIME:
-                    java.sql.Time time = rs.getTime(i);
-                    int nanos = 0;
+                case Types.REAL:
+                    // the text of the driver is kept as it is, a double would print 3 as 3.0
+                    // and Oracle FLOAT carries up to 126 binary digits
+                    return (rs, index) -> new DoubleColumn(rs.getString(index));
+                case Types.TIME: {
                     int precision = metaData.getScale(i);
-                    try {
-                        java.time.LocalTime lt = rs.getObject(i, java.time.LocalTime.class);
-                        if (lt != null) {
-                            nanos = lt.getNano();
+                    return (rs, index) -> {
+                        java.sql.Time time = rs.getTime(index);
+                        int nanos = 0;
+                        try {
+                            java.time.LocalTime lt = rs.getObject(index, java.time.LocalTime.class);
+                            if (lt != null) {
+                                nanos = lt.getNano();
+                            }
+                        } catch (SQLException | AbstractMethodError e) {
+                            // JDBC driver doesn't support getObject(int, Class); fallback to millis-only
                         }
-                    } catch (SQLException | AbstractMethodError e) {
-                        // JDBC driver doesn't support getObject(int, Class); fallback to millis-only
-                    }
-                    return new DateColumn(time, nanos, precision);
+                        return new DateColumn(time, nanos, precision);
+                    };
+                }
                 case Types.DATE:
-                    return new DateColumn(rs.getDate(i));
+                    return (rs, index) -> new DateColumn(rs.getDate(index));
                 case Types.TIMESTAMP:
-                    return new TimestampColumn(rs.getTimestamp(i, CALENDAR_INSTANCE));
+                    return (rs, index) -> new TimestampColumn(rs.getTimestamp(index, CALENDAR_INSTANCE));
                 case Types.BINARY:
                 case Types.VARBINARY:
                 case Types.BLOB:
                 case Types.LONGVARBINARY:
-                    return new BytesColumn(rs.getBytes(i));
+                    return (rs, index) -> new BytesColumn(rs.getBytes(index));
                 case Types.BOOLEAN:
-                    return new BoolColumn(rs.getBoolean(i));
+                    return (rs, index) -> new BoolColumn(rs.getBoolean(index));
                 case Types.BIT:
                     // bit(1) -> Types.BIT  use BooleanColumn
                     // bit(>1) -> Types.VARBINARY use BytesColumn
                     if (metaData.getPrecision(i) == 1) {
-                        return new BoolColumn(rs.getBoolean(i));
+                        return (rs, index) -> new BoolColumn(rs.getBoolean(index));
                     }
                     else {
-                        return new BytesColumn(rs.getBytes(i));
+                        return (rs, index) -> new BytesColumn(rs.getBytes(index));
                     }
 
                 case Types.ARRAY:
-                    return new StringColumn(Objects.isNull(rs.getObject(i)) ? null : rs.getArray(i).toString());
+                    return (rs, index) -> {
+                        Array array = rs.getArray(index);
+                        return new StringColumn(Objects.isNull(array) ? null : array.toString());
+                    };
                 case Types.SQLXML:
-                    return new StringColumn(rs.getSQLXML(i).getString());
+                    return (rs, index) -> {
+                        SQLXML xml = rs.getSQLXML(index);
+                        return new StringColumn(Objects.isNull(xml) ? null : xml.getString());
+                    };
                 default:
-                    LOG.debug("Unknown data type: {} (typeName: {}) at field name: {}, using getObject().", colType, colTypeName, metaData.getColumnName(i));
-                    String stringData = null;
-                    if (rs.getObject(i) != null) {
-                        stringData = rs.getObject(i).toString();
-                    }
-                    return new StringColumn(stringData);
+                    LOG.debug("Unknown data type: {} (typeName: {}) at field name: {}, using getObject().",
+                            colType, metaData.getColumnTypeName(i), metaData.getColumnName(i));
+                    return (rs, index) -> {
+                        Object value = rs.getObject(index);
+                        return new StringColumn(value == null ? null : value.toString());
+                    };
             }
         }
 
@@ -437,7 +628,7 @@ public class CommonRdbmsReader
         protected Record buildRecord(RecordSender recordSender, ResultSet rs, ResultSetMetaData metaData, int columnNumber,
                 TaskPluginCollector taskPluginCollector)
         {
-            Record record = recordSender.createRecord();
+            Record record = recordSender.createRecord(columnNumber);
             Column[] columns = new Column[columnNumber];
             try {
                 for (int i = 1; i <= columnNumber; i++) {
@@ -454,5 +645,15 @@ public class CommonRdbmsReader
                 return null;
             }
         }
+
+        /**
+         * Reads one column of the current row of a result set
+         */
+        @FunctionalInterface
+        protected interface ColumnExtractor
+        {
+            Column extract(ResultSet rs, int index)
+                    throws SQLException, UnsupportedEncodingException;
+        }
     }
 }
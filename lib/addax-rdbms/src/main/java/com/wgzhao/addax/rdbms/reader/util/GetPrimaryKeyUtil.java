@@ -64,38 +64,11 @@ public class GetPrimaryKeyUtil
      */
     public static String getPrimaryKey(DataBaseType dataBaseType, Configuration readConf)
     {
-        String sql;
-        List<String[]> columns = new ArrayList<>();
         Configuration connConf = readConf.getConfiguration(CONNECTION);
         String table = connConf.getList(TABLE).get(0).toString();
-        String jdbcUrl = connConf.getString(JDBC_URL);
-        String username = readConf.getString(USERNAME, null);
-        String password = readConf.getString(PASSWORD, null);
-        String schema = null;
-        if (table.contains(".")) {
-            schema = table.split("\\.")[0];
-            table = table.split("\\.")[1];
-        }
-
-        sql = getPrimaryKeyQuery(dataBaseType, schema, table, username);
-        if (sql == null) {
-            LOG.debug("The current database is unsupported yet.");
-            return null;
-        }
-
-        try (Connection connection = DBUtil.getConnection(dataBaseType, jdbcUrl, username, password);
-                Statement statement = connection.createStatement();
-                ResultSet resultSet = statement.executeQuery(sql)) {
-
-            LOG.debug("query primary sql: [{}]", sql);
-
-            while (resultSet.next()) {
-                // column_name, data_type
-                columns.add(new String[] {resultSet.getString(1), resultSet.getString(2)});
-            }
-        }
-        catch (SQLException e) {
-            LOG.debug(e.getMessage());
+        List<String[]> columns = queryKeyColumns(dataBaseType, readConf,
+                getPrimaryKeyQuery(dataBaseType, schemaOf(table), tableOf(table), readConf.getString(USERNAME, null)));
+        if (columns == null) {
             return null;
         }
 
@@ -134,6 +107,106 @@ public class GetPrimaryKeyUtil
         return columns.get(0)[0];
     }
 
+    /**
+     * Check that a column alone is the primary key or a unique key of a table, so no two rows share its value.
+     *
+     * @param dataBaseType The database type for generating appropriate queries
+     * @param readConf Reader configuration containing connection details
+     * @param table The table, optionally prefixed by its schema
+     * @param column The column to check
+     * @return true if the column is a single-column primary or unique key, false if it is not or it cannot be told
+     */
+    public static boolean isUniqueKey(DataBaseType dataBaseType, Configuration readConf, String table, String column)
+    {
+        String sql = getUniqueKeyQuery(dataBaseType, schemaOf(table), tableOf(table), readConf.getString(USERNAME, null));
+        List<String[]> columns = queryKeyColumns(dataBaseType, readConf, sql);
+        if (columns == null) {
+            return false;
+        }
+        String name = dataBaseType.unQuote(column.trim());
+        return columns.stream().anyMatch(each -> name.equalsIgnoreCase(each[0]));
+    }
+
+    /*
+     * The column name and type of each key found by the query, null if the query is unsupported or fails
+     */
+    private static List<String[]> queryKeyColumns(DataBaseType dataBaseType, Configuration readConf, String sql)
+    {
+        if (sql == null) {
+            LOG.debug("The current database is unsupported yet.");
+            return null;
+        }
+
+        List<String[]> columns = new ArrayList<>();
+        String jdbcUrl = readConf.getConfiguration(CONNECTION).getString(JDBC_URL);
+        String username = readConf.getString(USERNAME, null);
+        String password = readConf.getString(PASSWORD, null);
+        try (Connection connection = DBUtil.getConnection(dataBaseType, jdbcUrl, username, password);
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(sql)) {
+
+            LOG.debug("query primary sql: [{}]", sql);
+
+            while (resultSet.next()) {
+                // column_name, data_type
+                columns.add(new String[] {resultSet.getString(1), resultSet.getString(2)});
+            }
+        }
+        catch (SQLException e) {
+            LOG.debug(e.getMessage());
+            return null;
+        }
+        return columns;
+    }
+
+    private static String schemaOf(String table)
+    {
+        return table.contains(".") ? table.split("\\.")[0] : null;
+    }
+
+    private static String tableOf(String table)
+    {
+        return table.contains(".") ? table.split("\\.")[1] : table;
+    }
+
+    /*
+     * Like getPrimaryKeyQuery, but only with keys on a single column whose values are unique: a MySQL or SQLite
+     * composite primary key lists each of its columns, and a ClickHouse primary key does not enforce uniqueness
+     */
+    private static String getUniqueKeyQuery(DataBaseType dataBaseType, String schema, String tableName, String username)
+    {
+        if (dataBaseType == DataBaseType.ClickHouse) {
+            return null;
+        }
+        if (dataBaseType == DataBaseType.MySql) {
+            var schemaExpr = schema == null ? "(SELECT SCHEMA()) " : "'" + dataBaseType.unQuote(schema) + "'";
+            return """
+                     select s.COLUMN_NAME, '' AS COLUMN_TYPE
+                     from INFORMATION_SCHEMA.STATISTICS s
+                     where s.TABLE_SCHEMA = %s
+                      AND s.TABLE_NAME = '%s'
+                      AND s.NON_UNIQUE = 0
+                      AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS k
+                           WHERE k.TABLE_SCHEMA = s.TABLE_SCHEMA AND k.TABLE_NAME = s.TABLE_NAME AND k.INDEX_NAME = s.INDEX_NAME) = 1
+                    """.formatted(schemaExpr, dataBaseType.unQuote(tableName));
+        }
+        if (dataBaseType == DataBaseType.SQLite) {
+            return """
+                    SELECT name AS column_name, `type` AS column_type
+                    FROM pragma_table_info('%1$s')
+                    WHERE pk > 0 AND (SELECT COUNT(*) FROM pragma_table_info('%1$s') WHERE pk > 0) = 1
+                    UNION ALL
+                    SELECT t.name, t.`type`
+                    FROM pragma_index_list('%1$s') AS il
+                    JOIN pragma_index_info(il.name) AS ii
+                    JOIN pragma_table_info('%1$s') AS t
+                     ON t.name = ii.name
+                    WHERE il.`unique` = 1 AND (SELECT COUNT(*) FROM pragma_index_info(il.name)) = 1
+                    """.formatted(dataBaseType.unQuote(tableName));
+        }
+        return getPrimaryKeyQuery(dataBaseType, schema, tableName, username);
+    }
+
     /**
      * Generates database-specific SQL query to retrieve primary key or unique single-column key information.
      * Supports multiple database types with optimized queries for each platform.
@@ -0,0 +1,89 @@
+/*
+ *
+ *  * Licensed to the Apache Software Foundation (ASF) under one
+ *  * or more contributor license agreements.  See the NOTICE file
+ *  * distributed with this work for additional information
+ *  * regarding copyright ownership.  The ASF licenses this file
+ *  * to you under the Apache License, Version 2.0 (the
+ *  * "License"); you may not use this file except in compliance
+ *  * with the License.  You may obtain a copy of the License at
+ *  *
+ *  *   http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing,
+ *  * software distributed under the License is distributed on an
+ *  * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  * KIND, either express or implied.  See the License for the
+ *  * specific language governing permissions and limitations
+ *  * under the License.
+ *
+ */
+
+
+package com.wgzhao.addax.rdbms.reader.util;
+
+import com.wgzhao.addax.core.base.Key;
+import com.wgzhao.addax.core.util.Configuration;
+import com.wgzhao.addax.rdbms.util.DataBaseType;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.StringJoiner;
+
+/**
+ * The queries reading a split page by page in the order of its split key, each page starting after the last key of
+ * the previous one. The split key is selected after the configured columns, so it is the last column of every page.
+ * <p>
+ * The split key must be unique, rows sharing the last key of a page would be skipped. The reader job turns the
+ * pages off when it cannot find a primary or unique key on the split key alone.
+ *
+ * @param firstPageSql the query of the first page
+ * @param nextPageSql the query of the page after the key bound to its only parameter
+ * @param nullKeySql the query of the rows whose split key is null, which no page holds
+ * @param pageSize the rows of a full page
+ */
+public record KeysetPageQuery(String firstPageSql, String nextPageSql, String nullKeySql, int pageSize)
+{
+    /**
+     * Build the page queries of a reader slice
+     *
+     * @param dataBaseType the database type
+     * @param readerSliceConfig the reader slice, with the range of its split if it has one
+     * @param pageSize the rows of a page
+     * @return the page queries, or null if the slice or the database cannot be read by pages
+     */
+    public static KeysetPageQuery of(DataBaseType dataBaseType, Configuration readerSliceConfig, int pageSize)
+    {
+        String splitPk = readerSliceConfig.getString(Key.SPLIT_PK, null);
+        String range = readerSliceConfig.getString(Key.SPLIT_RANGE, null);
+        String limit = switch (dataBaseType) {
+            case Oracle -> " FETCH FIRST " + pageSize + " ROWS ONLY";
+            case SQLServer -> " OFFSET 0 ROWS FETCH NEXT " + pageSize + " ROWS ONLY";
+            case Sybase, Access, RDBMS -> null;
+            default -> " LIMIT " + pageSize;
+        };
+        if (pageSize < 1 || StringUtils.isBlank(splitPk) || range == null || limit == null) {
+            return null;
+        }
+
+        String table = readerSliceConfig.getString(Key.TABLE);
+        String column = readerSliceConfig.getString(Key.COLUMN);
+        String where = readerSliceConfig.getString(Key.WHERE, null);
+        String key = dataBaseType.quoteColumnName(splitPk.trim());
+
+        String select = String.format("SELECT %s, %s FROM %s WHERE ", "*".equals(column.trim()) ? table + ".*" : column, key, table);
+        StringJoiner conditions = new StringJoiner(" AND ");
+        if (StringUtils.isNotBlank(where)) {
+            conditions.add("(" + where + ")");
+        }
+        if (StringUtils.isNotBlank(range)) {
+            conditions.add("(" + range + ")");
+        }
+        String prefix = select + (conditions.length() == 0 ? "" : conditions + " AND ");
+
+        return new KeysetPageQuery(
+                prefix + key + " IS NOT NULL ORDER BY " + key + limit,
+                prefix + key + " > ? ORDER BY " + key + limit,
+                prefix + key + " IS NULL",
+                pageSize);
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ *
+ *  * Licensed to the Apache Software Foundation (ASF) under one
+ *  * or more contributor license agreements.  See the NOTICE file
+ *  * distributed with this work for additional information
+ *  * regarding copyright ownership.  The ASF licenses this file
+ *  * to you under the Apache License, Version 2.0 (the
+ *  * "License"); you may not use this file except in compliance
+ *  * with the License.  You may obtain a copy of the License at
+ *  *
+ *  *   http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing,
+ *  * software distributed under the License is distributed on an
+ *  * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  * KIND, either express or implied.  See the License for the
+ *  * specific language governing permissions and limitations
+ *  * under the License.
+ *
+ */
+
+
+package com.wgzhao.addax.rdbms.reader.util;
+
+import com.wgzhao.addax.core.base.Key;
+import com.wgzhao.addax.core.util.Configuration;
+import com.wgzhao.addax.rdbms.util.DBUtil;
+import com.wgzhao.addax.rdbms.util.DataBaseType;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * Splits a single table by its physical storage instead of the values of a split key, so that tables without a
+ * usable key, heap tables and tables with a composite key can still be read in parallel:
+ * <ul>
+ *     <li>Oracle: ROWID ranges cut at the extents of the table segments, balanced by block count</li>
+ *     <li>PostgreSQL: ctid ranges cut at equal block numbers of the table file</li>
+ *     <li>MySQL: ranges of the (composite) primary key, cut every {@code rows / splits} index entries</li>
+ * </ul>
+ * The first range has no lower bound and the last one no upper bound, so the rows stored after the split are read as well.
+ */
+public final class PhysicalSplitUtil
+{
+    private static final Logger LOG = LoggerFactory.getLogger(PhysicalSplitUtil.class);
+
+    private PhysicalSplitUtil()
+    {
+    }
+
+    /**
+     * Splits a single table configuration into multiple task configurations by its physical storage.
+     *
+     * @param dataBaseType The database type
+     * @param configuration The configuration for the single table to split
+     * @param adviceNum The number of parallel tasks to create
+     * @return List of task configurations, or an empty list if the storage of the table cannot be split
+     */
+    public static List<Configuration> splitSingleTable(DataBaseType dataBaseType, Configuration configuration, int adviceNum)
+    {
+        String column = configuration.getString(Key.COLUMN);
+        String table = configuration.getString(Key.TABLE).trim();
+        String where = configuration.getString(Key.WHERE, null);
+        boolean hasWhere = StringUtils.isNotBlank(where);
+
+        if (adviceNum < 2) {
+            return List.of();
+        }
+
+        List<String> rangeList;
+        try (Connection conn = DBUtil.getConnection(dataBaseType, configuration.getString(Key.JDBC_URL),
+                configuration.getString(Key.USERNAME), configuration.getString(Key.PASSWORD))) {
+            rangeList = switch (dataBaseType) {
+                case Oracle -> genRowidRanges(conn, table, adviceNum);
+                case PostgreSQL -> genCtidRanges(conn, table, adviceNum);
+                case MySql -> genKeyChunkRanges(conn, table, adviceNum);
+                default -> {
+                    LOG.warn("The physical split is not supported by {}.", dataBaseType);
+                    yield List.of();
+                }
+            };
+        }
+        catch (SQLException e) {
+            // no privilege on the dictionary views, a view instead of a table, ...
+            LOG.warn("Failed to split the table {} by its physical storage: {}", table, e.getMessage());
+            return List.of();
+        }
+
+        if (rangeList.isEmpty()) {
+            LOG.warn("The physical storage of table {} is too small or unknown to split.", table);
+            return List.of();
+        }
+
+        List<Configuration> pluginParams = new ArrayList<>();
+        StringJoiner allQuerySql = new StringJoiner("\n");
+        for (String range : rangeList) {
+            Configuration tempConfig = configuration.clone();
+            String tempQuerySql = SingleTableSplitUtil.buildQuerySql(column, table, where) + (hasWhere ? " AND " : " WHERE ") + range;
+
+            allQuerySql.add(tempQuerySql);
+            tempConfig.set(Key.QUERY_SQL, tempQuerySql);
+            tempConfig.set(Key.SPLIT_RANGE, range);
+            pluginParams.add(tempConfig);
+        }
+        LOG.info("After splitting for table {} by its physical storage, all query sql = [\n{}\n].", table, allQuerySql);
+
+        return pluginParams;
+    }
+
+    /*
+     * The extents come from DBA_EXTENTS, the ROWID of the first row of an extent is built from the data object id
+     * of the segment, so partitions are covered as well
+     */
+    private static List<String> genRowidRanges(Connection conn, String table, int adviceNum)
+            throws SQLException
+    {
+        String[] name = splitName(DataBaseType.Oracle, table, true);
+        String sql = """
+                SELECT DBMS_ROWID.ROWID_CREATE(1, o.data_object_id, e.relative_fno, e.block_id, 0), e.blocks
+                FROM dba_extents e
+                JOIN all_objects o ON o.owner = e.owner AND o.object_name = e.segment_name
+                    AND NVL(o.subobject_name, '-') = NVL(e.partition_name, '-')
+                WHERE e.owner = NVL(?, SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')) AND e.segment_name = ?
+                    AND o.object_type LIKE 'TABLE%' AND o.data_object_id IS NOT NULL
+                ORDER BY o.data_object_id, e.relative_fno, e.block_id""";
+
+        List<String> starts = new ArrayList<>();
+        List<Long> blocks = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, name[0]);
+            ps.setString(2, name[1]);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    starts.add(rs.getString(1));
+                    blocks.add(rs.getLong(2));
+                }
+            }
+        }
+
+        long total = blocks.stream().mapToLong(Long::longValue).sum();
+        List<String> boundaries = new ArrayList<>();
+        long before = 0;
+        for (int i = 0; i < starts.size() && boundaries.size() < adviceNum - 1; i++) {
+            // cut before the extent once the blocks before it fill the next split
+            if (i > 0 && before * adviceNum >= total * (boundaries.size() + 1)) {
+                boundaries.add("CHARTOROWID('" + starts.get(i) + "')");
+            }
+            before += blocks.get(i);
+        }
+        return genRangeWhereClause("ROWID", boundaries);
+    }
+
+    /*
+     * The block count is taken from the size of the table file rather than pg_class.relpages,
+     * which is only refreshed by VACUUM and ANALYZE
+     */
+    private static List<String> genCtidRanges(Connection conn, String table, int adviceNum)
+            throws SQLException
+    {
+        String sql = "SELECT pg_relation_size(CAST(? AS regclass)) / current_setting('block_size')::bigint";
+        long pages = 0;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    pages = rs.getLong(1);
+                }
+            }
+        }
+
+        List<String> boundaries = new ArrayList<>();
+        long last = 0;
+        for (int i = 1; i < adviceNum; i++) {
+            long page = pages * i / adviceNum;
+            if (page > last) {
+                boundaries.add("'(" + page + ",0)'::tid");
+                last = page;
+            }
+        }
+        return genRangeWhereClause("ctid", boundaries);
+    }
+
+    /*
+     * Walk the primary key index with LIMIT/OFFSET, each step skips the estimated row count of a split,
+     * so the boundaries are found without sorting or reading the rows themselves
+     */
+    private static List<String> genKeyChunkRanges(Connection conn, String table, int adviceNum)
+            throws SQLException
+    {
+        String[] name = splitName(DataBaseType.MySql, table, false);
+        List<String> keyColumns = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement("SELECT COLUMN_NAME FROM information_schema.KEY_COLUMN_USAGE "
+                + "WHERE TABLE_SCHEMA = COALESCE(?, DATABASE()) AND TABLE_NAME = ? AND CONSTRAINT_NAME = 'PRIMARY' "
+                + "ORDER BY ORDINAL_POSITION")) {
+            ps.setString(1, name[0]);
+            ps.setString(2, name[1]);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    keyColumns.add(DataBaseType.MySql.quoteColumnName(rs.getString(1), true));
+                }
+            }
+        }
+        if (keyColumns.isEmpty()) {
+            LOG.warn("The table {} has no primary key to chunk.", table);
+            return List.of();
+        }
+
+        long rows = 0;
+        try (PreparedStatement ps = conn.prepareStatement("SELECT TABLE_ROWS FROM information_schema.TABLES "
+                + "WHERE TABLE_SCHEMA = COALESCE(?, DATABASE()) AND TABLE_NAME = ?")) {
+            ps.setString(1, name[0]);
+            ps.setString(2, name[1]);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    rows = rs.getLong(1);
+                }
+            }
+        }
+        long chunkRows = rows / adviceNum;
+        if (chunkRows < 1) {
+            return List.of();
+        }
+
+        String keys = String.join(", ", keyColumns);
+        String key = keyColumns.size() == 1 ? keys : "(" + keys + ")";
+        String params = keyColumns.size() == 1 ? "?" : "(" + String.join(", ", Collections.nCopies(keyColumns.size(), "?")) + ")";
+        String firstSql = String.format("SELECT %s FROM %s ORDER BY %s LIMIT %d, 1", keys, table, keys, chunkRows);
+        String nextSql = String.format("SELECT %s FROM %s WHERE %s >= %s ORDER BY %s LIMIT %d, 1", keys, table, key, params, keys, chunkRows);
+
+        List<String> boundaries = new ArrayList<>();
+        Object[] boundary = null;
+        while (boundaries.size() < adviceNum - 1) {
+            try (PreparedStatement ps = conn.prepareStatement(boundary == null ? firstSql : nextSql)) {
+                for (int i = 0; boundary != null && i < boundary.length; i++) {
+                    ps.setObject(i + 1, boundary[i]);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) {
+                        break;
+                    }
+                    boundary = new Object[keyColumns.size()];
+                    StringJoiner literal = new StringJoiner(", ", keyColumns.size() == 1 ? "" : "(", keyColumns.size() == 1 ? "" : ")");
+                    for (int i = 0; i < boundary.length; i++) {
+                        boundary[i] = rs.getObject(i + 1);
+                        literal.add(toMySqlLiteral(boundary[i]));
+                    }
+                    boundaries.add(literal.toString());
+                }
+            }
+        }
+        return genRangeWhereClause(key, boundaries);
+    }
+
+    private static String toMySqlLiteral(Object value)
+    {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        if (value instanceof byte[] bytes) {
+            return "X'" + HexFormat.of().formatHex(bytes) + "'";
+        }
+        return "'" + value.toString().replace("\\", "\\\\").replace("'", "''") + "'";
+    }
+
+    /**
+     * generate the where clauses of the ranges between the boundaries like the following:
+     * <p>
+     * key &lt; boundary1
+     * key &ge; boundary1 and key &lt; boundary2
+     * ....
+     * key &ge; boundaryN
+     * </p>
+     *
+     * @param key the expression compared with the boundaries
+     * @param boundaries the boundary literals in ascending order
+     * @return the list of where clause, empty if there is no boundary
+     */
+    private static List<String> genRangeWhereClause(String key, List<String> boundaries)
+    {
+        List<String> rangeSql = new ArrayList<>();
+        if (boundaries.isEmpty()) {
+            return rangeSql;
+        }
+        rangeSql.add(String.format("%s < %s", key, boundaries.get(0)));
+        for (int i = 0; i < boundaries.size() - 1; i++) {
+            rangeSql.add(String.format("%s >= %s AND %s < %s", key, boundaries.get(i), key, boundaries.get(i + 1)));
+        }
+        rangeSql.add(String.format("%s >= %s", key, boundaries.get(boundaries.size() - 1)));
+        return rangeSql;
+    }
+
+    // [schema or null, table] as the dictionary stores them, unquoted names are upper-cased if the database does so
+    private static String[] splitName(DataBaseType dataBaseType, String table, boolean upperCase)
+    {
+        int dot = table.lastIndexOf('.');
+        String schema = dot < 0 ? null : toDictionaryName(dataBaseType, table.substring(0, dot), upperCase);
+        return new String[] {schema, toDictionaryName(dataBaseType, table.substring(dot + 1), upperCase)};
+    }
+
+    private static String toDictionaryName(DataBaseType dataBaseType, String name, boolean upperCase)
+    {
+        String unquoted = dataBaseType.unQuote(name.trim());
+        if (!unquoted.equals(name.trim()) || !upperCase) {
+            return unquoted;
+        }
+        return unquoted.toUpperCase(Locale.ROOT);
+    }
+}
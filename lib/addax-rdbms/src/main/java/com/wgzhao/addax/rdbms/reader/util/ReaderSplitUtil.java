@@ -46,6 +46,8 @@ public final class ReaderSplitUtil
     /**
      * Splits the original reader configuration into multiple slice configurations for parallel execution.
      * Supports two modes: table-mode (splits tables) and query-mode (uses pre-defined queries).
+     * In table-mode a table is split by its split key, or by its physical storage when {@code splitMode} is physical,
+     * see {@link SplitMode}.
      *
      * @param dataBaseType The database type being read from
      * @param originalSliceConfig The original configuration to split
@@ -95,7 +97,9 @@ public final class ReaderSplitUtil
             Validate.isTrue(null != tables && !tables.isEmpty(), "Tables list cannot be null or empty");
 
             String splitPk = originalSliceConfig.getString(Key.SPLIT_PK, null);
-            boolean needSplitTable = tableSplitNumber > 0 && StringUtils.isNotBlank(splitPk);
+            SplitMode splitMode = SplitMode.of(originalSliceConfig.getString(Key.SPLIT_MODE, null));
+            boolean hasSplitPk = StringUtils.isNotBlank(splitPk);
+            boolean needSplitTable = tableSplitNumber > 0 && (hasSplitPk || splitMode == SplitMode.PHYSICAL);
             if (needSplitTable) {
                 // For single table scenarios, increase split multiplier for better parallelism
                 if (tables.size() == 1 && !isUserSpecifyEachTableSplitSize) {
@@ -106,7 +110,16 @@ public final class ReaderSplitUtil
                     tempSlice = sliceConfig.clone();
                     tempSlice.set(Key.TABLE, table);
 
-                    List<Configuration> splitSlices = SingleTableSplitUtil.splitSingleTable(dataBaseType, tempSlice, tableSplitNumber);
+                    List<Configuration> splitSlices = List.of();
+                    if (splitMode == SplitMode.PHYSICAL) {
+                        splitSlices = PhysicalSplitUtil.splitSingleTable(dataBaseType, tempSlice, tableSplitNumber);
+                    }
+                    if (splitSlices.isEmpty() && hasSplitPk) {
+                        splitSlices = SingleTableSplitUtil.splitSingleTable(dataBaseType, tempSlice, tableSplitNumber);
+                    }
+                    if (splitSlices.isEmpty()) {
+                        splitSlices = List.of(buildTableSlice(tempSlice, table, column, where));
+                    }
 
                     splitConfigs.addAll(splitSlices);
                 }
@@ -116,9 +129,7 @@ public final class ReaderSplitUtil
                 for (String table : tables) {
                     tempSlice = sliceConfig.clone();
                     tempSlice.set(Key.TABLE, table);
-                    String queryColumn = HintUtil.buildQueryColumn(table, column);
-                    tempSlice.set(Key.QUERY_SQL, SingleTableSplitUtil.buildQuerySql(queryColumn, table, where));
-                    splitConfigs.add(tempSlice);
+                    splitConfigs.add(buildTableSlice(tempSlice, table, column, where));
                 }
             }
         }
@@ -136,6 +147,15 @@ public final class ReaderSplitUtil
         return splitConfigs;
     }
 
+    // one slice reading the whole table
+    private static Configuration buildTableSlice(Configuration tableSlice, String table, String column, String where)
+    {
+        String queryColumn = HintUtil.buildQueryColumn(table, column);
+        tableSlice.set(Key.QUERY_SQL, SingleTableSplitUtil.buildQuerySql(queryColumn, table, where));
+        tableSlice.set(Key.SPLIT_RANGE, "");
+        return tableSlice;
+    }
+
     /**
      * Performs pre-check configuration splitting for validation purposes.
      * Generates the necessary SQL queries for table validation and split key analysis.
@@ -89,6 +89,7 @@ public class SingleTableSplitUtil
         if (adviceNum == 1) {
             LOG.warn("The adviceNumber is 1, so we only have one slice.");
             configuration.set(Key.QUERY_SQL, buildQuerySql(column, table, where));
+            configuration.set(Key.SPLIT_RANGE, "");
             pluginParams.add(configuration);
             return pluginParams;
         }
@@ -99,6 +100,7 @@ public class SingleTableSplitUtil
             //mean the split key only has null value
             LOG.warn("The min value is equal to the max value, or the split key has only null value to table {}. so we only have one slice.", table);
             configuration.set(Key.QUERY_SQL, buildQuerySql(column, table, where));
+            configuration.set(Key.SPLIT_RANGE, "");
             pluginParams.add(configuration);
             return pluginParams;
         }
@@ -111,6 +113,7 @@ public class SingleTableSplitUtil
 
             allQuerySql.add(tempQuerySql);
             tempConfig.set(Key.QUERY_SQL, tempQuerySql);
+            tempConfig.set(Key.SPLIT_RANGE, range);
             pluginParams.add(tempConfig);
         }
 
@@ -213,7 +216,8 @@ public class SingleTableSplitUtil
 
     /**
      * Generates primary key range SQL queries for splitting table data across multiple tasks.
-     * Supports numeric and string primary key types with appropriate splitting strategies.
+     * The split points come from the column statistics or a sample of the table when the database has them,
+     * see {@link SplitPointPlanner}, otherwise from the min and max value of the key.
      *
      * @param dataBaseType The database type for generating appropriate queries
      * @param splitPK The primary key column name to use for splitting
@@ -235,7 +239,13 @@ public class SingleTableSplitUtil
             return Collections.emptyList();
         }
 
-        List<Object> rangeValue;
+        // statistics or a sample first, they follow the distribution of the key without sorting the table
+        List<Object> rangeValue = SplitPointPlanner.plan(dataBaseType, configuration, pkMinAndMaxValue, adviceNum);
+        if (!rangeValue.isEmpty()) {
+            LOG.debug(JSON.toJSONString(rangeValue));
+            return genAllTypePkRangeWhereClause(splitPK, pkMinAndMaxValue, rangeValue);
+        }
+
         if (pkMinAndMaxValue.isNumeric()) {
             LOG.info("The type of split key is numeric, so we use the math algorithm to split the table.");
             rangeValue = pkMinAndMaxValue.genSplitPoint(adviceNum);
@@ -0,0 +1,60 @@
+/*
+ *
+ *  * Licensed to the Apache Software Foundation (ASF) under one
+ *  * or more contributor license agreements.  See the NOTICE file
+ *  * distributed with this work for additional information
+ *  * regarding copyright ownership.  The ASF licenses this file
+ *  * to you under the Apache License, Version 2.0 (the
+ *  * "License"); you may not use this file except in compliance
+ *  * with the License.  You may obtain a copy of the License at
+ *  *
+ *  *   http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing,
+ *  * software distributed under the License is distributed on an
+ *  * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  * KIND, either express or implied.  See the License for the
+ *  * specific language governing permissions and limitations
+ *  * under the License.
+ *
+ */
+
+
+package com.wgzhao.addax.rdbms.reader.util;
+
+import com.wgzhao.addax.core.exception.AddaxException;
+
+import java.util.Locale;
+
+import static com.wgzhao.addax.core.spi.ErrorCode.ILLEGAL_VALUE;
+
+/**
+ * How a table is split into reading tasks, the value of the reader item {@code splitMode}.
+ */
+public enum SplitMode
+{
+    /** Ranges of the split key, see {@link SingleTableSplitUtil} */
+    PK,
+    /** Ranges of the physical storage, see {@link PhysicalSplitUtil}, the split key is only used when the storage cannot be split */
+    PHYSICAL;
+
+    /**
+     * Parse the configured split mode
+     *
+     * @param value the configured value, null for the default {@link #PK}
+     * @return the split mode
+     */
+    public static SplitMode of(String value)
+    {
+        if (value == null || value.isBlank()) {
+            return PK;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+        catch (IllegalArgumentException e) {
+            throw AddaxException.asAddaxException(ILLEGAL_VALUE,
+                    "The splitMode '" + value + "' is invalid, it should be one of pk, physical.");
+        }
+    }
+}
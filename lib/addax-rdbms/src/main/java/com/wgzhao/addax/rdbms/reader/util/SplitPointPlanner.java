@@ -0,0 +1,479 @@
+/*
+ *
+ *  * Licensed to the Apache Software Foundation (ASF) under one
+ *  * or more contributor license agreements.  See the NOTICE file
+ *  * distributed with this work for additional information
+ *  * regarding copyright ownership.  The ASF licenses this file
+ *  * to you under the Apache License, Version 2.0 (the
+ *  * "License"); you may not use this file except in compliance
+ *  * with the License.  You may obtain a copy of the License at
+ *  *
+ *  *   http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing,
+ *  * software distributed under the License is distributed on an
+ *  * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  * KIND, either express or implied.  See the License for the
+ *  * specific language governing permissions and limitations
+ *  * under the License.
+ *
+ */
+
+
+package com.wgzhao.addax.rdbms.reader.util;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONArray;
+import com.wgzhao.addax.core.base.Key;
+import com.wgzhao.addax.core.exception.AddaxException;
+import com.wgzhao.addax.core.util.Configuration;
+import com.wgzhao.addax.rdbms.util.DBUtil;
+import com.wgzhao.addax.rdbms.util.DataBaseType;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Picks the split points of a table so that each split holds about the same number of rows, without sorting the table.
+ * <p>
+ * The points are taken, in this order, from:
+ * <ol>
+ *     <li>the column statistics of the database, only when there is no where clause because they cover the whole table:
+ *     MySQL histograms, PostgreSQL {@code pg_stats.histogram_bounds}, Oracle {@code ALL_TAB_HISTOGRAMS} and
+ *     SQL Server {@code sys.dm_db_stats_histogram}</li>
+ *     <li>a block sample of {@code samplePercentage} percent of the table, on PostgreSQL, Oracle and SQL Server,
+ *     only when the percentage is configured. The sample is cut into buckets by the database with NTILE,
+ *     so only the split points are fetched</li>
+ * </ol>
+ * An empty list means neither is usable, and the caller falls back to its own split points.
+ */
+final class SplitPointPlanner
+{
+    private static final Logger LOG = LoggerFactory.getLogger(SplitPointPlanner.class);
+
+    // sampling reads part of the table, so it is only done when asked for
+    private static final double DEFAULT_SAMPLE_PERCENTAGE = 0;
+
+    private static final Set<DataBaseType> STATISTICS_TYPES = EnumSet.of(DataBaseType.MySql, DataBaseType.PostgreSQL,
+            DataBaseType.Oracle, DataBaseType.SQLServer);
+
+    private static final Set<DataBaseType> SAMPLE_TYPES = EnumSet.of(DataBaseType.PostgreSQL, DataBaseType.Oracle, DataBaseType.SQLServer);
+
+    private SplitPointPlanner()
+    {
+    }
+
+    /*
+     * A value of the split key and the number of rows up to and including it,
+     * in the order of the database
+     */
+    private record Bound(String value, double cumulative)
+    {
+    }
+
+    /**
+     * Plan the split points of the table of the configuration
+     *
+     * @param dataBaseType the database type
+     * @param configuration the table configuration
+     * @param minMaxPackage the min and max value of the split key
+     * @param adviceNum the number of splits
+     * @return the split points in ascending order, excluding min and max, or an empty list
+     */
+    static List<Object> plan(DataBaseType dataBaseType, Configuration configuration, MinMaxPackage minMaxPackage, int adviceNum)
+    {
+        String splitPK = configuration.getString(Key.SPLIT_PK).trim();
+        String table = configuration.getString(Key.TABLE).trim();
+        String where = configuration.getString(Key.WHERE, null);
+        double samplePercentage = configuration.getDouble(Key.SAMPLE_PERCENTAGE, DEFAULT_SAMPLE_PERCENTAGE);
+        boolean useStatistics = StringUtils.isBlank(where) && STATISTICS_TYPES.contains(dataBaseType);
+        boolean useSample = samplePercentage > 0 && samplePercentage < 100 && SAMPLE_TYPES.contains(dataBaseType);
+        if (!useStatistics && !useSample) {
+            // nothing to ask the database for, do not open a connection
+            return List.of();
+        }
+
+        try (Connection conn = DBUtil.getConnection(dataBaseType, configuration.getString(Key.JDBC_URL),
+                configuration.getString(Key.USERNAME), configuration.getString(Key.PASSWORD))) {
+            if (useStatistics) {
+                List<Object> points = pick(readStatistics(dataBaseType, conn, table, splitPK, minMaxPackage), minMaxPackage, adviceNum);
+                if (isEnough(points, adviceNum)) {
+                    LOG.info("Use the column statistics of table {} to split by {}.", table, splitPK);
+                    return points;
+                }
+            }
+            if (useSample) {
+                List<Object> points = toPoints(readSample(dataBaseType, conn, table, splitPK, where, samplePercentage, adviceNum), minMaxPackage);
+                if (isEnough(points, adviceNum)) {
+                    LOG.info("Use a {}% sample of table {} to split by {}.", samplePercentage, table, splitPK);
+                    return points;
+                }
+            }
+        }
+        catch (AddaxException | SQLException e) {
+            // the planner is optional, the caller can still split without it
+            LOG.warn("Failed to plan the split points of table {}, use the default ones: {}", table, e.getMessage());
+        }
+        return List.of();
+    }
+
+    // a coarse histogram or a small sample giving less than half of the splits is worse than the fallback
+    private static boolean isEnough(List<Object> points, int adviceNum)
+    {
+        return !points.isEmpty() && points.size() >= (adviceNum - 1) / 2;
+    }
+
+    private static List<Bound> readStatistics(DataBaseType dataBaseType, Connection conn, String table, String splitPK, MinMaxPackage minMaxPackage)
+    {
+        try {
+            return switch (dataBaseType) {
+                case MySql -> readMySqlHistogram(conn, table, splitPK);
+                case PostgreSQL -> readPostgreSqlHistogram(conn, table, splitPK);
+                case Oracle -> readOracleHistogram(conn, table, splitPK, minMaxPackage);
+                case SQLServer -> readSqlServerHistogram(conn, table, splitPK);
+                default -> List.of();
+            };
+        }
+        catch (Exception e) {
+            // no privilege on the dictionary views, an older version without them, ...
+            LOG.info("The column statistics of table {} are not usable: {}", table, e.getMessage());
+            return List.of();
+        }
+    }
+
+    /*
+     * information_schema.COLUMN_STATISTICS (8.0+), filled by ANALYZE TABLE ... UPDATE HISTOGRAM.
+     * Equi-height buckets are [lower, upper, cumulative frequency, distinct values],
+     * singleton buckets are [value, cumulative frequency]
+     */
+    private static List<Bound> readMySqlHistogram(Connection conn, String table, String splitPK)
+            throws SQLException
+    {
+        String[] name = splitName(table, null);
+        String sql = "SELECT HISTOGRAM FROM information_schema.COLUMN_STATISTICS "
+                + "WHERE SCHEMA_NAME = COALESCE(?, DATABASE()) AND TABLE_NAME = ? AND COLUMN_NAME = ?";
+        String histogram = null;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, name[0]);
+            ps.setString(2, name[1]);
+            ps.setString(3, unquote(splitPK, null));
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    histogram = rs.getString(1);
+                }
+            }
+        }
+        List<Bound> bounds = new ArrayList<>();
+        if (histogram == null) {
+            return bounds;
+        }
+        JSONArray buckets = JSON.parseObject(histogram).getJSONArray("buckets");
+        for (int i = 0; buckets != null && i < buckets.size(); i++) {
+            JSONArray bucket = buckets.getJSONArray(i);
+            int upper = bucket.size() == 2 ? 0 : 1;
+            bounds.add(new Bound(decodeMySqlValue(bucket.get(upper)), bucket.getDoubleValue(upper + 1)));
+        }
+        return bounds;
+    }
+
+    // strings are kept as "base64:type254:<base64 of the value>"
+    private static String decodeMySqlValue(Object value)
+    {
+        String text = String.valueOf(value);
+        if (text.startsWith("base64:type")) {
+            return new String(Base64.getDecoder().decode(text.substring(text.indexOf(':', 7) + 1)), StandardCharsets.UTF_8);
+        }
+        return text;
+    }
+
+    /*
+     * histogram_bounds splits the values other than the most common ones into buckets of equal row count
+     */
+    private static List<Bound> readPostgreSqlHistogram(Connection conn, String table, String splitPK)
+            throws SQLException
+    {
+        String[] name = splitName(table, Case.LOWER);
+        String sql = "SELECT histogram_bounds::text FROM pg_stats "
+                + "WHERE schemaname = COALESCE(?, current_schema()) AND tablename = ? AND attname = ?";
+        String histogram = null;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, name[0]);
+            ps.setString(2, name[1]);
+            ps.setString(3, unquote(splitPK, Case.LOWER));
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    histogram = rs.getString(1);
+                }
+            }
+        }
+        List<Bound> bounds = new ArrayList<>();
+        if (histogram == null) {
+            return bounds;
+        }
+        List<String> values = parsePostgreSqlArray(histogram);
+        for (int i = 0; i < values.size(); i++) {
+            bounds.add(new Bound(values.get(i), i));
+        }
+        return bounds;
+    }
+
+    // parse an array literal such as {1,abc,"a,b","x\"y"}, NULL elements are dropped
+    private static List<String> parsePostgreSqlArray(String text)
+    {
+        List<String> values = new ArrayList<>();
+        String body = StringUtils.removeEnd(StringUtils.removeStart(text.trim(), "{"), "}");
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        for (int i = 0; i < body.length(); i++) {
+            char c = body.charAt(i);
+            if (quoted && c == '\\' && i + 1 < body.length()) {
+                current.append(body.charAt(++i));
+            }
+            else if (c == '"') {
+                quoted = !quoted;
+                wasQuoted = true;
+            }
+            else if (c == ',' && !quoted) {
+                addArrayElement(values, current.toString(), wasQuoted);
+                current.setLength(0);
+                wasQuoted = false;
+            }
+            else {
+                current.append(c);
+            }
+        }
+        if (!body.isEmpty()) {
+            addArrayElement(values, current.toString(), wasQuoted);
+        }
+        return values;
+    }
+
+    private static void addArrayElement(List<String> values, String element, boolean wasQuoted)
+    {
+        if (wasQuoted || !"NULL".equals(element)) {
+            values.add(element);
+        }
+    }
+
+    /*
+     * endpoint_number is the cumulative row count (frequency, hybrid) or bucket number (height balanced),
+     * both grow with the share of the rows up to the endpoint. Strings only have endpoint_actual_value
+     * when the leading characters are not unique enough, the others cannot be used
+     */
+    private static List<Bound> readOracleHistogram(Connection conn, String table, String splitPK, MinMaxPackage minMaxPackage)
+            throws SQLException
+    {
+        String[] name = splitName(table, Case.UPPER);
+        String sql = "SELECT endpoint_number, endpoint_value, endpoint_actual_value FROM all_tab_histograms "
+                + "WHERE owner = NVL(?, SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')) AND table_name = ? AND column_name = ? "
+                + "ORDER BY endpoint_number";
+        List<Bound> bounds = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, name[0]);
+            ps.setString(2, name[1]);
+            ps.setString(3, unquote(splitPK, Case.UPPER));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String value = minMaxPackage.isNumeric() ? rs.getString(2) : rs.getString(3);
+                    if (value == null) {
+                        return List.of();
+                    }
+                    bounds.add(new Bound(value, rs.getDouble(1)));
+                }
+            }
+        }
+        return bounds;
+    }
+
+    /*
+     * The histogram of the first statistics object led by the column, the same steps DBCC SHOW_STATISTICS ... WITH HISTOGRAM
+     * prints, but queryable (2016 SP1 and later)
+     */
+    private static List<Bound> readSqlServerHistogram(Connection conn, String table, String splitPK)
+            throws SQLException
+    {
+        String sql = """
+                SELECT h.range_high_key, h.range_rows + h.equal_rows
+                FROM (SELECT TOP 1 sc.object_id, sc.stats_id FROM sys.stats_columns sc
+                      WHERE sc.object_id = OBJECT_ID(?) AND sc.stats_column_id = 1 AND COL_NAME(sc.object_id, sc.column_id) = ?
+                      ORDER BY sc.stats_id) s
+                CROSS APPLY sys.dm_db_stats_histogram(s.object_id, s.stats_id) h
+                ORDER BY h.step_number""";
+        List<Bound> bounds = new ArrayList<>();
+        double cumulative = 0;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, table);
+            ps.setString(2, unquote(splitPK, null));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Object value = rs.getObject(1);
+                    cumulative += rs.getDouble(2);
+                    if (value != null) {
+                        bounds.add(new Bound(value.toString(), cumulative));
+                    }
+                }
+            }
+        }
+        return bounds;
+    }
+
+    /*
+     * Sample whole blocks, so only a fraction of the table is read, and cut the sample into adviceNum buckets of
+     * the same row count in the database, so only the bucket bounds come back. The buckets are ordered by the database,
+     * so that string points follow its collation
+     */
+    private static List<String> readSample(DataBaseType dataBaseType, Connection conn, String table, String splitPK, String where,
+            double percentage, int adviceNum)
+    {
+        String quotedPK = dataBaseType.quoteColumnName(splitPK);
+        String sampleClause = switch (dataBaseType) {
+            case PostgreSQL -> String.format(Locale.ROOT, "TABLESAMPLE SYSTEM (%s)", percentage);
+            case Oracle -> String.format(Locale.ROOT, "SAMPLE BLOCK (%s)", percentage);
+            case SQLServer -> String.format(Locale.ROOT, "TABLESAMPLE (%s PERCENT)", percentage);
+            default -> null;
+        };
+        List<String> points = new ArrayList<>();
+        if (sampleClause == null) {
+            return points;
+        }
+        String sql = String.format("""
+                        SELECT MAX(%1$s) FROM (
+                            SELECT %1$s, NTILE(%5$d) OVER (ORDER BY %1$s) AS bucket FROM %2$s %3$s WHERE %4$s%1$s IS NOT NULL
+                        ) t GROUP BY bucket ORDER BY bucket""",
+                quotedPK, table, sampleClause, StringUtils.isBlank(where) ? "" : "(" + where + ") AND ", adviceNum);
+
+        LOG.info("Sample split pk [sql={}] is running...", sql);
+        try (ResultSet rs = DBUtil.query(conn, sql, adviceNum)) {
+            while (DBUtil.asyncResultSetNext(rs)) {
+                points.add(rs.getString(1));
+            }
+        }
+        catch (Exception e) {
+            LOG.info("Failed to sample table {}: {}", table, e.getMessage());
+            return List.of();
+        }
+        // the upper bound of the last bucket is the max of the sample, not a split point
+        return points.isEmpty() ? points : points.subList(0, points.size() - 1);
+    }
+
+    /**
+     * Cut the bounds into splits of about the same number of rows
+     *
+     * @param bounds the bounds in the order of the database
+     * @param minMaxPackage the min and max value of the split key, points not between them are dropped
+     * @param adviceNum the number of splits
+     * @return the split points
+     */
+    private static List<Object> pick(List<Bound> bounds, MinMaxPackage minMaxPackage, int adviceNum)
+    {
+        List<String> picked = new ArrayList<>();
+        if (bounds.isEmpty() || adviceNum < 2) {
+            return new ArrayList<>();
+        }
+        double first = bounds.get(0).cumulative();
+        double total = bounds.get(bounds.size() - 1).cumulative() - first;
+        int j = 0;
+        for (int i = 1; i < adviceNum; i++) {
+            double target = first + total * i / adviceNum;
+            while (j < bounds.size() - 1 && bounds.get(j).cumulative() < target) {
+                j++;
+            }
+            picked.add(bounds.get(j).value());
+        }
+        return toPoints(picked, minMaxPackage);
+    }
+
+    private static List<Object> toPoints(List<String> picked, MinMaxPackage minMaxPackage)
+    {
+        return minMaxPackage.isNumeric() ? toNumericPoints(picked, minMaxPackage) : toStringPoints(picked, minMaxPackage);
+    }
+
+    private static List<Object> toNumericPoints(List<String> picked, MinMaxPackage minMaxPackage)
+    {
+        BigDecimal min = new BigDecimal(minMaxPackage.getMin().toString());
+        BigDecimal max = new BigDecimal(minMaxPackage.getMax().toString());
+        TreeSet<BigDecimal> points = new TreeSet<>();
+        for (String value : picked) {
+            BigDecimal point;
+            try {
+                point = new BigDecimal(value.trim());
+            }
+            catch (NumberFormatException e) {
+                continue;
+            }
+            if (minMaxPackage.isLong()) {
+                point = new BigDecimal(point.toBigInteger());
+            }
+            if (point.compareTo(min) > 0 && point.compareTo(max) < 0) {
+                points.add(point);
+            }
+        }
+        List<Object> result = new ArrayList<>(points.size());
+        for (BigDecimal point : points) {
+            result.add(minMaxPackage.isLong() ? point.toBigInteger() : point.toPlainString());
+        }
+        return result;
+    }
+
+    /*
+     * Strings are kept in the order of the database instead of being sorted again, the collation may differ from Java's.
+     * A point the range clause cannot hold is dropped
+     */
+    private static List<Object> toStringPoints(List<String> picked, MinMaxPackage minMaxPackage)
+    {
+        String min = minMaxPackage.getMin().toString();
+        String max = minMaxPackage.getMax().toString();
+        List<Object> result = new ArrayList<>();
+        String last = null;
+        for (String value : picked) {
+            if (value == null || value.contains("'") || value.equals(last) || value.equals(min) || value.equals(max)) {
+                continue;
+            }
+            result.add(value);
+            last = value;
+        }
+        return result;
+    }
+
+    private enum Case
+    {
+        UPPER, LOWER
+    }
+
+    // [schema or null, table], the unquoted parts folded to the case the dictionary stores them in
+    private static String[] splitName(String table, Case folding)
+    {
+        int dot = table.lastIndexOf('.');
+        if (dot < 0) {
+            return new String[] {null, unquote(table, folding)};
+        }
+        return new String[] {unquote(table.substring(0, dot), folding), unquote(table.substring(dot + 1), folding)};
+    }
+
+    private static String unquote(String name, Case folding)
+    {
+        String trimmed = name.trim();
+        if (trimmed.length() > 1 && "\"`[".indexOf(trimmed.charAt(0)) >= 0) {
+            return trimmed.substring(1, trimmed.length() - 1);
+        }
+        if (folding == Case.UPPER) {
+            return trimmed.toUpperCase(Locale.ROOT);
+        }
+        return folding == Case.LOWER ? trimmed.toLowerCase(Locale.ROOT) : trimmed;
+    }
+}
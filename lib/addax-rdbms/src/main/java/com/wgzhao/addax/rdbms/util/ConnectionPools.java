@@ -0,0 +1,235 @@
+/*
+ *
+ *  * Licensed to the Apache Software Foundation (ASF) under one
+ *  * or more contributor license agreements.  See the NOTICE file
+ *  * distributed with this work for additional information
+ *  * regarding copyright ownership.  The ASF licenses this file
+ *  * to you under the Apache License, Version 2.0 (the
+ *  * "License"); you may not use this file except in compliance
+ *  * with the License.  You may obtain a copy of the License at
+ *  *
+ *  *   http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing,
+ *  * software distributed under the License is distributed on an
+ *  * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  * KIND, either express or implied.  See the License for the
+ *  * specific language governing permissions and limitations
+ *  * under the License.
+ *
+ */
+
+
+package com.wgzhao.addax.rdbms.util;
+
+import com.wgzhao.addax.core.base.Key;
+import com.wgzhao.addax.core.job.JobScope;
+import com.wgzhao.addax.core.util.Configuration;
+import com.wgzhao.addax.core.util.container.CoreConstant;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The JDBC connection pools, one per driver, url and user of each job.
+ * <p>
+ * A pool is created by the first connection the job asks for and closed with its {@link JobScope}, so concurrent jobs
+ * in one JVM do not share or exhaust each other's pools. Its size follows the channels and the writer flush workers
+ * of the job unless {@code job.setting.jdbcPool.maxTotal} is set, see the {@code JOB_SETTING_JDBC_POOL_*} items of
+ * {@link CoreConstant}. A configured size below that demand is only warned about.
+ * Connections asked for outside a job come from pools that live as long as the JVM.
+ * <p>
+ * Taking a connection only locks the pool it comes from.
+ */
+final class ConnectionPools
+{
+    private static final Logger LOG = LoggerFactory.getLogger(ConnectionPools.class);
+
+    private static final int MIN_MAX_TOTAL = 8;
+
+    private static final int DEFAULT_MIN_IDLE = 2;
+
+    private static final Duration EVICTION_INTERVAL = Duration.ofSeconds(30);
+
+    private static final Map<PoolKey, Pool> POOLS = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> POOLS.values().forEach(Pool::close), "addax-ds-shutdown"));
+    }
+
+    private ConnectionPools()
+    {
+    }
+
+    // the scope is compared by identity, null for the pools outside a job
+    private record PoolKey(JobScope scope, String driverClassName, String url, String username)
+    {
+    }
+
+    /**
+     * Take a connection from the pool of the current job
+     *
+     * @param dataBaseType the database type
+     * @param jdbcUrl the JDBC url
+     * @param username the user
+     * @param password the password
+     * @param socketTimeout the socket timeout in seconds
+     * @return the connection, closing it returns it to the pool
+     * @throws SQLException if no connection can be opened
+     */
+    static Connection getConnection(DataBaseType dataBaseType, String jdbcUrl, String username, String password, int socketTimeout)
+            throws SQLException
+    {
+        String driverClassName;
+        String effectiveUrl = jdbcUrl;
+        if (effectiveUrl.contains("inceptor2")) {
+            LOG.warn("Detected 'inceptor2' in jdbcUrl; replacing with 'hive2' and using HiveDriver.");
+            effectiveUrl = effectiveUrl.replace("inceptor2", "hive2");
+            driverClassName = "org.apache.hive.jdbc.HiveDriver";
+        }
+        else if (effectiveUrl.startsWith("jdbc:hive2")) {
+            driverClassName = "org.apache.hive.jdbc.HiveDriver";
+        }
+        else {
+            driverClassName = dataBaseType.getDriverClassName();
+        }
+
+        JobScope scope = JobScope.current();
+        PoolKey key = new PoolKey(scope, driverClassName, effectiveUrl, username);
+        Pool pool = POOLS.get(key);
+        if (pool == null) {
+            String url = effectiveUrl;
+            pool = POOLS.computeIfAbsent(key, k -> createPool(k, dataBaseType, url, password, socketTimeout));
+        }
+        pool.fitChannels(scope);
+        return pool.dataSource.getConnection();
+    }
+
+    private static Pool createPool(PoolKey key, DataBaseType dataBaseType, String url, String password, int socketTimeout)
+    {
+        JobScope scope = key.scope();
+        Configuration setting = scope == null ? Configuration.newDefault() : scope.getConfiguration();
+
+        BasicDataSource ds = new BasicDataSource();
+        ds.setDriverClassName(key.driverClassName());
+        ds.setUrl(url);
+        ds.setUsername(key.username());
+        ds.setPassword(password);
+        ds.setMinIdle(setting.getInt(CoreConstant.JOB_SETTING_JDBC_POOL_MIN_IDLE, DEFAULT_MIN_IDLE));
+        ds.setMaxOpenPreparedStatements(200);
+        ds.setTestOnBorrow(setting.getBool(CoreConstant.JOB_SETTING_JDBC_POOL_TEST_ON_BORROW, true));
+        ds.setValidationQueryTimeout(Duration.ofSeconds(socketTimeout));
+        int maxWaitSeconds = setting.getInt(CoreConstant.JOB_SETTING_JDBC_POOL_MAX_WAIT_SECONDS, -1);
+        if (maxWaitSeconds > 0) {
+            ds.setMaxWait(Duration.ofSeconds(maxWaitSeconds));
+        }
+        int leakDetectionSeconds = setting.getInt(CoreConstant.JOB_SETTING_JDBC_POOL_LEAK_DETECTION_SECONDS, 0);
+        if (leakDetectionSeconds > 0) {
+            ds.setLogAbandoned(true);
+            ds.setRemoveAbandonedOnMaintenance(true);
+            ds.setRemoveAbandonedTimeout(Duration.ofSeconds(leakDetectionSeconds));
+            ds.setDurationBetweenEvictionRuns(EVICTION_INTERVAL);
+        }
+        // Vendor-specific properties
+        if (dataBaseType == DataBaseType.Oracle) {
+            ds.addConnectionProperty("oracle.jdbc.ReadTimeout", String.valueOf(socketTimeout * 1000L));
+        }
+        DriverManager.setLoginTimeout(socketTimeout);
+
+        Integer maxTotal = setting.getInt(CoreConstant.JOB_SETTING_JDBC_POOL_MAX_TOTAL);
+        Pool pool = new Pool(key, ds, maxTotal);
+        pool.fitChannels(scope);
+        if (scope != null) {
+            scope.register(() -> {
+                POOLS.remove(key, pool);
+                pool.close();
+            });
+        }
+        LOG.debug("Created the connection pool of {} for job {}.", url, scope == null ? "-" : scope.getJobId());
+        return pool;
+    }
+
+    private static final class Pool
+    {
+        private final PoolKey key;
+
+        private final BasicDataSource dataSource;
+
+        // null when the pool is sized by the channels of the job
+        private final Integer configuredMaxTotal;
+
+        private volatile int channels = -1;
+
+        Pool(PoolKey key, BasicDataSource dataSource, Integer configuredMaxTotal)
+        {
+            this.key = key;
+            this.dataSource = dataSource;
+            this.configuredMaxTotal = configuredMaxTotal;
+            if (configuredMaxTotal != null) {
+                dataSource.setMaxTotal(configuredMaxTotal);
+            }
+        }
+
+        void fitChannels(JobScope scope)
+        {
+            int current = scope == null ? 1 : scope.getChannelNumber();
+            if (current == channels) {
+                return;
+            }
+            channels = current;
+            int demand = demand(scope, current);
+            if (configuredMaxTotal == null) {
+                dataSource.setMaxTotal(Math.max(MIN_MAX_TOTAL, demand));
+            }
+            else if (configuredMaxTotal < demand) {
+                LOG.warn("The {} {} of {} is below the {} connections the {} channel(s) of the job may ask for, "
+                                + "tasks will wait for a free connection.",
+                        CoreConstant.JOB_SETTING_JDBC_POOL_MAX_TOTAL, configuredMaxTotal, key.url(), demand, current);
+            }
+        }
+
+        /*
+         * The readers and writers of the job may share the pool, and the job side runs its own queries.
+         * Each channel holds one reader connection and one writer connection per flush worker, plus two for the job.
+         * Speculative copies take channel slots too, but the straggler they replace may still hold its connections
+         * while it stops, so speculation adds one more channel.
+         */
+        private static int demand(JobScope scope, int channels)
+        {
+            if (scope == null) {
+                return 2 * channels + 2;
+            }
+            Configuration setting = scope.getConfiguration();
+            Integer flushWorkers = setting.getInt("job.content[0].writer.parameter." + Key.FLUSH_WORKERS);
+            if (flushWorkers == null) {
+                flushWorkers = setting.getInt(CoreConstant.JOB_CONTENT_WRITER_PARAMETER + "." + Key.FLUSH_WORKERS, 0);
+            }
+            int perChannel = 1 + Math.max(1, flushWorkers);
+            if (setting.getBool(CoreConstant.CORE_CONTAINER_TASK_SPECULATION, false)) {
+                channels++;
+            }
+            return perChannel * channels + 2;
+        }
+
+        void close()
+        {
+            int active = dataSource.getNumActive();
+            if (active > 0) {
+                LOG.warn("{} connection(s) to {} were not closed when the pool was closed.", active, key.url());
+            }
+            try {
+                dataSource.close();
+            }
+            catch (SQLException e) {
+                LOG.warn("Failed to close the connection pool of {}.", key.url(), e);
+            }
+        }
+    }
+}
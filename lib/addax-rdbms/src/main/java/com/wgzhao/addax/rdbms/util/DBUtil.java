@@ -27,20 +27,17 @@ import com.wgzhao.addax.core.base.Key;
 import com.wgzhao.addax.core.exception.AddaxException;
 import com.wgzhao.addax.core.util.Configuration;
 import com.wgzhao.addax.core.util.RetryUtil;
-import org.apache.commons.dbcp2.BasicDataSource;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.sql.DriverManager;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.sql.Statement;
-import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -60,8 +57,6 @@ public final class DBUtil
     private static final Logger LOG = LoggerFactory.getLogger(DBUtil.class);
     private static final int DEFAULT_SOCKET_TIMEOUT_SEC = 20_000;
 
-    private static final Map<String, BasicDataSource> DS_CACHE = new java.util.concurrent.ConcurrentHashMap<>();
-    private static volatile boolean shutdownHookRegistered = false;
 
     private DBUtil()
     {
@@ -225,7 +220,7 @@ public final class DBUtil
      * @return Connection instance
      * @throws RdbmsException if connection fails
      */
-    public static synchronized Connection getConnection(DataBaseType dataBaseType, String jdbcUrl, String username, String password)
+    public static Connection getConnection(DataBaseType dataBaseType, String jdbcUrl, String username, String password)
     {
         return getConnection(dataBaseType, jdbcUrl, username, password, DEFAULT_SOCKET_TIMEOUT_SEC);
     }
@@ -241,18 +236,14 @@ public final class DBUtil
      * @return Connection instance
      * @throws RdbmsException if connection fails
      */
-    public static synchronized Connection getConnection(DataBaseType dataBaseType, String jdbcUrl, String username, String password, int socketTimeout)
+    public static Connection getConnection(DataBaseType dataBaseType, String jdbcUrl, String username, String password, int socketTimeout)
     {
         try {
             if (jdbcUrl == null) {
                 throw new IllegalArgumentException("jdbcUrl must not be null");
             }
-            // Use shared cached datasource
-            BasicDataSource ds = getOrCreateDataSource(dataBaseType, jdbcUrl, username, password, socketTimeout);
-            try {
-                DriverManager.setLoginTimeout(socketTimeout);
-            } catch (Exception ignore) {}
-            return ds.getConnection();
+            // taken from the pool of the current job, see ConnectionPools
+            return ConnectionPools.getConnection(dataBaseType, jdbcUrl, username, password, socketTimeout);
         }
         catch (Exception e) {
             throw RdbmsException.asConnException(e, jdbcUrl);
@@ -708,56 +699,4 @@ public final class DBUtil
             throw e;
         }
     }
-
-    private static String dsKey(String driver, String url, String user) {
-        return driver + "|" + url + "|" + (user == null ? "" : user);
-    }
-
-    private static BasicDataSource getOrCreateDataSource(DataBaseType dataBaseType, String jdbcUrl, String username, String password, int socketTimeout) {
-        String driverClassName;
-        String effectiveUrl = jdbcUrl;
-        if (effectiveUrl != null && effectiveUrl.contains("inceptor2")) {
-            LOG.warn("Detected 'inceptor2' in jdbcUrl; replacing with 'hive2' and using HiveDriver.");
-            effectiveUrl = effectiveUrl.replace("inceptor2", "hive2");
-            driverClassName = "org.apache.hive.jdbc.HiveDriver";
-        } else if (effectiveUrl != null && effectiveUrl.startsWith("jdbc:hive2")) {
-            driverClassName = "org.apache.hive.jdbc.HiveDriver";
-        } else {
-            driverClassName = dataBaseType.getDriverClassName();
-        }
-        String key = dsKey(driverClassName, effectiveUrl, username);
-        BasicDataSource ds = DS_CACHE.get(key);
-        if (ds != null) {
-            return ds;
-        }
-        ds = new BasicDataSource();
-        ds.setDriverClassName(driverClassName);
-        ds.setUrl(effectiveUrl);
-        ds.setUsername(username);
-        ds.setPassword(password);
-        // Pool config (tuned conservatively)
-        ds.setMinIdle(2);
-        ds.setMaxTotal(8);
-        ds.setMaxOpenPreparedStatements(200);
-        ds.setValidationQueryTimeout(Duration.ofSeconds(socketTimeout));
-        // Vendor-specific properties
-        if (dataBaseType == DataBaseType.Oracle) {
-            ds.addConnectionProperty("oracle.jdbc.ReadTimeout", String.valueOf(socketTimeout * 1000L));
-        }
-        // Register shutdown hook once
-        if (!shutdownHookRegistered) {
-            synchronized (DBUtil.class) {
-                if (!shutdownHookRegistered) {
-                    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-                        DS_CACHE.values().forEach(d -> {
-                            try { d.close(); } catch (Exception ignore) {}
-                        });
-                    }, "addax-ds-shutdown"));
-                    shutdownHookRegistered = true;
-                }
-            }
-        }
-        BasicDataSource prev = DS_CACHE.putIfAbsent(key, ds);
-        return prev != null ? prev : ds;
-    }
 }
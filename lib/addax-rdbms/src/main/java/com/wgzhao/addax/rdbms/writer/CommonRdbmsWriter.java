@@ -329,6 +329,12 @@ public class CommonRdbmsWriter
         /** Metadata information about target table columns */
         protected List<Map<String, Object>> resultSetMetaData;
 
+        /** Number of threads executing batches on their own connections, 0 executes them on the writer thread */
+        protected int flushWorkers;
+
+        /** Maximum number of batches handed to the flush workers and not finished yet */
+        protected int maxPendingBatches;
+
         /**
          * Constructs a new Task instance for the specified database type.
          *
@@ -359,8 +365,16 @@ public class CommonRdbmsWriter
             this.postSqls = writerSliceConfig.getList(Key.POST_SQL, String.class);
             this.batchSize = writerSliceConfig.getInt(Key.BATCH_SIZE, Constant.DEFAULT_BATCH_SIZE);
             this.batchByteSize = writerSliceConfig.getInt(Key.BATCH_BYTE_SIZE, Constant.DEFAULT_BATCH_BYTE_SIZE);
-
             writeMode = writerSliceConfig.getString(Key.WRITE_MODE, "INSERT");
+            this.flushWorkers = Math.max(0, writerSliceConfig.getInt(Key.FLUSH_WORKERS, 0));
+            if (flushWorkers > 1 && !"insert".equalsIgnoreCase(writeMode)) {
+                // batches of replace/update/merge statements may touch the same key, run them one after another
+                LOG.warn("The writeMode [{}] keeps the row versions in order only with one flush worker, " +
+                        "use 1 instead of the configured {} {}.", writeMode, Key.FLUSH_WORKERS, flushWorkers);
+                this.flushWorkers = 1;
+            }
+            this.maxPendingBatches = writerSliceConfig.getInt(Key.MAX_PENDING_BATCHES, 2 * Math.max(1, flushWorkers));
+
             emptyAsNull = writerSliceConfig.getBool(Key.EMPTY_AS_NULL, true);
             insertOrReplaceTemplate = writerSliceConfig.getString(Constant.INSERT_OR_REPLACE_TEMPLATE_MARK);
             this.writeRecordSql = String.format(insertOrReplaceTemplate, this.table);
@@ -399,6 +413,107 @@ public class CommonRdbmsWriter
         public void startWriteWithConnection(RecordReceiver recordReceiver, TaskPluginCollector taskPluginCollector, Connection connection, boolean supportCommit)
         {
             this.taskPluginCollector = taskPluginCollector;
+            prepareWriteRecordSql(connection);
+
+            List<Record> writeBuffer = new ArrayList<>(this.batchSize);
+            int bufferBytes = 0;
+            try {
+                Record record;
+                while ((record = recordReceiver.getFromReader()) != null) {
+                    checkColumnNumber(record);
+
+                    writeBuffer.add(record);
+                    bufferBytes += record.getMemorySize();
+
+                    if (writeBuffer.size() >= batchSize || bufferBytes >= batchByteSize) {
+                        doBatchInsert(connection, writeBuffer, supportCommit);
+                        recycle(recordReceiver, writeBuffer);
+                        bufferBytes = 0;
+                    }
+                }
+                if (!writeBuffer.isEmpty()) {
+                    doBatchInsert(connection, writeBuffer, supportCommit);
+                    recycle(recordReceiver, writeBuffer);
+                }
+            }
+            catch (Exception e) {
+                throw AddaxException.asAddaxException(
+                        EXECUTE_FAIL, e);
+            }
+            finally {
+                writeBuffer.clear();
+                DBUtil.closeDBResources(null, null, connection);
+            }
+        }
+
+        /**
+         * Start writing records while {@code flushWorkers} threads execute the batches, each on its own connection.
+         * The writer thread only reads records and cuts batches, the provided connection is used to resolve the
+         * table metadata and closed afterwards.
+         *
+         * @param recordReceiver record data source
+         * @param writerSliceConfig the writer configuration used to open the worker connections
+         * @param taskPluginCollector dirty record collector
+         * @param connection JDBC connection
+         * @param supportCommit whether commit/rollback is supported
+         */
+        protected void startPipelinedWrite(RecordReceiver recordReceiver, Configuration writerSliceConfig, TaskPluginCollector taskPluginCollector,
+                Connection connection, boolean supportCommit)
+        {
+            try {
+                prepareWriteRecordSql(connection);
+            }
+            finally {
+                DBUtil.closeDBResources(null, null, connection);
+            }
+
+            PipelinedBatchWriter pipeline = new PipelinedBatchWriter(flushWorkers, maxPendingBatches,
+                    () -> {
+                        Connection workerConnection = DBUtil.getConnection(dataBaseType, jdbcUrl, username, password);
+                        DBUtil.dealWithSessionConfig(workerConnection, writerSliceConfig, dataBaseType, basicMessage);
+                        return workerConnection;
+                    },
+                    (workerConnection, batch) -> doBatchInsert(workerConnection, batch, supportCommit),
+                    recordReceiver, taskPluginCollector);
+            // dirty records found by the workers are reported by the pipeline in batch order
+            this.taskPluginCollector = pipeline.getCollector();
+
+            List<Record> writeBuffer = new ArrayList<>(this.batchSize);
+            int bufferBytes = 0;
+            try {
+                Record record;
+                while ((record = recordReceiver.getFromReader()) != null) {
+                    checkColumnNumber(record);
+
+                    writeBuffer.add(record);
+                    bufferBytes += record.getMemorySize();
+
+                    if (writeBuffer.size() >= batchSize || bufferBytes >= batchByteSize) {
+                        pipeline.submit(writeBuffer);
+                        writeBuffer = new ArrayList<>(this.batchSize);
+                        bufferBytes = 0;
+                    }
+                }
+                if (!writeBuffer.isEmpty()) {
+                    pipeline.submit(writeBuffer);
+                }
+                pipeline.finish();
+            }
+            catch (Exception e) {
+                throw AddaxException.asAddaxException(
+                        EXECUTE_FAIL, e);
+            }
+            finally {
+                pipeline.close();
+                this.taskPluginCollector = taskPluginCollector;
+            }
+        }
+
+        /*
+         * Resolve the column metadata of the target table and build the statement executed for each batch
+         */
+        private void prepareWriteRecordSql(Connection connection)
+        {
             List<String> mergeColumns = new ArrayList<>();
 
             if ((this.dataBaseType == DataBaseType.Oracle || this.dataBaseType == DataBaseType.SQLServer)
@@ -432,41 +547,27 @@ public class CommonRdbmsWriter
 
             // combine the insert statement
             calcWriteRecordSql();
+        }
 
-            List<Record> writeBuffer = new ArrayList<>(this.batchSize);
-            int bufferBytes = 0;
-            try {
-                Record record;
-                while ((record = recordReceiver.getFromReader()) != null) {
-                    if (record.getColumnNumber() != this.columnNumber) {
-                        throw AddaxException.asAddaxException(
-                                CONFIG_ERROR,
-                                "The item column number " + record.getColumnNumber() + " in source file not equals the column number " + columnNumber + " in table."
-                        );
-                    }
-
-                    writeBuffer.add(record);
-                    bufferBytes += record.getMemorySize();
-
-                    if (writeBuffer.size() >= batchSize || bufferBytes >= batchByteSize) {
-                        doBatchInsert(connection, writeBuffer, supportCommit);
-                        writeBuffer.clear();
-                        bufferBytes = 0;
-                    }
-                }
-                if (!writeBuffer.isEmpty()) {
-                    doBatchInsert(connection, writeBuffer, supportCommit);
-                    writeBuffer.clear();
-                }
-            }
-            catch (Exception e) {
+        private void checkColumnNumber(Record record)
+        {
+            if (record.getColumnNumber() != this.columnNumber) {
                 throw AddaxException.asAddaxException(
-                        EXECUTE_FAIL, e);
+                        CONFIG_ERROR,
+                        "The item column number " + record.getColumnNumber() + " in source file not equals the column number " + columnNumber + " in table."
+                );
             }
-            finally {
-                writeBuffer.clear();
-                DBUtil.closeDBResources(null, null, connection);
+        }
+
+        /*
+         * The statement has been executed and dirty records already collected, hand the records back and empty the buffer
+         */
+        private void recycle(RecordReceiver recordReceiver, List<Record> writeBuffer)
+        {
+            for (Record record : writeBuffer) {
+                recordReceiver.recycle(record);
             }
+            writeBuffer.clear();
         }
 
         /**
@@ -480,7 +581,12 @@ public class CommonRdbmsWriter
         {
             Connection connection = DBUtil.getConnection(dataBaseType, jdbcUrl, username, password);
             DBUtil.dealWithSessionConfig(connection, writerSliceConfig, dataBaseType, basicMessage);
-            startWriteWithConnection(recordReceiver, taskPluginCollector, connection, true);
+            if (flushWorkers > 0) {
+                startPipelinedWrite(recordReceiver, writerSliceConfig, taskPluginCollector, connection, true);
+            }
+            else {
+                startWriteWithConnection(recordReceiver, taskPluginCollector, connection, true);
+            }
         }
 
         /**
@@ -495,7 +601,12 @@ public class CommonRdbmsWriter
         {
             Connection connection = DBUtil.getConnection(dataBaseType, jdbcUrl, username, password);
             DBUtil.dealWithSessionConfig(connection, writerSliceConfig, dataBaseType, basicMessage);
-            startWriteWithConnection(recordReceiver, taskPluginCollector, connection, supportCommit);
+            if (flushWorkers > 0) {
+                startPipelinedWrite(recordReceiver, writerSliceConfig, taskPluginCollector, connection, supportCommit);
+            }
+            else {
+                startWriteWithConnection(recordReceiver, taskPluginCollector, connection, supportCommit);
+            }
         }
 
         /**
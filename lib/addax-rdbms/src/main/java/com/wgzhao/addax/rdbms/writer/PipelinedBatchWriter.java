@@ -0,0 +1,284 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wgzhao.addax.rdbms.writer;
+
+import com.wgzhao.addax.core.element.Record;
+import com.wgzhao.addax.core.exception.AddaxException;
+import com.wgzhao.addax.core.plugin.RecordReceiver;
+import com.wgzhao.addax.core.plugin.TaskPluginCollector;
+import com.wgzhao.addax.rdbms.util.DBUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+
+import static com.wgzhao.addax.core.spi.ErrorCode.EXECUTE_FAIL;
+
+/**
+ * Executes the batches of one writer task on several connections while the writer thread keeps reading.
+ * <p>
+ * The writer thread cuts batches and {@link #submit(List)}s them; each flush worker owns a connection and executes
+ * whatever batch comes next. At most {@code maxPendingBatches} batches are submitted and not completed, beyond that
+ * {@code submit} waits for the oldest one. Batches are completed on the writer thread in the order they were
+ * submitted: their dirty records are reported, the first failure is rethrown and the records are handed back to the
+ * receiver, so the collector and the record recycling still see a single thread in the original order.
+ */
+final class PipelinedBatchWriter
+{
+    private static final Logger LOG = LoggerFactory.getLogger(PipelinedBatchWriter.class);
+
+    // tells a worker to stop
+    private static final Batch POISON = new Batch(List.of());
+
+    private final BlockingQueue<Batch> queue = new LinkedBlockingQueue<>();
+
+    private final Deque<Batch> pending = new ArrayDeque<>();
+
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final int maxPendingBatches;
+
+    private final RecordReceiver recordReceiver;
+
+    private final TaskPluginCollector taskPluginCollector;
+
+    private final BatchCollector batchCollector;
+
+    private boolean closed = false;
+
+    /**
+     * Execute one batch on the given connection
+     */
+    @FunctionalInterface
+    interface BatchInsert
+    {
+        void insert(Connection connection, List<Record> batch)
+                throws SQLException;
+    }
+
+    PipelinedBatchWriter(int flushWorkers, int maxPendingBatches, Supplier<Connection> connectionFactory, BatchInsert batchInsert,
+            RecordReceiver recordReceiver, TaskPluginCollector taskPluginCollector)
+    {
+        this.maxPendingBatches = Math.max(1, maxPendingBatches);
+        this.recordReceiver = recordReceiver;
+        this.taskPluginCollector = taskPluginCollector;
+        this.batchCollector = new BatchCollector(taskPluginCollector);
+
+        String prefix = Thread.currentThread().getName();
+        for (int i = 0; i < flushWorkers; i++) {
+            // the worker inherits the context class loader of the writer thread, i.e. the plugin class loader with the driver
+            Thread worker = new Thread(() -> work(connectionFactory, batchInsert), prefix + "-flush-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+        LOG.info("Write with {} flush workers and at most {} pending batches.", flushWorkers, this.maxPendingBatches);
+    }
+
+    /**
+     * @return the collector the task must use while the pipeline runs, it keeps the dirty records of each batch apart
+     */
+    TaskPluginCollector getCollector()
+    {
+        return batchCollector;
+    }
+
+    /**
+     * Hand a batch to the flush workers, the list must not be reused by the caller
+     *
+     * @param batch the records to write
+     */
+    void submit(List<Record> batch)
+            throws InterruptedException
+    {
+        while (pending.size() >= maxPendingBatches) {
+            completeOldest();
+        }
+        Batch next = new Batch(batch);
+        pending.addLast(next);
+        queue.put(next);
+        while (!pending.isEmpty() && pending.peekFirst().isDone()) {
+            completeOldest();
+        }
+    }
+
+    /**
+     * Wait for every submitted batch and complete them in order
+     */
+    void finish()
+            throws InterruptedException
+    {
+        while (!pending.isEmpty()) {
+            completeOldest();
+        }
+    }
+
+    /**
+     * Stop the workers and close their connections, pending batches are dropped
+     */
+    void close()
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        queue.clear();
+        for (int i = 0; i < workers.size(); i++) {
+            queue.add(POISON);
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    private void completeOldest()
+            throws InterruptedException
+    {
+        Batch batch = pending.pollFirst();
+        batch.done.await();
+        for (DirtyRecord dirty : batch.dirtyRecords) {
+            taskPluginCollector.collectDirtyRecord(dirty.record(), dirty.throwable(), dirty.errorMessage());
+        }
+        if (batch.failure != null) {
+            throw AddaxException.asAddaxException(EXECUTE_FAIL, batch.failure);
+        }
+        for (Record record : batch.records) {
+            recordReceiver.recycle(record);
+        }
+    }
+
+    private void work(Supplier<Connection> connectionFactory, BatchInsert batchInsert)
+    {
+        Connection connection = null;
+        Throwable connectionFailure = null;
+        try {
+            connection = connectionFactory.get();
+        }
+        catch (Throwable t) {
+            connectionFailure = t;
+        }
+        try {
+            while (true) {
+                Batch batch = queue.take();
+                if (batch == POISON) {
+                    return;
+                }
+                if (connectionFailure != null) {
+                    batch.failure = connectionFailure;
+                    batch.done.countDown();
+                    continue;
+                }
+                batchCollector.current.set(batch);
+                try {
+                    batchInsert.insert(connection, batch.records);
+                }
+                catch (Throwable t) {
+                    batch.failure = t;
+                }
+                finally {
+                    batchCollector.current.remove();
+                    batch.done.countDown();
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        finally {
+            DBUtil.closeDBResources(null, null, connection);
+        }
+    }
+
+    private static final class Batch
+    {
+        private final List<Record> records;
+
+        private final List<DirtyRecord> dirtyRecords = new ArrayList<>();
+
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        // written by the worker before done is counted down
+        private Throwable failure;
+
+        Batch(List<Record> records)
+        {
+            this.records = records;
+        }
+
+        boolean isDone()
+        {
+            return done.getCount() == 0;
+        }
+    }
+
+    private record DirtyRecord(Record record, Throwable throwable, String errorMessage)
+    {
+    }
+
+    /*
+     * Keeps the dirty records found by a worker with the batch it is executing,
+     * anything collected outside a batch goes straight to the task collector
+     */
+    private static final class BatchCollector
+            extends TaskPluginCollector
+    {
+        private final ThreadLocal<Batch> current = new ThreadLocal<>();
+
+        private final TaskPluginCollector delegate;
+
+        BatchCollector(TaskPluginCollector delegate)
+        {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void collectDirtyRecord(Record dirtyRecord, Throwable t, String errorMessage)
+        {
+            Batch batch = current.get();
+            if (batch != null) {
+                batch.dirtyRecords.add(new DirtyRecord(dirtyRecord, t, errorMessage));
+            }
+            else {
+                delegate.collectDirtyRecord(dirtyRecord, t, errorMessage);
+            }
+        }
+
+        @Override
+        public synchronized void collectMessage(String key, String value)
+        {
+            delegate.collectMessage(key, value);
+        }
+    }
+}
@@ -260,6 +260,8 @@ public final class StorageReaderUtil
 
     /**
      * Transport one record by parsing a single line of text.
+     * The options are read from the configuration on every call, readers handling many lines should bind
+     * them once with {@link TextLineOptions#from(Configuration)}.
      *
      * @param recordSender sender for the processed record
      * @param configuration configuration containing column and delimiter info
@@ -269,16 +271,23 @@ public final class StorageReaderUtil
     public static void transportOneRecord(RecordSender recordSender, Configuration configuration,
             TaskPluginCollector taskPluginCollector, String line)
     {
-        List<ColumnEntry> column = getListColumnEntry(configuration, Key.COLUMN);
-        // The nullFormat has no default value
-        String nullFormat = configuration.getString(Key.NULL_FORMAT);
-
-        // Note: default value is ',', fieldDelimiter could be \n(lineDelimiter) for no fieldDelimiter
-        Character fieldDelimiter = configuration.getChar(Key.FIELD_DELIMITER, Constant.DEFAULT_FIELD_DELIMITER);
+        transportOneRecord(recordSender, TextLineOptions.from(configuration), taskPluginCollector, line);
+    }
 
-        String[] sourceLine = StringUtils.split(line, fieldDelimiter);
+    /**
+     * Transport one record by parsing a single line of text.
+     *
+     * @param recordSender sender for the processed record
+     * @param options the column, null format and delimiter options of the task
+     * @param taskPluginCollector collector for error handling
+     * @param line the line of text to parse
+     */
+    public static void transportOneRecord(RecordSender recordSender, TextLineOptions options,
+            TaskPluginCollector taskPluginCollector, String line)
+    {
+        String[] sourceLine = StringUtils.split(line, options.fieldDelimiter());
 
-        transportOneRecord(recordSender, column, sourceLine, nullFormat, taskPluginCollector);
+        transportOneRecord(recordSender, options.columns(), sourceLine, options.nullFormat(), taskPluginCollector);
     }
 
     /**
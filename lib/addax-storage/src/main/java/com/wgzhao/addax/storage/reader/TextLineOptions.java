@@ -0,0 +1,61 @@
+/*
+ *
+ *  * Licensed to the Apache Software Foundation (ASF) under one
+ *  * or more contributor license agreements.  See the NOTICE file
+ *  * distributed with this work for additional information
+ *  * regarding copyright ownership.  The ASF licenses this file
+ *  * to you under the Apache License, Version 2.0 (the
+ *  * "License"); you may not use this file except in compliance
+ *  * with the License.  You may obtain a copy of the License at
+ *  *
+ *  *   http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing,
+ *  * software distributed under the License is distributed on an
+ *  * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  * KIND, either express or implied.  See the License for the
+ *  * specific language governing permissions and limitations
+ *  * under the License.
+ *
+ */
+
+package com.wgzhao.addax.storage.reader;
+
+import com.wgzhao.addax.core.base.Constant;
+import com.wgzhao.addax.core.base.Key;
+import com.wgzhao.addax.core.element.ColumnEntry;
+import com.wgzhao.addax.core.util.Configuration;
+
+import java.util.List;
+
+/**
+ * The options needed to turn a delimited text line into a record, read from the task configuration once
+ * so that the per-line code does not look them up again.
+ *
+ * @param columns the column definitions, empty to read every field as a string
+ * @param nullFormat the text standing for null, null if there is none
+ * @param fieldDelimiter the field delimiter
+ */
+public record TextLineOptions(List<ColumnEntry> columns, String nullFormat, char fieldDelimiter)
+{
+    public TextLineOptions
+    {
+        columns = columns == null ? List.of() : List.copyOf(columns);
+    }
+
+    /**
+     * Bind the options of a reader task
+     *
+     * @param configuration the reader slice configuration
+     * @return the options
+     */
+    public static TextLineOptions from(Configuration configuration)
+    {
+        return new TextLineOptions(
+                StorageReaderUtil.getListColumnEntry(configuration, Key.COLUMN),
+                // The nullFormat has no default value
+                configuration.getString(Key.NULL_FORMAT),
+                // Note: default value is ',', fieldDelimiter could be \n(lineDelimiter) for no fieldDelimiter
+                configuration.getChar(Key.FIELD_DELIMITER, Constant.DEFAULT_FIELD_DELIMITER));
+    }
+}
@@ -445,6 +445,7 @@ public final class StorageWriterUtil
                 if (result != null) {
                     csvPrinter.printRecord(result);
                 }
+                lineReceiver.recycle(record);
             }
         }
     }
@@ -529,6 +530,7 @@ public final class StorageWriterUtil
         Record record;
         while ((record = lineReceiver.getFromReader()) != null) {
             appendRecordValues(record, sb);
+            lineReceiver.recycle(record);
 
             if (extendedInsert) {
                 currentBatchSize++;
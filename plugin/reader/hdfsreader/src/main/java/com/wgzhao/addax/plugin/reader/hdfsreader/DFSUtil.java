@@ -31,6 +31,7 @@ import com.wgzhao.addax.core.plugin.RecordSender;
 import com.wgzhao.addax.core.plugin.TaskPluginCollector;
 import com.wgzhao.addax.core.util.Configuration;
 import com.wgzhao.addax.storage.reader.StorageReaderUtil;
+import com.wgzhao.addax.storage.reader.TextLineOptions;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
@@ -286,9 +287,10 @@ public class DFSUtil
             //获取key 与 value
             Writable key = (Writable) ReflectionUtils.newInstance(reader.getKeyClass(), this.hadoopConf);
             Text value = new Text();
+            TextLineOptions options = TextLineOptions.from(readerSliceConfig);
             while (reader.next(key, value)) {
                 if (StringUtils.isNotBlank(value.toString())) {
-                    StorageReaderUtil.transportOneRecord(recordSender, readerSliceConfig, taskPluginCollector, value.toString());
+                    StorageReaderUtil.transportOneRecord(recordSender, options, taskPluginCollector, value.toString());
                 }
             }
         }
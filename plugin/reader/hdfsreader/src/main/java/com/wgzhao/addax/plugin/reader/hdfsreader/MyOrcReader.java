@@ -25,6 +25,7 @@ import com.wgzhao.addax.core.element.ColumnEntry;
 import com.wgzhao.addax.core.element.DoubleColumn;
 import com.wgzhao.addax.core.element.LongColumn;
 import com.wgzhao.addax.core.element.Record;
+import com.wgzhao.addax.core.element.RecordBatch;
 import com.wgzhao.addax.core.element.StringColumn;
 import com.wgzhao.addax.core.element.TimestampColumn;
 import com.wgzhao.addax.core.exception.AddaxException;
@@ -47,6 +48,7 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Date;
@@ -90,8 +92,16 @@ public class MyOrcReader
 
             VectorizedRowBatch rowBatch = schema.createRowBatch(1024);
             org.apache.orc.RecordReader rowIterator = reader.rows(reader.options().schema(schema));
-            while (rowIterator.nextBatch(rowBatch)) {
-                buildRecord(rowBatch, recordSender, taskPluginCollector, nullFormat);
+            if (recordSender.isRecordBatchEnabled()) {
+                Column.Type[] types = getBatchTypes();
+                while (rowIterator.nextBatch(rowBatch)) {
+                    buildRecordBatch(rowBatch, types, recordSender, taskPluginCollector);
+                }
+            }
+            else {
+                while (rowIterator.nextBatch(rowBatch)) {
+                    buildRecord(rowBatch, recordSender, taskPluginCollector, nullFormat);
+                }
             }
         }
         catch (Exception e) {
@@ -143,6 +153,95 @@ public class MyOrcReader
         }
     }
 
+    /*
+     * The vector type of each output column in the columnar transport. The row view of a batch holds the values
+     * buildRecord builds, except that:
+     * - a null cell is a null column of the vector type, where buildRecord adds a StringColumn(null)
+     * - TIMESTAMP keeps its nanoseconds, buildRecord keeps milliseconds
+     * - TINYINT, SMALLINT and INTEGER are read from their long vector, buildRecord has no branch for them
+     * BOOLEAN is a LONG of 0 or 1 in both, not a BoolColumn.
+     */
+    private Column.Type[] getBatchTypes()
+    {
+        Column.Type[] types = new Column.Type[columnEntries.size()];
+        for (int i = 0; i < types.length; i++) {
+            ColumnEntry column = columnEntries.get(i);
+            if (column.getValue() != null) {
+                types[i] = Column.Type.STRING;
+                continue;
+            }
+            types[i] = switch (JavaType.valueOf(column.getType().toUpperCase())) {
+                case TINYINT, SMALLINT, INT, INTEGER, LONG, BOOLEAN, BIGINT -> Column.Type.LONG;
+                case FLOAT, DOUBLE, DECIMAL -> Column.Type.DOUBLE;
+                case BINARY -> Column.Type.BYTES;
+                case TIMESTAMP -> Column.Type.TIMESTAMP;
+                default -> Column.Type.STRING;
+            };
+        }
+        return types;
+    }
+
+    private void buildRecordBatch(VectorizedRowBatch rowBatch, Column.Type[] types, RecordSender recordSender,
+            TaskPluginCollector taskPluginCollector)
+    {
+        RecordBatch batch = recordSender.createRecordBatch(types, Math.max(rowBatch.size, 1));
+        byte[] nullFormatBytes = nullFormat == null ? null : nullFormat.getBytes(StandardCharsets.UTF_8);
+        for (int row = 0; row < rowBatch.size; row++) {
+            int r = batch.addRow();
+            try {
+                for (int c = 0; c < types.length; c++) {
+                    ColumnEntry column = columnEntries.get(c);
+                    if (column.getValue() != null) {
+                        batch.setString(c, r, "null".equals(column.getValue()) ? nullFormat : column.getValue());
+                        continue;
+                    }
+                    ColumnVector col = rowBatch.cols[column.getIndex()];
+                    if (col.isNull[row]) {
+                        // addRow() starts every column as null
+                        continue;
+                    }
+                    JavaType type = JavaType.valueOf(column.getType().toUpperCase());
+                    switch (type) {
+                        case ARRAY -> batch.setString(c, r, getArrayColumn(nullFormat, (ListColumnVector) col, row).asString());
+                        case MAP -> batch.setString(c, r, getMapColumn(nullFormat, (MapColumnVector) col, row).asString());
+                        case DECIMAL -> batch.setDouble(c, r, ((DecimalColumnVector) col).vector[row].doubleValue());
+                        case DATE -> batch.setString(c, r, getPrimitiveColumn(nullFormat, type, col, row).asString());
+                        case TIMESTAMP -> {
+                            TimestampColumnVector ts = (TimestampColumnVector) col;
+                            batch.setTimestamp(c, r, ts.getTime(row), ts.getNanos(row));
+                        }
+                        default -> {
+                            switch (types[c]) {
+                                case LONG -> batch.setLong(c, r, ((LongColumnVector) col).vector[row]);
+                                case DOUBLE -> batch.setDouble(c, r, ((DoubleColumnVector) col).vector[row]);
+                                default -> {
+                                    BytesColumnVector b = (BytesColumnVector) col;
+                                    int start = b.start[row];
+                                    int length = b.length[row];
+                                    if (types[c] == Column.Type.STRING && nullFormatBytes != null
+                                            && Arrays.equals(b.vector[row], start, start + length, nullFormatBytes, 0, nullFormatBytes.length)) {
+                                        continue;
+                                    }
+                                    batch.setBytes(c, r, b.vector[row], start, length);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            catch (Exception e) {
+                if (e instanceof AddaxException ae) {
+                    throw ae;
+                }
+                Record record = recordSender.createRecord();
+                batch.fillRecord(r, record);
+                batch.discardLastRow();
+                taskPluginCollector.collectDirtyRecord(record, e.getMessage());
+            }
+        }
+        recordSender.sendBatchToWriter(batch);
+    }
+
     private static @NotNull Column getMapColumn(String nullFormat, MapColumnVector col, int row) {
         var mapBuilder = new StringBuilder("{");
         // all value type must be same
@@ -26,10 +26,12 @@ import com.wgzhao.addax.core.base.Key;
 import com.wgzhao.addax.core.element.Column;
 import com.wgzhao.addax.core.element.DateColumn;
 import com.wgzhao.addax.core.element.Record;
+import com.wgzhao.addax.core.element.RecordBatch;
 import com.wgzhao.addax.core.element.StringColumn;
 import com.wgzhao.addax.core.exception.AddaxException;
 import com.wgzhao.addax.core.plugin.RecordReceiver;
 import com.wgzhao.addax.core.plugin.TaskPluginCollector;
+import com.wgzhao.addax.core.transport.record.DefaultRecord;
 import com.wgzhao.addax.core.util.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hive.common.type.HiveDecimal;
@@ -96,57 +98,198 @@ public class OrcWriter
         for (int i = 0; i < columns.size(); i++) {
             Configuration eachColumnConf = columns.get(i);
             String type = eachColumnConf.getString(Key.TYPE).trim().toUpperCase();
-            ColumnVector col = batch.cols[i];
-
-            // Handle null values
             Column recordColumn = record.getColumn(i);
-            if (recordColumn == null || recordColumn.getRawData() == null) {
-                col.isNull[row] = true;
-                col.noNulls = false;
-                continue;
+            try {
+                setCell(batch.cols[i], row, recordColumn, eachColumnConf, type);
             }
+            catch (Exception e) {
+                taskPluginCollector.collectDirtyRecord(record, e.getMessage());
+                throw AddaxException.asAddaxException(RUNTIME_ERROR,
+                        String.format("Failed to set ORC row, source field type: %s, destination type: %s, " +
+                                        "field name: %s, value: %s, error: %s",
+                                recordColumn.getType(), type,
+                                eachColumnConf.getString(Key.NAME),
+                                recordColumn.getRawData(), e.getMessage()));
+            }
+        }
+    }
 
-            if (type.startsWith("ARRAY")) {
-                appendArrayValue(row, recordColumn, (ListColumnVector) col);
-                continue;
+    /**
+     * write one cell of an orc row
+     *
+     * @param col the column vector
+     * @param row row number
+     * @param recordColumn the value, null or a null raw data writes a null
+     * @param eachColumnConf the column configuration
+     * @param type the upper-case destination type
+     */
+    private void setCell(ColumnVector col, int row, Column recordColumn, Configuration eachColumnConf, String type)
+    {
+        // Handle null values
+        if (recordColumn == null || recordColumn.getRawData() == null) {
+            col.isNull[row] = true;
+            col.noNulls = false;
+            return;
+        }
+
+        if (type.startsWith("ARRAY")) {
+            appendArrayValue(row, recordColumn, (ListColumnVector) col);
+            return;
+        }
+
+        if (type.startsWith("MAP")) {
+            appendMapValue(row, recordColumn, (MapColumnVector) col);
+            return;
+        }
+
+        // Determine column type
+        SupportHiveDataType columnType;
+        if (type.startsWith("DECIMAL")) {
+            columnType = SupportHiveDataType.DECIMAL;
+        }
+        else {
+            try {
+                columnType = SupportHiveDataType.valueOf(type);
             }
+            catch (IllegalArgumentException e) {
+                throw AddaxException.asAddaxException(
+                        NOT_SUPPORT_TYPE,
+                        String.format("Unsupported field type. Field name: [%s], Field type:[%s].",
+                                eachColumnConf.getString(Key.NAME), type));
+            }
+        }
 
-            if (type.startsWith("MAP")) {
-                appendMapValue(row, recordColumn, (MapColumnVector) col);
-                continue;
+        // Set value based on column type
+        appendPrimitiveColumn(row, columnType, col, recordColumn, eachColumnConf, type);
+    }
+
+    /**
+     * Write a columnar batch sent by the reader. Columns whose vector matches the destination type
+     * are copied vector to vector, the others go through the row-oriented conversion cell by cell.
+     *
+     * @param writer the orc writer
+     * @param batch the reusable orc batch, must be empty
+     * @param recordBatch the batch from the reader
+     * @param columns table columns
+     * @param types the upper-case destination type of each column
+     * @param taskPluginCollector {@link TaskPluginCollector}
+     * @throws IOException if the batch cannot be written
+     */
+    private void writeRecordBatch(Writer writer, VectorizedRowBatch batch, RecordBatch recordBatch, List<Configuration> columns,
+            String[] types, TaskPluginCollector taskPluginCollector)
+            throws IOException
+    {
+        int total = recordBatch.size();
+        int from = 0;
+        while (from < total) {
+            int n = Math.min(total - from, batch.getMaxSize());
+            for (int i = 0; i < columns.size(); i++) {
+                ColumnVector col = batch.cols[i];
+                if (!copyVector(col, recordBatch, i, from, n, types[i])) {
+                    for (int r = 0; r < n; r++) {
+                        int row = from + r;
+                        Column recordColumn = recordBatch.getColumn(i, row);
+                        try {
+                            setCell(col, r, recordColumn, columns.get(i), types[i]);
+                        }
+                        catch (Exception e) {
+                            Record dirty = new DefaultRecord();
+                            recordBatch.fillRecord(row, dirty);
+                            taskPluginCollector.collectDirtyRecord(dirty, e.getMessage());
+                            throw AddaxException.asAddaxException(RUNTIME_ERROR,
+                                    String.format("Failed to set ORC row, source field type: %s, destination type: %s, " +
+                                                    "field name: %s, value: %s, error: %s",
+                                            recordColumn.getType(), types[i],
+                                            columns.get(i).getString(Key.NAME),
+                                            recordColumn.getRawData(), e.getMessage()));
+                        }
+                    }
+                }
             }
+            batch.size = n;
+            writer.addRowBatch(batch);
+            batch.reset();
+            from += n;
+        }
+    }
 
-            try {
-                // Determine column type
-                SupportHiveDataType columnType;
-                if (type.startsWith("DECIMAL")) {
-                    columnType = SupportHiveDataType.DECIMAL;
+    /**
+     * Copy a slice of a record batch column into an orc vector when both sides share the physical layout.
+     *
+     * @return false if the types need a conversion
+     */
+    private boolean copyVector(ColumnVector col, RecordBatch recordBatch, int i, int from, int n, String type)
+    {
+        Column.Type srcType = recordBatch.getType(i);
+        switch (type) {
+            case "TINYINT", "SMALLINT", "INT", "BIGINT", "BOOLEAN" -> {
+                if (srcType != Column.Type.LONG && srcType != Column.Type.INT && srcType != Column.Type.BOOL) {
+                    return false;
                 }
-                else {
-                    try {
-                        columnType = SupportHiveDataType.valueOf(type);
+                long[] vector = ((LongColumnVector) col).vector;
+                for (int r = 0; r < n; r++) {
+                    if (setNullIfAbsent(col, recordBatch, i, from + r, r)) {
+                        continue;
                     }
-                    catch (IllegalArgumentException e) {
-                        throw AddaxException.asAddaxException(
-                                NOT_SUPPORT_TYPE,
-                                String.format("Unsupported field type. Field name: [%s], Field type:[%s].",
-                                        eachColumnConf.getString(Key.NAME), type));
+                    vector[r] = recordBatch.getLong(i, from + r);
+                }
+            }
+            case "FLOAT", "DOUBLE" -> {
+                if (srcType != Column.Type.DOUBLE) {
+                    return false;
+                }
+                double[] vector = ((DoubleColumnVector) col).vector;
+                for (int r = 0; r < n; r++) {
+                    if (setNullIfAbsent(col, recordBatch, i, from + r, r)) {
+                        continue;
                     }
+                    vector[r] = recordBatch.getDouble(i, from + r);
                 }
-
-                // Set value based on column type
-                appendPrimitiveColumn(row, columnType, col, recordColumn, eachColumnConf, type);
             }
-            catch (Exception e) {
-                taskPluginCollector.collectDirtyRecord(record, e.getMessage());
-                throw AddaxException.asAddaxException(RUNTIME_ERROR,
-                        String.format("Failed to set ORC row, source field type: %s, destination type: %s, " +
-                                        "field name: %s, value: %s, error: %s",
-                                recordColumn.getType(), type,
-                                eachColumnConf.getString(Key.NAME),
-                                recordColumn.getRawData(), e.getMessage()));
+            case "STRING", "VARCHAR", "CHAR", "BINARY" -> {
+                if (srcType != ("BINARY".equals(type) ? Column.Type.BYTES : Column.Type.STRING)) {
+                    return false;
+                }
+                // the record batch is owned by this writer now, so its buffer can be referenced
+                BytesColumnVector bytesVector = (BytesColumnVector) col;
+                byte[] buffer = recordBatch.getBuffer(i);
+                for (int r = 0; r < n; r++) {
+                    int row = from + r;
+                    if (setNullIfAbsent(col, recordBatch, i, row, r)) {
+                        continue;
+                    }
+                    bytesVector.setRef(r, buffer, recordBatch.getStart(i, row), recordBatch.getLength(i, row));
+                }
+            }
+            case "TIMESTAMP" -> {
+                if (srcType != Column.Type.TIMESTAMP) {
+                    return false;
+                }
+                TimestampColumnVector tsVector = (TimestampColumnVector) col;
+                for (int r = 0; r < n; r++) {
+                    int row = from + r;
+                    if (setNullIfAbsent(col, recordBatch, i, row, r)) {
+                        continue;
+                    }
+                    tsVector.time[r] = recordBatch.getLong(i, row);
+                    tsVector.nanos[r] = recordBatch.getNanos(i, row);
+                }
             }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean setNullIfAbsent(ColumnVector col, RecordBatch recordBatch, int i, int row, int target)
+    {
+        if (recordBatch.isNull(i, row)) {
+            col.isNull[target] = true;
+            col.noNulls = false;
+            return true;
         }
+        return false;
     }
 
     /**
@@ -304,8 +447,25 @@ public class OrcWriter
 
             Record record;
             VectorizedRowBatch batch = schema.createRowBatch(batchSize);
+            String[] types = new String[columns.size()];
+            for (int i = 0; i < types.length; i++) {
+                types[i] = columns.get(i).getString(Key.TYPE).trim().toUpperCase();
+            }
 
-            while ((record = lineReceiver.getFromReader()) != null) {
+            while (true) {
+                RecordBatch recordBatch = lineReceiver.getBatchFromReader();
+                if (recordBatch != null) {
+                    // keep the row order, flush the rows collected so far
+                    if (batch.size != 0) {
+                        writer.addRowBatch(batch);
+                        batch.reset();
+                    }
+                    writeRecordBatch(writer, batch, recordBatch, columns, types, taskPluginCollector);
+                    continue;
+                }
+                if ((record = lineReceiver.getFromReader()) == null) {
+                    break;
+                }
                 int row = batch.size++;
                 setRow(batch, row, record, columns, taskPluginCollector);
 
@@ -179,6 +179,7 @@ public class StreamWriter
                 Record record;
                 while ((record = recordReceiver.getFromReader()) != null) {
                     String output = recordToString(record);
+                    recordReceiver.recycle(record);
                     System.out.print(output);
                 }
                 System.out.flush();
@@ -206,6 +207,7 @@ public class StreamWriter
                         count = 0;
                     }
                     writer.write(recordToString(record));
+                    recordReceiver.recycle(record);
                     count++;
                 }
                 writer.flush();
@@ -17,6 +17,7 @@
 
 package com.wgzhao.addax.server;
 
+import com.wgzhao.addax.core.statistics.metrics.MetricsHttpServer;
 import com.wgzhao.addax.server.manager.TaskManager;
 import com.wgzhao.addax.server.service.TaskService;
 import com.wgzhao.addax.server.model.TaskInfo;
@@ -37,7 +38,8 @@ import java.util.HashMap;
 import java.net.URLDecoder;
 
 /**
- * Minimal HTTP server using JDK HttpServer. Provides /api/submit and /api/status endpoints.
+ * Minimal HTTP server using JDK HttpServer. Provides /api/submit and /api/status endpoints,
+ * and /metrics with the live metrics of the running jobs in the Prometheus text format.
  */
 public class AddaxServer
 {
@@ -89,6 +91,7 @@ public class AddaxServer
         HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
         server.createContext("/api/submit", new SubmitHandler(taskService));
         server.createContext("/api/status", new StatusHandler(taskService));
+        server.createContext("/metrics", MetricsHttpServer::handle);
         server.setExecutor(Executors.newFixedThreadPool(Math.max(2, parallel)));
 
         System.out.println("Starting Addax minimal HTTP server on port " + port + " with maxParallel=" + parallel);
@@ -91,7 +91,8 @@ public class TaskService
             Class<?> engineClass = Class.forName("com.wgzhao.addax.core.Engine");
             try {
                 Method entryMethod = engineClass.getMethod("entry", String[].class);
-                String[] args = new String[] {"-job", tmp.toString()};
+                // the task id labels the metrics of the job at /metrics
+                String[] args = new String[] {"-job", tmp.toString(), "-jobid", taskId};
                 // invoke static method; cast to Object to avoid varargs expansion
                 entryMethod.invoke(null, (Object) args);
             }